@@ -83,11 +83,17 @@ dependencies {
     // Retrofit for Supabase REST API
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
-    implementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
 
     // EncryptedSharedPreferences for secure token storage
     implementation("androidx.security:security-crypto:1.1.0-alpha06")
 
+    // Room for the offline catalog mirror
+    implementation("androidx.room:room-runtime:2.6.1")
+    annotationProcessor("androidx.room:room-compiler:2.6.1")
+
+    // WorkManager for background catalog sync
+    implementation("androidx.work:work-runtime:2.9.1")
+
     // Glide for image loading
     implementation("com.github.bumptech.glide:glide:4.16.0")
     implementation(libs.firebase.messaging)
@@ -97,6 +103,10 @@ dependencies {
     implementation("com.google.android.flexbox:flexbox:3.0.0")
 
     testImplementation(libs.junit)
+    // Local HTTP server for network-layer tests and benchmarks
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
+    // Baseline for the debug logging benchmark (not used by the app)
+    testImplementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
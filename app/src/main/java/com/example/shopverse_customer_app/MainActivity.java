@@ -23,7 +23,13 @@ import androidx.navigation.Navigation;
 import androidx.navigation.ui.AppBarConfiguration;
 import androidx.navigation.ui.NavigationUI;
 
+import com.example.shopverse_customer_app.data.local.CatalogSyncWorker;
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.example.shopverse_customer_app.data.repository.CartOperationQueue;
+import com.example.shopverse_customer_app.data.repository.CatalogRepository;
+import com.example.shopverse_customer_app.data.repository.ProductLiveUpdates;
 import com.example.shopverse_customer_app.databinding.ActivityMainBinding;
+import com.example.shopverse_customer_app.utils.GsonProvider;
 import com.google.firebase.FirebaseApp;
 
 public class MainActivity extends AppCompatActivity {
@@ -37,6 +43,15 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         FirebaseApp.initializeApp(this);
 
+        // Enable HTTP disk cache before any fragment creates the Retrofit client
+        RetrofitClient.init(this);
+        GsonProvider.warmUp();
+        CatalogRepository.init(this);
+        CatalogSyncWorker.schedule(this);
+        // Sends cart changes left in the log by a previous process
+        CartOperationQueue.init(this);
+        CartOperationQueue.getInstance().flushPending();
+
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
@@ -110,6 +125,19 @@ public class MainActivity extends AppCompatActivity {
         handleDeepLink(intent);
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Live stock/price only while the app is visible
+        ProductLiveUpdates.getInstance().start(this);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        ProductLiveUpdates.getInstance().stop();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
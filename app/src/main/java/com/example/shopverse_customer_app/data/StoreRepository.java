@@ -3,8 +3,8 @@ package com.example.shopverse_customer_app.data;
 import android.content.Context;
 import android.util.Log;
 
+import com.example.shopverse_customer_app.utils.GsonProvider;
 import com.example.shopverse_customer_app.utils.JsonUtils;
-import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 
@@ -20,6 +20,7 @@ import java.util.Map;
 public class StoreRepository {
     private static final String TAG = "StoreRepository";
     private static final String STORES_FILE = "stores.json";
+    private static final Type STORES_TYPE = new TypeToken<Map<String, List<Store>>>() {}.getType();
 
     private final Context context;
     private List<Store> cachedStores;
@@ -50,10 +51,8 @@ public class StoreRepository {
                 return cachedStores;
             }
 
-            // Parse JSON using Gson
-            Gson gson = new Gson();
-            Type type = new TypeToken<Map<String, List<Store>>>() {}.getType();
-            Map<String, List<Store>> storesMap = gson.fromJson(jsonString, type);
+            // Parse JSON with the shared Gson (Store is read by its precompiled adapter)
+            Map<String, List<Store>> storesMap = GsonProvider.get().fromJson(jsonString, STORES_TYPE);
 
             if (storesMap != null && storesMap.containsKey("stores")) {
                 List<Store> allStores = storesMap.get("stores");
@@ -0,0 +1,45 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.shopverse_customer_app.data.model.Brand;
+
+/**
+ * Local mirror of a brands row
+ */
+@Entity(tableName = "brands")
+public class BrandEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "brand_id")
+    public String brandId = "";
+
+    @ColumnInfo(name = "brand_name")
+    public String brandName;
+
+    @ColumnInfo(name = "brand_logo_url")
+    public String brandLogoUrl;
+
+    // Server updated_at of the mirrored row (compared with tombstone deleted_at)
+    @ColumnInfo(name = "updated_at")
+    public String updatedAt;
+
+    public static BrandEntity from(Brand brand) {
+        BrandEntity entity = new BrandEntity();
+        entity.brandId = brand.getBrandId();
+        entity.brandName = brand.getBrandName();
+        entity.brandLogoUrl = brand.getBrandLogoUrl();
+        entity.updatedAt = brand.getUpdatedAt();
+        return entity;
+    }
+
+    public Brand toModel() {
+        Brand brand = new Brand(brandId, brandName);
+        brand.setBrandLogoUrl(brandLogoUrl);
+        return brand;
+    }
+}
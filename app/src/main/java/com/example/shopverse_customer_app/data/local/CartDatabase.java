@@ -0,0 +1,38 @@
+package com.example.shopverse_customer_app.data.local;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Pending cart changes that have not reached the server yet
+ *
+ * Kept apart from CatalogDatabase: the catalog mirror is rebuilt on every
+ * schema change, while these rows are user input that must survive.
+ */
+@Database(entities = {
+        CartOperationEntity.class
+}, version = 1, exportSchema = false)
+public abstract class CartDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "cart.db";
+
+    private static volatile CartDatabase instance;
+
+    public abstract CartOperationDao cartOperationDao();
+
+    public static CartDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CartDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    CartDatabase.class, DATABASE_NAME)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
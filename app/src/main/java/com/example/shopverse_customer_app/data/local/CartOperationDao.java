@@ -0,0 +1,41 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Write-ahead log of cart changes (CartOperationQueue)
+ * Blocking: call from a background thread
+ */
+@Dao
+public abstract class CartOperationDao {
+
+    @Insert
+    public abstract long insert(CartOperationEntity operation);
+
+    @Query("SELECT * FROM cart_operations ORDER BY id LIMIT 1")
+    public abstract CartOperationEntity getOldest();
+
+    /**
+     * Newest operation for a product - the only one that still has to be sent
+     */
+    @Query("SELECT * FROM cart_operations WHERE user_id = :userId AND product_id = :productId "
+            + "ORDER BY id DESC LIMIT 1")
+    public abstract CartOperationEntity getLatest(String userId, String productId);
+
+    @Query("SELECT * FROM cart_operations WHERE user_id = :userId ORDER BY id")
+    public abstract List<CartOperationEntity> getPending(String userId);
+
+    /**
+     * Drop a sent operation and the older ones it superseded
+     * (operations queued while it was in flight are kept)
+     */
+    @Query("DELETE FROM cart_operations WHERE user_id = :userId AND product_id = :productId AND id <= :upToId")
+    public abstract int deleteUpTo(String userId, String productId, long upToId);
+
+    @Query("SELECT COUNT(*) FROM cart_operations")
+    public abstract int count();
+}
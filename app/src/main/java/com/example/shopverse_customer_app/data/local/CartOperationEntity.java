@@ -0,0 +1,69 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A cart change made on the device and not yet confirmed by cart_items
+ *
+ * Operations carry absolute values (the new quantity, or a delete), so
+ * sending one twice is harmless and only the newest operation per product
+ * has to reach the server.
+ */
+@Entity(tableName = "cart_operations",
+        indices = {@Index(value = {"user_id", "product_id"})})
+public class CartOperationEntity {
+
+    public static final String TYPE_SET_QUANTITY = "set_quantity";
+    public static final String TYPE_DELETE = "delete";
+
+    // Insertion order; the queue is flushed oldest first
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    public long id;
+
+    @NonNull
+    @ColumnInfo(name = "user_id")
+    public String userId = "";
+
+    @NonNull
+    @ColumnInfo(name = "product_id")
+    public String productId = "";
+
+    @NonNull
+    @ColumnInfo(name = "type")
+    public String type = TYPE_SET_QUANTITY;
+
+    // New quantity for TYPE_SET_QUANTITY, unused for TYPE_DELETE
+    @ColumnInfo(name = "quantity")
+    public int quantity;
+
+    @ColumnInfo(name = "created_at")
+    public long createdAt;
+
+    public static CartOperationEntity setQuantity(String userId, String productId, int quantity) {
+        CartOperationEntity operation = create(userId, productId, TYPE_SET_QUANTITY);
+        operation.quantity = quantity;
+        return operation;
+    }
+
+    public static CartOperationEntity delete(String userId, String productId) {
+        return create(userId, productId, TYPE_DELETE);
+    }
+
+    private static CartOperationEntity create(String userId, String productId, String type) {
+        CartOperationEntity operation = new CartOperationEntity();
+        operation.userId = userId;
+        operation.productId = productId;
+        operation.type = type;
+        operation.createdAt = System.currentTimeMillis();
+        return operation;
+    }
+
+    public boolean isDelete() {
+        return TYPE_DELETE.equals(type);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.shopverse_customer_app.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.example.shopverse_customer_app.data.repository.CartOperationQueue;
+import com.example.shopverse_customer_app.utils.TokenManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends queued cart changes (CartOperationQueue) to cart_items
+ * Runs whenever a change is queued and once at app start, waiting for
+ * connectivity; retried with backoff while the server is unreachable
+ */
+public class CartSyncWorker extends Worker {
+
+    private static final String TAG = "CartSyncWorker";
+    private static final String WORK_FLUSH = "cart_flush";
+
+    public CartSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        // The worker may run in a fresh process where no Activity initialized these
+        RetrofitClient.init(getApplicationContext());
+        CartOperationQueue.init(getApplicationContext());
+        String accessToken = new TokenManager(getApplicationContext()).getAccessToken();
+        if (accessToken != null) {
+            RetrofitClient.getInstance().setAccessToken(accessToken);
+        }
+
+        if (CartOperationQueue.getInstance().flush()) {
+            return Result.success();
+        }
+        Log.d(TAG, "Cart changes not sent, retrying (attempt " + (getRunAttemptCount() + 1) + ")");
+        return Result.retry();
+    }
+
+    /**
+     * Flush the queue as soon as the network allows
+     * A flush that is already running is followed by another one, so changes
+     * queued while it runs are not left behind
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest flush = new OneTimeWorkRequest.Builder(CartSyncWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_FLUSH, ExistingWorkPolicy.APPEND_OR_REPLACE, flush);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Dao;
+import androidx.room.Embedded;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Queries over the local catalog mirror
+ * Blocking: call from a background thread (CatalogRepository does)
+ */
+@Dao
+public abstract class CatalogDao {
+
+    @Query("SELECT * FROM categories ORDER BY position")
+    public abstract List<CategoryEntity> getCategories();
+
+    @Query("SELECT b.* FROM brands b "
+            + "INNER JOIN categories_brands cb ON cb.brand_id = b.brand_id "
+            + "WHERE cb.category_id = :categoryId "
+            + "ORDER BY cb.position")
+    public abstract List<BrandEntity> getBrandsForCategory(String categoryId);
+
+    // Filtered product query shared by queryProducts() and queryProductPage()
+    private static final String QUERY_PRODUCTS = "SELECT p.*, b.brand_name AS brand_name FROM products p "
+            + "LEFT JOIN brands b ON b.brand_id = p.brand_id "
+            + "WHERE p.status = 'active' "
+            + "AND (:categoryId IS NULL OR p.category_id = :categoryId) "
+            + "AND (:anyBrand OR p.brand_id IN (:brandIds)) "
+            + "AND (:search IS NULL OR p.search_name LIKE '%' || :search || '%' ESCAPE '\\') "
+            + "AND p.unit_price >= :minPrice AND p.unit_price < :maxPrice "
+            + "ORDER BY CASE WHEN :sortOrder = 'unit_price.asc' THEN p.unit_price END ASC, "
+            + "CASE WHEN :sortOrder = 'unit_price.desc' THEN p.unit_price END DESC, "
+            + "p.position";
+
+    /**
+     * Active products matching the filters, with their brand name
+     *
+     * @param categoryId Category to list, or null for all
+     * @param anyBrand True to ignore brandIds
+     * @param brandIds Brands to include when anyBrand is false
+     * @param search Normalized substring of the name (ProductEntity.normalizeSearch), LIKE-escaped with '\', or null
+     * @param minPrice Inclusive lower price bound
+     * @param maxPrice Exclusive upper price bound
+     * @param sortOrder "unit_price.asc", "unit_price.desc" or null for the server order
+     */
+    @Query(QUERY_PRODUCTS)
+    public abstract List<ProductRow> queryProducts(String categoryId, boolean anyBrand, List<String> brandIds,
+                                                   String search, double minPrice, double maxPrice,
+                                                   String sortOrder);
+
+    /**
+     * One page of queryProducts(), for list screens that page through the result
+     */
+    @Query(QUERY_PRODUCTS + " LIMIT :limit OFFSET :offset")
+    public abstract List<ProductRow> queryProductPage(String categoryId, boolean anyBrand, List<String> brandIds,
+                                                      String search, double minPrice, double maxPrice,
+                                                      String sortOrder, int offset, int limit);
+
+    @Query("SELECT COUNT(*) FROM products")
+    public abstract int countProducts();
+
+    // ========== WRITES (CatalogSyncEngine, inside a transaction) ==========
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertCategories(List<CategoryEntity> categories);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertBrands(List<BrandEntity> brands);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertCategoryBrands(List<CategoryBrandEntity> categoryBrands);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertProducts(List<ProductEntity> products);
+
+    // Positions: existing rows keep theirs, new rows go to the end
+
+    @Query("SELECT position FROM categories WHERE category_id = :categoryId")
+    public abstract Integer getCategoryPosition(String categoryId);
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM categories")
+    public abstract int nextCategoryPosition();
+
+    @Query("SELECT position FROM categories_brands WHERE category_id = :categoryId AND brand_id = :brandId")
+    public abstract Integer getCategoryBrandPosition(String categoryId, String brandId);
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM categories_brands")
+    public abstract int nextCategoryBrandPosition();
+
+    @Query("SELECT position FROM products WHERE product_id = :productId")
+    public abstract Integer getProductPosition(String productId);
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM products")
+    public abstract int nextProductPosition();
+
+    // Tombstones: only delete rows that were not changed again after the deletion
+
+    @Query("DELETE FROM categories WHERE category_id = :categoryId "
+            + "AND (updated_at IS NULL OR updated_at <= :deletedAt)")
+    public abstract int deleteCategory(String categoryId, String deletedAt);
+
+    @Query("DELETE FROM brands WHERE brand_id = :brandId "
+            + "AND (updated_at IS NULL OR updated_at <= :deletedAt)")
+    public abstract int deleteBrand(String brandId, String deletedAt);
+
+    @Query("DELETE FROM categories_brands WHERE category_id = :categoryId AND brand_id = :brandId "
+            + "AND (updated_at IS NULL OR updated_at <= :deletedAt)")
+    public abstract int deleteCategoryBrand(String categoryId, String brandId, String deletedAt);
+
+    @Query("DELETE FROM products WHERE product_id = :productId "
+            + "AND (updated_at IS NULL OR updated_at <= :deletedAt)")
+    public abstract int deleteProduct(String productId, String deletedAt);
+
+    /**
+     * Apply a realtime stock/price change unless the row already holds a newer version
+     */
+    @Query("UPDATE products SET stock = :stock, unit_price = :unitPrice, updated_at = :updatedAt "
+            + "WHERE product_id = :productId AND (updated_at IS NULL OR updated_at < :updatedAt)")
+    public abstract int updateStockAndPrice(String productId, int stock, double unitPrice, String updatedAt);
+
+    /**
+     * A products row with the joined brand name
+     */
+    public static class ProductRow {
+        @Embedded
+        public ProductEntity product;
+
+        @ColumnInfo(name = "brand_name")
+        public String brandName;
+    }
+}
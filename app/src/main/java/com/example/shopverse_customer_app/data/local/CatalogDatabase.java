@@ -0,0 +1,43 @@
+package com.example.shopverse_customer_app.data.local;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * On-device copy of the catalog (categories, brands, categories_brands, products)
+ * Filled by CatalogSyncWorker, read by CatalogRepository
+ */
+@Database(entities = {
+        CategoryEntity.class,
+        BrandEntity.class,
+        CategoryBrandEntity.class,
+        ProductEntity.class
+}, version = CatalogDatabase.VERSION, exportSchema = false)
+public abstract class CatalogDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "catalog.db";
+    // Bump together with @Database.version; sync state is reset when it changes
+    public static final int VERSION = 2;
+
+    private static volatile CatalogDatabase instance;
+
+    public abstract CatalogDao catalogDao();
+
+    public static CatalogDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CatalogDatabase.class) {
+                if (instance == null) {
+                    // The mirror can always be re-downloaded, so schema changes just rebuild it
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    CatalogDatabase.class, DATABASE_NAME)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
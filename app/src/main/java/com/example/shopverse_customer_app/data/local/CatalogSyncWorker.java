@@ -0,0 +1,79 @@
+package com.example.shopverse_customer_app.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.example.shopverse_customer_app.data.repository.CatalogRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background reconciliation of the local catalog with Supabase
+ * Runs periodically while online, plus once at app start (schedule())
+ */
+public class CatalogSyncWorker extends Worker {
+
+    private static final String TAG = "CatalogSyncWorker";
+    private static final String WORK_PERIODIC = "catalog_sync_periodic";
+    private static final String WORK_ON_START = "catalog_sync_on_start";
+    private static final long SYNC_INTERVAL_HOURS = 6;
+    private static final int MAX_ATTEMPTS = 3;
+
+    public CatalogSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        // The worker may run in a fresh process where no Activity initialized these
+        RetrofitClient.init(getApplicationContext());
+        CatalogRepository.init(getApplicationContext());
+
+        if (CatalogRepository.getInstance().syncNow()) {
+            return Result.success();
+        }
+        if (getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+            Log.d(TAG, "Sync failed, retrying (attempt " + (getRunAttemptCount() + 1) + ")");
+            return Result.retry();
+        }
+        return Result.failure();
+    }
+
+    /**
+     * Schedule the periodic sync and a sync now (both wait for connectivity)
+     * Safe to call on every start: already scheduled work is kept
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        WorkManager workManager = WorkManager.getInstance(context);
+
+        PeriodicWorkRequest periodic = new PeriodicWorkRequest.Builder(
+                CatalogSyncWorker.class, SYNC_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_PERIODIC, ExistingPeriodicWorkPolicy.KEEP, periodic);
+
+        OneTimeWorkRequest onStart = new OneTimeWorkRequest.Builder(CatalogSyncWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        workManager.enqueueUniqueWork(WORK_ON_START, ExistingWorkPolicy.KEEP, onStart);
+    }
+}
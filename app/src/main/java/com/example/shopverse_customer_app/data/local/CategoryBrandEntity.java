@@ -0,0 +1,42 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Local mirror of a categories_brands row (which brands are sold in a category)
+ */
+@Entity(tableName = "categories_brands",
+        primaryKeys = {"category_id", "brand_id"},
+        indices = {@Index("brand_id")})
+public class CategoryBrandEntity {
+
+    @NonNull
+    @ColumnInfo(name = "category_id")
+    public String categoryId = "";
+
+    @NonNull
+    @ColumnInfo(name = "brand_id")
+    public String brandId = "";
+
+    // Position in the server response, so brand lists keep the server order
+    @ColumnInfo(name = "position")
+    public int position;
+
+    // Server updated_at of the mirrored row (compared with tombstone deleted_at)
+    @ColumnInfo(name = "updated_at")
+    public String updatedAt;
+
+    /**
+     * Position is assigned when the row is stored (CatalogSyncEngine)
+     */
+    public static CategoryBrandEntity of(String categoryId, String brandId, String updatedAt) {
+        CategoryBrandEntity entity = new CategoryBrandEntity();
+        entity.categoryId = categoryId;
+        entity.brandId = brandId;
+        entity.updatedAt = updatedAt;
+        return entity;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.shopverse_customer_app.data.model.Category;
+
+/**
+ * Local mirror of a categories row
+ */
+@Entity(tableName = "categories")
+public class CategoryEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "category_id")
+    public String categoryId = "";
+
+    @ColumnInfo(name = "category_name")
+    public String categoryName;
+
+    // Position in the server response, so local lists keep the server order
+    @ColumnInfo(name = "position")
+    public int position;
+
+    // Server updated_at of the mirrored row (compared with tombstone deleted_at)
+    @ColumnInfo(name = "updated_at")
+    public String updatedAt;
+
+    /**
+     * Position is assigned when the row is stored (CatalogSyncEngine)
+     */
+    public static CategoryEntity from(Category category) {
+        CategoryEntity entity = new CategoryEntity();
+        entity.categoryId = category.getCategoryId();
+        entity.categoryName = category.getCategoryName();
+        entity.updatedAt = category.getUpdatedAt();
+        return entity;
+    }
+
+    public Category toModel() {
+        return new Category(categoryId, categoryName);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.shopverse_customer_app.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.shopverse_customer_app.data.model.Brand;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Local mirror of a products row (card projection, see ProductRepository.SELECT_CARD)
+ * Indexed for the list screens' filters and price sorts
+ */
+@Entity(tableName = "products",
+        indices = {
+                @Index(value = {"category_id", "unit_price"}),
+                @Index("brand_id"),
+                @Index("unit_price")
+        })
+public class ProductEntity {
+
+    private static final Type MEDIA_TYPE = new TypeToken<List<String>>() {}.getType();
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "product_id")
+    public String productId = "";
+
+    @ColumnInfo(name = "category_id")
+    public String categoryId;
+
+    @ColumnInfo(name = "brand_id")
+    public String brandId;
+
+    @ColumnInfo(name = "product_name")
+    public String productName;
+
+    // Lower-cased product_name for case-insensitive search (SQLite LIKE only folds ASCII)
+    @ColumnInfo(name = "search_name")
+    public String searchName;
+
+    // JSON array of image URLs
+    @ColumnInfo(name = "product_media")
+    public String productMedia;
+
+    @ColumnInfo(name = "stock")
+    public int stock;
+
+    @ColumnInfo(name = "unit_price")
+    public double unitPrice;
+
+    @ColumnInfo(name = "status")
+    public String status;
+
+    // Position in the server response (default order when no sort is chosen)
+    @ColumnInfo(name = "position")
+    public int position;
+
+    // Server updated_at of the mirrored row (compared with tombstone deleted_at)
+    @ColumnInfo(name = "updated_at")
+    public String updatedAt;
+
+    /**
+     * Position is assigned when the row is stored (CatalogSyncEngine)
+     */
+    public static ProductEntity from(Product product) {
+        ProductEntity entity = new ProductEntity();
+        entity.productId = product.getProductId();
+        entity.categoryId = product.getCategoryId();
+        entity.brandId = product.getBrandId();
+        entity.productName = product.getProductName();
+        entity.searchName = normalizeSearch(product.getProductName());
+        entity.productMedia = product.getProductMedia() != null
+                ? GsonProvider.get().toJson(product.getProductMedia())
+                : null;
+        entity.stock = product.getStock();
+        entity.unitPrice = product.getUnitPrice();
+        entity.status = product.getStatus();
+        entity.updatedAt = product.getUpdatedAt();
+        return entity;
+    }
+
+    /**
+     * @param brandName Joined brands.brand_name (nullable)
+     */
+    public Product toModel(String brandName) {
+        Product product = new Product(productId, productName, unitPrice);
+        product.setCategoryId(categoryId);
+        product.setBrandId(brandId);
+        product.setStock(stock);
+        product.setStatus(status);
+        if (productMedia != null) {
+            product.setProductMedia(GsonProvider.get().fromJson(productMedia, MEDIA_TYPE));
+        }
+        if (brandName != null) {
+            product.setBrand(new Brand(brandId, brandName));
+        }
+        return product;
+    }
+
+    /**
+     * Normalize a name or query the same way for search_name matching
+     */
+    public static String normalizeSearch(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -18,6 +18,13 @@ public class Brand implements Serializable {
     @SerializedName("brand_logo_url")
     private String brandLogoUrl;
 
+    // Change tracking for catalog delta sync (only selected by CatalogSyncEngine)
+    @SerializedName("updated_at")
+    private String updatedAt;
+
+    @SerializedName("deleted_at")
+    private String deletedAt; // Set when soft-deleted
+
     // Constructors
     public Brand() {
     }
@@ -52,6 +59,22 @@ public class Brand implements Serializable {
         this.brandLogoUrl = brandLogoUrl;
     }
 
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(String deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     @Override
     public String toString() {
         return "Brand{" +
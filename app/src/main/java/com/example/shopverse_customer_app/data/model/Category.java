@@ -15,6 +15,13 @@ public class Category implements Serializable {
     @SerializedName("category_name")
     private String categoryName;
 
+    // Change tracking for catalog delta sync (only selected by CatalogSyncEngine)
+    @SerializedName("updated_at")
+    private String updatedAt;
+
+    @SerializedName("deleted_at")
+    private String deletedAt; // Set when soft-deleted
+
     // Constructors
     public Category() {
     }
@@ -41,6 +48,22 @@ public class Category implements Serializable {
         this.categoryName = categoryName;
     }
 
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(String deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     @Override
     public String toString() {
         return "Category{" +
@@ -0,0 +1,66 @@
+package com.example.shopverse_customer_app.data.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of the home_feed RPC (supabase/migrations/*_home_feed.sql)
+ * Everything the Home and Dashboard screens show first, in one document:
+ * all categories, the brands of the first category and the first products
+ */
+public class HomeFeed {
+
+    @SerializedName("categories")
+    private List<Category> categories = new ArrayList<>();
+
+    @SerializedName("first_category_id")
+    private String firstCategoryId;
+
+    @SerializedName("brands")
+    private List<Brand> brands = new ArrayList<>();
+
+    @SerializedName("products")
+    private List<Product> products = new ArrayList<>();
+
+    // Constructors
+    public HomeFeed() {
+    }
+
+    // Getters and Setters
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<Category> categories) {
+        this.categories = categories;
+    }
+
+    public String getFirstCategoryId() {
+        return firstCategoryId;
+    }
+
+    public void setFirstCategoryId(String firstCategoryId) {
+        this.firstCategoryId = firstCategoryId;
+    }
+
+    /**
+     * Brands of the category identified by getFirstCategoryId()
+     */
+    public List<Brand> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(List<Brand> brands) {
+        this.brands = brands;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+}
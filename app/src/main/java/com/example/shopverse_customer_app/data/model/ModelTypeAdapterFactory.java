@@ -0,0 +1,698 @@
+package com.example.shopverse_customer_app.data.model;
+
+import com.example.shopverse_customer_app.data.Store;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written Gson TypeAdapters for the data models, HomeFeed and Store
+ *
+ * Replaces Gson's reflective adapter: no field reflection at startup or per
+ * field, and nothing breaks when R8 renames fields. JSON names match the
+ * models' @SerializedName values. Unknown fields are skipped, JSON nulls keep
+ * the field default, and null fields are left out when writing (same as
+ * Gson's default), so request bodies are unchanged.
+ *
+ * Register with GsonBuilder.registerTypeAdapterFactory(). When a field is
+ * added to a model, add it to its adapter here as well.
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (raw == Product.class) {
+            adapter = new ProductAdapter(gson);
+        } else if (raw == Brand.class) {
+            adapter = new BrandAdapter();
+        } else if (raw == Category.class) {
+            adapter = new CategoryAdapter();
+        } else if (raw == CartItem.class) {
+            adapter = new CartItemAdapter(gson);
+        } else if (raw == Order.class) {
+            adapter = new OrderAdapter();
+        } else if (raw == OrderItem.class) {
+            adapter = new OrderItemAdapter();
+        } else if (raw == Profile.class) {
+            adapter = new ProfileAdapter();
+        } else if (raw == AuthResponse.class) {
+            adapter = new AuthResponseAdapter(gson);
+        } else if (raw == User.class) {
+            adapter = new UserAdapter();
+        } else if (raw == ApiError.class) {
+            adapter = new ApiErrorAdapter();
+        } else if (raw == Store.class) {
+            adapter = new StoreAdapter();
+        } else if (raw == HomeFeed.class) {
+            adapter = new HomeFeedAdapter(gson);
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    /**
+     * Object adapter skeleton: field dispatch by JSON name, skipping unknown names and nulls
+     */
+    private abstract static class ModelAdapter<T> extends TypeAdapter<T> {
+
+        abstract T newInstance();
+
+        /**
+         * Read the value of one field into the model
+         *
+         * @return false if the name is not a field of this model
+         */
+        abstract boolean readField(T model, String name, JsonReader in) throws IOException;
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            T model = newInstance();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                } else if (!readField(model, name, in)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return model;
+        }
+    }
+
+    private static List<String> readStringList(JsonReader in) throws IOException {
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                values.add(null);
+            } else {
+                values.add(in.nextString());
+            }
+        }
+        in.endArray();
+        return values;
+    }
+
+    private static void writeStringList(JsonWriter out, List<String> values) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    private static final class ProductAdapter extends ModelAdapter<Product> {
+        private final TypeAdapter<Brand> brandAdapter;
+        private final TypeAdapter<Category> categoryAdapter;
+
+        ProductAdapter(Gson gson) {
+            brandAdapter = gson.getAdapter(Brand.class);
+            categoryAdapter = gson.getAdapter(Category.class);
+        }
+
+        @Override
+        Product newInstance() {
+            return new Product();
+        }
+
+        @Override
+        boolean readField(Product product, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "product_id":
+                    product.setProductId(in.nextString());
+                    return true;
+                case "category_id":
+                    product.setCategoryId(in.nextString());
+                    return true;
+                case "brand_id":
+                    product.setBrandId(in.nextString());
+                    return true;
+                case "product_media":
+                    product.setProductMedia(readStringList(in));
+                    return true;
+                case "product_name":
+                    product.setProductName(in.nextString());
+                    return true;
+                case "stock":
+                    product.setStock(in.nextInt());
+                    return true;
+                case "unit_price":
+                    product.setUnitPrice(in.nextDouble());
+                    return true;
+                case "description":
+                    product.setDescription(in.nextString());
+                    return true;
+                case "status":
+                    product.setStatus(in.nextString());
+                    return true;
+                case "updated_at":
+                    product.setUpdatedAt(in.nextString());
+                    return true;
+                case "deleted_at":
+                    product.setDeletedAt(in.nextString());
+                    return true;
+                case "brands":
+                    product.setBrand(brandAdapter.read(in));
+                    return true;
+                case "categories":
+                    product.setCategory(categoryAdapter.read(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Product product) throws IOException {
+            out.beginObject();
+            out.name("product_id").value(product.getProductId());
+            out.name("category_id").value(product.getCategoryId());
+            out.name("brand_id").value(product.getBrandId());
+            out.name("product_media");
+            writeStringList(out, product.getProductMedia());
+            out.name("product_name").value(product.getProductName());
+            out.name("stock").value(product.getStock());
+            out.name("unit_price").value(product.getUnitPrice());
+            out.name("description").value(product.getDescription());
+            out.name("status").value(product.getStatus());
+            out.name("updated_at").value(product.getUpdatedAt());
+            out.name("deleted_at").value(product.getDeletedAt());
+            out.name("brands");
+            brandAdapter.write(out, product.getBrand());
+            out.name("categories");
+            categoryAdapter.write(out, product.getCategory());
+            out.endObject();
+        }
+    }
+
+    private static final class BrandAdapter extends ModelAdapter<Brand> {
+        @Override
+        Brand newInstance() {
+            return new Brand();
+        }
+
+        @Override
+        boolean readField(Brand brand, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "brand_id":
+                    brand.setBrandId(in.nextString());
+                    return true;
+                case "brand_name":
+                    brand.setBrandName(in.nextString());
+                    return true;
+                case "brand_logo_url":
+                    brand.setBrandLogoUrl(in.nextString());
+                    return true;
+                case "updated_at":
+                    brand.setUpdatedAt(in.nextString());
+                    return true;
+                case "deleted_at":
+                    brand.setDeletedAt(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Brand brand) throws IOException {
+            out.beginObject();
+            out.name("brand_id").value(brand.getBrandId());
+            out.name("brand_name").value(brand.getBrandName());
+            out.name("brand_logo_url").value(brand.getBrandLogoUrl());
+            out.name("updated_at").value(brand.getUpdatedAt());
+            out.name("deleted_at").value(brand.getDeletedAt());
+            out.endObject();
+        }
+    }
+
+    private static final class CategoryAdapter extends ModelAdapter<Category> {
+        @Override
+        Category newInstance() {
+            return new Category();
+        }
+
+        @Override
+        boolean readField(Category category, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "category_id":
+                    category.setCategoryId(in.nextString());
+                    return true;
+                case "category_name":
+                    category.setCategoryName(in.nextString());
+                    return true;
+                case "updated_at":
+                    category.setUpdatedAt(in.nextString());
+                    return true;
+                case "deleted_at":
+                    category.setDeletedAt(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Category category) throws IOException {
+            out.beginObject();
+            out.name("category_id").value(category.getCategoryId());
+            out.name("category_name").value(category.getCategoryName());
+            out.name("updated_at").value(category.getUpdatedAt());
+            out.name("deleted_at").value(category.getDeletedAt());
+            out.endObject();
+        }
+    }
+
+    private static final class CartItemAdapter extends ModelAdapter<CartItem> {
+        private final TypeAdapter<Product> productAdapter;
+
+        CartItemAdapter(Gson gson) {
+            productAdapter = gson.getAdapter(Product.class);
+        }
+
+        @Override
+        CartItem newInstance() {
+            return new CartItem();
+        }
+
+        @Override
+        boolean readField(CartItem item, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "user_id":
+                    item.setUserId(in.nextString());
+                    return true;
+                case "product_id":
+                    item.setProductId(in.nextString());
+                    return true;
+                case "quantity":
+                    item.setQuantity(in.nextInt());
+                    return true;
+                case "products":
+                    item.setProduct(productAdapter.read(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, CartItem item) throws IOException {
+            // isSelected is UI state and never sent
+            out.beginObject();
+            out.name("user_id").value(item.getUserId());
+            out.name("product_id").value(item.getProductId());
+            out.name("quantity").value(item.getQuantity());
+            out.name("products");
+            productAdapter.write(out, item.getProduct());
+            out.endObject();
+        }
+    }
+
+    private static final class OrderAdapter extends ModelAdapter<Order> {
+        @Override
+        Order newInstance() {
+            return new Order();
+        }
+
+        @Override
+        boolean readField(Order order, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "order_id":
+                    order.setOrderId(in.nextString());
+                    return true;
+                case "user_id":
+                    order.setUserId(in.nextString());
+                    return true;
+                case "total_discount":
+                    order.setTotalDiscount(in.nextDouble());
+                    return true;
+                case "total_price":
+                    order.setTotalPrice(in.nextDouble());
+                    return true;
+                case "status":
+                    order.setStatus(in.nextString());
+                    return true;
+                case "order_date":
+                    order.setOrderDate(in.nextString());
+                    return true;
+                case "address":
+                    order.setAddress(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Order order) throws IOException {
+            out.beginObject();
+            out.name("order_id").value(order.getOrderId());
+            out.name("user_id").value(order.getUserId());
+            out.name("total_discount").value(order.getTotalDiscount());
+            out.name("total_price").value(order.getTotalPrice());
+            out.name("status").value(order.getStatus());
+            out.name("order_date").value(order.getOrderDate());
+            out.name("address").value(order.getAddress());
+            out.endObject();
+        }
+    }
+
+    private static final class OrderItemAdapter extends ModelAdapter<OrderItem> {
+        @Override
+        OrderItem newInstance() {
+            return new OrderItem();
+        }
+
+        @Override
+        boolean readField(OrderItem item, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "order_id":
+                    item.setOrderId(in.nextString());
+                    return true;
+                case "product_id":
+                    item.setProductId(in.nextString());
+                    return true;
+                case "discount_id":
+                    item.setDiscountId(in.nextString());
+                    return true;
+                case "quantity":
+                    item.setQuantity(in.nextInt());
+                    return true;
+                case "unit_price":
+                    item.setUnitPrice(in.nextDouble());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, OrderItem item) throws IOException {
+            out.beginObject();
+            out.name("order_id").value(item.getOrderId());
+            out.name("product_id").value(item.getProductId());
+            out.name("discount_id").value(item.getDiscountId());
+            out.name("quantity").value(item.getQuantity());
+            out.name("unit_price").value(item.getUnitPrice());
+            out.endObject();
+        }
+    }
+
+    private static final class ProfileAdapter extends ModelAdapter<Profile> {
+        @Override
+        Profile newInstance() {
+            return new Profile();
+        }
+
+        @Override
+        boolean readField(Profile profile, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "user_id":
+                    profile.setUserId(in.nextString());
+                    return true;
+                case "email":
+                    profile.setEmail(in.nextString());
+                    return true;
+                case "display_name":
+                    profile.setDisplayName(in.nextString());
+                    return true;
+                case "phone":
+                    profile.setPhone(in.nextString());
+                    return true;
+                case "address":
+                    profile.setAddress(in.nextString());
+                    return true;
+                case "role":
+                    profile.setRole(in.nextString());
+                    return true;
+                case "avatar_url":
+                    profile.setAvatarUrl(in.nextString());
+                    return true;
+                case "created_at":
+                    profile.setCreatedAt(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Profile profile) throws IOException {
+            out.beginObject();
+            out.name("user_id").value(profile.getUserId());
+            out.name("email").value(profile.getEmail());
+            out.name("display_name").value(profile.getDisplayName());
+            out.name("phone").value(profile.getPhone());
+            out.name("address").value(profile.getAddress());
+            out.name("role").value(profile.getRole());
+            out.name("avatar_url").value(profile.getAvatarUrl());
+            out.name("created_at").value(profile.getCreatedAt());
+            out.endObject();
+        }
+    }
+
+    private static final class AuthResponseAdapter extends ModelAdapter<AuthResponse> {
+        private final TypeAdapter<User> userAdapter;
+
+        AuthResponseAdapter(Gson gson) {
+            userAdapter = gson.getAdapter(User.class);
+        }
+
+        @Override
+        AuthResponse newInstance() {
+            return new AuthResponse();
+        }
+
+        @Override
+        boolean readField(AuthResponse response, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "access_token":
+                    response.setAccessToken(in.nextString());
+                    return true;
+                case "refresh_token":
+                    response.setRefreshToken(in.nextString());
+                    return true;
+                case "expires_in":
+                    response.setExpiresIn(in.nextLong());
+                    return true;
+                case "token_type":
+                    response.setTokenType(in.nextString());
+                    return true;
+                case "user":
+                    response.setUser(userAdapter.read(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, AuthResponse response) throws IOException {
+            out.beginObject();
+            out.name("access_token").value(response.getAccessToken());
+            out.name("refresh_token").value(response.getRefreshToken());
+            out.name("expires_in").value(response.getExpiresIn());
+            out.name("token_type").value(response.getTokenType());
+            out.name("user");
+            userAdapter.write(out, response.getUser());
+            out.endObject();
+        }
+    }
+
+    private static final class UserAdapter extends ModelAdapter<User> {
+        @Override
+        User newInstance() {
+            return new User();
+        }
+
+        @Override
+        boolean readField(User user, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id":
+                    user.setId(in.nextString());
+                    return true;
+                case "email":
+                    user.setEmail(in.nextString());
+                    return true;
+                case "phone":
+                    user.setPhone(in.nextString());
+                    return true;
+                case "created_at":
+                    user.setCreatedAt(in.nextString());
+                    return true;
+                case "confirmed_at":
+                    user.setConfirmedAt(in.nextString());
+                    return true;
+                case "last_sign_in_at":
+                    user.setLastSignInAt(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, User user) throws IOException {
+            out.beginObject();
+            out.name("id").value(user.getId());
+            out.name("email").value(user.getEmail());
+            out.name("phone").value(user.getPhone());
+            out.name("created_at").value(user.getCreatedAt());
+            out.name("confirmed_at").value(user.getConfirmedAt());
+            out.name("last_sign_in_at").value(user.getLastSignInAt());
+            out.endObject();
+        }
+    }
+
+    private static final class ApiErrorAdapter extends ModelAdapter<ApiError> {
+        @Override
+        ApiError newInstance() {
+            return new ApiError();
+        }
+
+        @Override
+        boolean readField(ApiError error, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "code":
+                    // PostgREST sends string codes ("PGRST204"), Auth sends numbers
+                    error.setCode(in.nextString());
+                    return true;
+                case "error":
+                    error.setError(in.nextString());
+                    return true;
+                case "msg":
+                    error.setMsg(in.nextString());
+                    return true;
+                case "message":
+                    error.setMessage(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, ApiError error) throws IOException {
+            out.beginObject();
+            out.name("code").value(error.getCode());
+            out.name("error").value(error.getError());
+            out.name("msg").value(error.getMsg());
+            out.name("message").value(error.getMessage());
+            out.endObject();
+        }
+    }
+
+    private static final class HomeFeedAdapter extends ModelAdapter<HomeFeed> {
+        private final TypeAdapter<List<Category>> categoriesAdapter;
+        private final TypeAdapter<List<Brand>> brandsAdapter;
+        private final TypeAdapter<List<Product>> productsAdapter;
+
+        HomeFeedAdapter(Gson gson) {
+            categoriesAdapter = gson.getAdapter(new TypeToken<List<Category>>() {});
+            brandsAdapter = gson.getAdapter(new TypeToken<List<Brand>>() {});
+            productsAdapter = gson.getAdapter(new TypeToken<List<Product>>() {});
+        }
+
+        @Override
+        HomeFeed newInstance() {
+            return new HomeFeed();
+        }
+
+        @Override
+        boolean readField(HomeFeed feed, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "categories":
+                    feed.setCategories(categoriesAdapter.read(in));
+                    return true;
+                case "first_category_id":
+                    feed.setFirstCategoryId(in.nextString());
+                    return true;
+                case "brands":
+                    feed.setBrands(brandsAdapter.read(in));
+                    return true;
+                case "products":
+                    feed.setProducts(productsAdapter.read(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, HomeFeed feed) throws IOException {
+            out.beginObject();
+            out.name("categories");
+            categoriesAdapter.write(out, feed.getCategories());
+            out.name("first_category_id").value(feed.getFirstCategoryId());
+            out.name("brands");
+            brandsAdapter.write(out, feed.getBrands());
+            out.name("products");
+            productsAdapter.write(out, feed.getProducts());
+            out.endObject();
+        }
+    }
+
+    private static final class StoreAdapter extends ModelAdapter<Store> {
+        @Override
+        Store newInstance() {
+            return new Store();
+        }
+
+        @Override
+        boolean readField(Store store, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id":
+                    store.setId(in.nextString());
+                    return true;
+                case "name":
+                    store.setName(in.nextString());
+                    return true;
+                case "latitude":
+                    store.setLatitude(in.nextDouble());
+                    return true;
+                case "longitude":
+                    store.setLongitude(in.nextDouble());
+                    return true;
+                case "address":
+                    store.setAddress(in.nextString());
+                    return true;
+                case "hours":
+                    store.setHours(in.nextString());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Store store) throws IOException {
+            out.beginObject();
+            out.name("id").value(store.getId());
+            out.name("name").value(store.getName());
+            out.name("latitude").value(store.getLatitude());
+            out.name("longitude").value(store.getLongitude());
+            out.name("address").value(store.getAddress());
+            out.name("hours").value(store.getHours());
+            out.endObject();
+        }
+    }
+}
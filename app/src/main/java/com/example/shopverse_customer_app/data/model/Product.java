@@ -37,6 +37,13 @@ public class Product implements Serializable {
     @SerializedName("status")
     private String status; // 'active' or 'inactive'
 
+    // Change tracking for catalog delta sync (only selected by CatalogSyncEngine)
+    @SerializedName("updated_at")
+    private String updatedAt;
+
+    @SerializedName("deleted_at")
+    private String deletedAt; // Set when soft-deleted
+
     // Optional: Nested brand and category objects if using joins
     @SerializedName("brands")
     private Brand brand;
@@ -143,6 +150,22 @@ public class Product implements Serializable {
         this.category = category;
     }
 
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(String deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     /**
      * Get first product image URL
      */
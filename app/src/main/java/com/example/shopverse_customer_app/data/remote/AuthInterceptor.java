@@ -47,8 +47,9 @@ public class AuthInterceptor implements Interceptor {
                 .header(SupabaseConfig.HEADER_API_KEY, SupabaseConfig.SUPABASE_ANON_KEY)
                 .header(SupabaseConfig.HEADER_CONTENT_TYPE, SupabaseConfig.CONTENT_TYPE_JSON);
 
-        // Add Bearer token if available
-        if (accessToken != null && !accessToken.isEmpty()) {
+        // Add Bearer token if available, unless the call set its own Authorization
+        if (accessToken != null && !accessToken.isEmpty()
+                && original.header(SupabaseConfig.HEADER_AUTHORIZATION) == null) {
             builder.header(SupabaseConfig.HEADER_AUTHORIZATION, "Bearer " + accessToken);
         }
 
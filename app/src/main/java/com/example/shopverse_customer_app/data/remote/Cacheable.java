@@ -0,0 +1,30 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only Retrofit GET whose responses may be stored in the disk
+ * cache and reused while fresh (see CatalogCacheInterceptor)
+ *
+ * Only use on screen reads that can show data up to maxAgeSeconds old - never
+ * on sync, paging or detail reads that must see the latest rows.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+
+    // Categories and brands rarely change - fresh for hours
+    long CATALOG_MAX_AGE_SECONDS = 6 * 60 * 60;
+    // Price and stock change more often - fresh for minutes
+    long PRODUCTS_MAX_AGE_SECONDS = 5 * 60;
+
+    /**
+     * Freshness window of a stored response, in seconds
+     */
+    long maxAgeSeconds();
+}
@@ -0,0 +1,143 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Network interceptor that makes Retrofit GETs marked @Cacheable cacheable
+ *
+ * PostgREST does not send useful Cache-Control headers, so OkHttp would never
+ * reuse a stored response. This interceptor rewrites the headers of responses
+ * to @Cacheable methods with the freshness window of the annotation. Once a
+ * stored response goes stale, OkHttp revalidates it with If-None-Match /
+ * If-Modified-Since (when the server sent ETag / Last-Modified) and a 304
+ * reuses the cached body. Caching is opt-in per endpoint: other reads of the
+ * same tables (sync, paging, detail) are left alone.
+ *
+ * Must be added with addNetworkInterceptor() so it only sees real network traffic.
+ * Cache hits never reach the network, so hits and misses are counted by
+ * outcomeCounter(), an application interceptor over the same requests.
+ */
+public class CatalogCacheInterceptor implements Interceptor {
+
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_PRAGMA = "Pragma";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong revalidateCount = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+
+    /**
+     * Application interceptor that counts where each @Cacheable response came from
+     * Add it with addInterceptor() ahead of retrying interceptors, so a call counts once.
+     */
+    public Interceptor outcomeCounter() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (getMaxAge(request) != null) {
+                Response network = response.networkResponse();
+                if (network == null || network.code() == 304) {
+                    // Fresh entry, or a stale one the server confirmed with 304
+                    if (response.cacheResponse() != null) {
+                        hitCount.incrementAndGet();
+                    }
+                } else {
+                    // cacheResponse() is also set when a revalidation returned a new body
+                    missCount.incrementAndGet();
+                }
+            }
+            return response;
+        };
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Long maxAge = getMaxAge(request);
+        if (maxAge == null) {
+            return chain.proceed(request);
+        }
+
+        boolean conditional = request.header(HEADER_IF_NONE_MATCH) != null
+                || request.header(HEADER_IF_MODIFIED_SINCE) != null;
+        if (conditional) {
+            revalidateCount.incrementAndGet();
+        }
+
+        Response response = chain.proceed(request);
+        if (response.code() == 304) {
+            notModifiedCount.incrementAndGet();
+        }
+        if (!response.isSuccessful() && response.code() != 304) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader(HEADER_PRAGMA)
+                .header(HEADER_CACHE_CONTROL, "public, max-age=" + maxAge)
+                .build();
+    }
+
+    /**
+     * Freshness window for a request, or null if its Retrofit method is not @Cacheable
+     */
+    private static Long getMaxAge(Request request) {
+        if (!"GET".equals(request.method())) {
+            return null;
+        }
+        Invocation invocation = request.tag(Invocation.class);
+        Cacheable cacheable = invocation != null ? invocation.method().getAnnotation(Cacheable.class) : null;
+        return cacheable != null ? cacheable.maxAgeSeconds() : null;
+    }
+
+    /**
+     * @Cacheable responses served from disk, including bodies reused after a 304
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @Cacheable responses downloaded in full from the server (including failed revalidations)
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Conditional requests sent for stale cached entries
+     */
+    public long getRevalidateCount() {
+        return revalidateCount.get();
+    }
+
+    /**
+     * Revalidations answered with 304 Not Modified (body served from cache)
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "CatalogCache{" +
+                "hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", revalidations=" + getRevalidateCount() +
+                ", notModified=" + getNotModifiedCount() +
+                '}';
+    }
+}
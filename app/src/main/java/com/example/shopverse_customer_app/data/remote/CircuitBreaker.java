@@ -0,0 +1,149 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one route
+ *
+ * CLOSED: calls go through; FAILURE_THRESHOLD consecutive failures open it.
+ * OPEN: calls fail fast (or are served from cache) for OPEN_DURATION_MS.
+ * HALF_OPEN: one probe call goes through; success closes, failure reopens.
+ * A probe that ends without an outcome (canceled, interrupted) is abandoned:
+ * the breaker stays HALF_OPEN and lets the next call probe.
+ */
+public class CircuitBreaker {
+
+    private static final String TAG = "CircuitBreaker";
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final long OPEN_DURATION_MS = 30_000;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String route;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMillis = 0;
+    private boolean probeInFlight = false;
+    private long shortCircuitedCount = 0;
+    private long servedFromCacheCount = 0;
+    private final Map<State, Long> transitions = new EnumMap<>(State.class);
+
+    CircuitBreaker(String route) {
+        this(route, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Current time in milliseconds (tests pass a fake one)
+     */
+    CircuitBreaker(String route, LongSupplier clock) {
+        this.route = route;
+        this.clock = clock;
+        for (State value : State.values()) {
+            transitions.put(value, 0L);
+        }
+    }
+
+    /**
+     * Whether a call may go to the network now
+     * In HALF_OPEN only one probe is allowed at a time
+     */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.getAsLong() - openedAtMillis >= OPEN_DURATION_MS) {
+            transitionTo(State.HALF_OPEN);
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN
+                || (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD)) {
+            openedAtMillis = clock.getAsLong();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * An allowed call ended without a result (canceled, interrupted, crashed)
+     * Releases the HALF_OPEN probe slot without changing state
+     */
+    synchronized void onAbandoned() {
+        probeInFlight = false;
+    }
+
+    /**
+     * A call was rejected without touching the network
+     *
+     * @param servedFromCache Whether a cached response was returned instead
+     */
+    synchronized void onShortCircuited(boolean servedFromCache) {
+        shortCircuitedCount++;
+        if (servedFromCache) {
+            servedFromCacheCount++;
+        }
+    }
+
+    private void transitionTo(State next) {
+        Log.w(TAG, route + ": " + state + " -> " + next);
+        state = next;
+        transitions.put(next, transitions.get(next) + 1);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Number of times the breaker entered each state
+     */
+    public synchronized Map<State, Long> getTransitionCounts() {
+        return new EnumMap<>(transitions);
+    }
+
+    public synchronized long getShortCircuitedCount() {
+        return shortCircuitedCount;
+    }
+
+    public synchronized long getServedFromCacheCount() {
+        return servedFromCacheCount;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return state + " " + transitions + ", shortCircuited=" + shortCircuitedCount
+                + ", fromCache=" + servedFromCacheCount;
+    }
+}
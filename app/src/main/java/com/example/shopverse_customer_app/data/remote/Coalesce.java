@@ -0,0 +1,19 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only Retrofit method whose concurrent identical calls may share
+ * one network request and one parsed result (see CoalescingCallAdapterFactory)
+ *
+ * Only use on endpoints whose response objects are never mutated by callers.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesce {
+}
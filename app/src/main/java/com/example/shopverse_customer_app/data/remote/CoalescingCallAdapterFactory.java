@@ -0,0 +1,262 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Single-flight layer for Retrofit calls annotated with {@link Coalesce}
+ *
+ * When several callers enqueue the same GET (same method and URL, including
+ * query parameters) while an identical request is still in flight, they join it
+ * instead of hitting the network again. All of them receive the same parsed
+ * response once it arrives.
+ *
+ * Sits in front of Retrofit's default adapter, so callbacks are still
+ * delivered on the main thread.
+ */
+public class CoalescingCallAdapterFactory extends CallAdapter.Factory {
+
+    private static final String TAG = "RequestCoalescer";
+
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+    private final AtomicLong networkCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations,
+                                 @NonNull Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class || !isCoalesced(annotations)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> delegate =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        return new CallAdapter<Object, Object>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @NonNull
+            @Override
+            public Object adapt(@NonNull Call<Object> call) {
+                return delegate.adapt(new CoalescingCall<>(call));
+            }
+        };
+    }
+
+    private static boolean isCoalesced(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Coalesce) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String keyOf(Request request) {
+        return request.method() + " " + request.url();
+    }
+
+    /**
+     * Requests that actually went to the network
+     */
+    public long getNetworkCount() {
+        return networkCount.get();
+    }
+
+    /**
+     * Duplicate calls that joined an in-flight request instead of sending their own
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * One network request shared by every caller that joined it
+     */
+    private static class InFlight<T> {
+        final Call<T> call;
+        final List<CoalescingCall<T>> waiters = new ArrayList<>();
+
+        InFlight(Call<T> call) {
+            this.call = call;
+        }
+    }
+
+    private class CoalescingCall<T> implements Call<T> {
+
+        private final Call<T> delegate;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+        private Callback<T> callback;
+        private InFlight<T> flight;
+
+        CoalescingCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+            this.callback = callback;
+
+            String key = keyOf(delegate.request());
+            InFlight<T> created;
+            synchronized (inFlight) {
+                @SuppressWarnings("unchecked")
+                InFlight<T> existing = (InFlight<T>) inFlight.get(key);
+                if (existing != null) {
+                    existing.waiters.add(this);
+                    flight = existing;
+                    coalescedCount.incrementAndGet();
+                    Log.d(TAG, "Joined in-flight request: " + key);
+                    return;
+                }
+                created = new InFlight<>(delegate);
+                created.waiters.add(this);
+                flight = created;
+                inFlight.put(key, created);
+            }
+
+            networkCount.incrementAndGet();
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    List<CoalescingCall<T>> waiters = finish(key, created);
+                    if (waiters.size() == 1 || response.isSuccessful()) {
+                        for (CoalescingCall<T> waiter : waiters) {
+                            waiter.callback.onResponse(waiter, response);
+                        }
+                        return;
+                    }
+                    // Error bodies can only be read once - give every waiter its own copy
+                    byte[] errorBytes = new byte[0];
+                    MediaType contentType = null;
+                    try (ResponseBody errorBody = response.errorBody()) {
+                        if (errorBody != null) {
+                            contentType = errorBody.contentType();
+                            errorBytes = errorBody.bytes();
+                        }
+                    } catch (IOException e) {
+                        Log.w(TAG, "Failed to buffer shared error body", e);
+                    }
+                    for (CoalescingCall<T> waiter : waiters) {
+                        Response<T> copy = Response.error(
+                                ResponseBody.create(errorBytes, contentType), response.raw());
+                        waiter.callback.onResponse(waiter, copy);
+                    }
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    for (CoalescingCall<T> waiter : finish(key, created)) {
+                        waiter.callback.onFailure(waiter, t);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Unregister the flight and return the callers still waiting on it
+         */
+        private List<CoalescingCall<T>> finish(String key, InFlight<T> finished) {
+            synchronized (inFlight) {
+                if (inFlight.get(key) == finished) {
+                    inFlight.remove(key);
+                }
+                List<CoalescingCall<T>> waiters = new ArrayList<>();
+                for (CoalescingCall<T> waiter : finished.waiters) {
+                    if (!waiter.canceled) {
+                        waiters.add(waiter);
+                    }
+                }
+                return waiters;
+            }
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() throws IOException {
+            // Synchronous calls are not shared
+            executed = true;
+            return delegate.execute();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            InFlight<T> joined = flight;
+            if (joined == null) {
+                delegate.cancel();
+                return;
+            }
+            boolean lastWaiter;
+            synchronized (inFlight) {
+                joined.waiters.remove(this);
+                lastWaiter = joined.waiters.isEmpty();
+                if (lastWaiter) {
+                    inFlight.values().remove(joined);
+                }
+            }
+            // Only cancel the network call once nobody else is waiting on it
+            if (lastWaiter) {
+                joined.call.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new CoalescingCall<>(delegate.clone());
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+
+/**
+ * Size-bounded request logging for debug builds
+ *
+ * Unlike HttpLoggingInterceptor at BODY level, bodies are never buffered in
+ * full: the response preview comes from peekBody(maxBodyBytes), so the real
+ * body still streams straight into the converter. Only 1 in sampleRate
+ * successful calls is logged (errors always are), and credential headers
+ * are redacted.
+ *
+ * Only install when BuildConfig.DEBUG (see RetrofitClient) so release builds
+ * carry no logging cost at all.
+ */
+public class DebugLoggingInterceptor implements Interceptor {
+
+    private static final String TAG = "OkHttp";
+    private static final Set<String> REDACTED_HEADERS = new HashSet<>(Arrays.asList(
+            "authorization", "apikey", "cookie", "set-cookie"));
+
+    private final int sampleRate;
+    private final long maxBodyBytes;
+    private final AtomicLong callCount = new AtomicLong();
+
+    /**
+     * @param sampleRate Log 1 in sampleRate successful calls (1 = all)
+     * @param maxBodyBytes Bytes of request/response body shown at most (0 = no bodies)
+     */
+    public DebugLoggingInterceptor(int sampleRate, long maxBodyBytes) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxBodyBytes = Math.max(0, maxBodyBytes);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean sampled = callCount.getAndIncrement() % sampleRate == 0;
+        long startNanos = System.nanoTime();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Log.d(TAG, "--> " + request.method() + " " + request.url() + "\n" + headersOf(request.headers())
+                    + requestBodyOf(request));
+            Log.d(TAG, "<-- HTTP FAILED: " + e);
+            throw e;
+        }
+        if (!sampled && response.isSuccessful()) {
+            return response;
+        }
+
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        Log.d(TAG, "--> " + request.method() + " " + request.url() + "\n" + headersOf(request.headers())
+                + requestBodyOf(request));
+        Log.d(TAG, "<-- " + response.code() + " " + response.message() + " (" + tookMs + "ms)\n"
+                + headersOf(response.headers()) + responseBodyOf(response));
+        return response;
+    }
+
+    private static String headersOf(Headers headers) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            boolean redacted = REDACTED_HEADERS.contains(name.toLowerCase(Locale.US));
+            text.append(name).append(": ").append(redacted ? "██" : headers.value(i)).append('\n');
+        }
+        return text.toString();
+    }
+
+    private String requestBodyOf(Request request) throws IOException {
+        RequestBody body = request.body();
+        if (body == null || maxBodyBytes == 0) {
+            return "";
+        }
+        long length = body.contentLength();
+        if (length < 0 || length > maxBodyBytes || body.isOneShot() || body.isDuplex()) {
+            return "(" + (length < 0 ? "unknown-length" : length + "-byte") + " body omitted)";
+        }
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readString(StandardCharsets.UTF_8);
+    }
+
+    String responseBodyOf(Response response) throws IOException {
+        if (maxBodyBytes == 0 || response.body() == null) {
+            return "";
+        }
+        // peekBody copies at most maxBodyBytes + 1 and leaves the real body unread;
+        // the extra byte tells whether there is more, in bytes rather than decoded chars
+        byte[] peeked = response.peekBody(maxBodyBytes + 1).bytes();
+        boolean truncated = peeked.length > maxBodyBytes;
+        String preview = new String(peeked, 0, (int) Math.min(peeked.length, maxBodyBytes), StandardCharsets.UTF_8);
+        return truncated ? preview + "... (truncated to " + maxBodyBytes + " bytes)" : preview;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an idempotent Retrofit GET that may be hedged: if the first attempt is
+ * slower than recent calls of the same route, an identical second request is
+ * sent and the first response wins (see HedgingCallAdapterFactory)
+ *
+ * Only use on read-only endpoints - both requests may reach the server.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedge {
+}
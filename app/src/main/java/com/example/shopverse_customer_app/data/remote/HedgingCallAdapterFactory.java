@@ -0,0 +1,321 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Request hedging for Retrofit calls annotated with {@link Hedge}
+ *
+ * The primary request is sent as usual. If it has not answered after the
+ * configured percentile of recent latency for its route, an identical backup
+ * request goes out; whichever answers first is delivered and the other is
+ * canceled. Hedging only starts once a route has MIN_SAMPLES measurements,
+ * only applies to INTERACTIVE calls, and the number of hedges is capped at
+ * MAX_HEDGE_RATIO of hedgeable calls so backend load stays bounded.
+ *
+ * The delay comes from the latency of primary attempts only. Recording what
+ * callers see instead would feed hedged (faster) results back into the
+ * percentile and pull the delay down after every hedge. A primary that loses
+ * is canceled, so its sample is the time it had been outstanding, which is
+ * a lower bound of its real latency.
+ *
+ * Register after PriorityCallAdapterFactory (both attempts go through the
+ * scheduler) and before CoalescingCallAdapterFactory (joined callers share one
+ * hedged call).
+ */
+public class HedgingCallAdapterFactory extends CallAdapter.Factory {
+
+    private static final String TAG = "RequestHedging";
+
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_HEDGE_RATIO = 0.05;
+    // Allows a few hedges before the ratio has anything to work with
+    private static final int HEDGE_BURST = 2;
+    // Never hedge faster than this, whatever the histogram says
+    private static final long MIN_HEDGE_DELAY_MS = 50;
+
+    private final double hedgePercentile;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RequestHedging");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Primary attempts only: drives the hedge delay
+    private final ConcurrentHashMap<String, LatencyHistogram> primaryLatencyByRoute = new ConcurrentHashMap<>();
+    // First response of primary or backup: what callers see
+    private final ConcurrentHashMap<String, LatencyHistogram> latencyByRoute = new ConcurrentHashMap<>();
+    private final AtomicLong hedgeableCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    /**
+     * @param hedgePercentile Percentile (0-100) of recent route latency after which a backup request is sent
+     */
+    public HedgingCallAdapterFactory(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations,
+                                 @NonNull Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class || !isHedged(annotations)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> delegate =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        return new CallAdapter<Object, Object>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @NonNull
+            @Override
+            public Object adapt(@NonNull Call<Object> call) {
+                return delegate.adapt(new HedgedCall<>(call));
+            }
+        };
+    }
+
+    private static boolean isHedged(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Hedge) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delay before hedging a call of this route, or -1 to not hedge it
+     */
+    private long hedgeDelayMillis(String route) {
+        LatencyHistogram histogram = primaryLatencyByRoute.get(route);
+        if (histogram == null || histogram.getCount() < MIN_SAMPLES) {
+            return -1;
+        }
+        return Math.max(MIN_HEDGE_DELAY_MS, histogram.getPercentileMillis(hedgePercentile));
+    }
+
+    /**
+     * Take one hedge from the budget, false if the cap is reached
+     */
+    private boolean tryAcquireHedge() {
+        while (true) {
+            long used = hedgeCount.get();
+            if (used >= hedgeableCount.get() * MAX_HEDGE_RATIO + HEDGE_BURST) {
+                return false;
+            }
+            if (hedgeCount.compareAndSet(used, used + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Backup requests sent
+     */
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    /**
+     * Backup requests that answered before the primary
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+
+    /**
+     * Latency seen by callers (first response of primary or backup) per route
+     */
+    public LatencyHistogram getLatency(String route) {
+        return latencyByRoute.get(route);
+    }
+
+    /**
+     * Latency of primary attempts per route, the basis of the hedge delay
+     */
+    public LatencyHistogram getPrimaryLatency(String route) {
+        return primaryLatencyByRoute.get(route);
+    }
+
+    private static void record(ConcurrentHashMap<String, LatencyHistogram> histograms, String route, long nanos) {
+        histograms.computeIfAbsent(route, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    private class HedgedCall<T> implements Call<T> {
+
+        private final Call<T> primary;
+        // Guards delivered, pendingAttempts and starting the backup, so no backup starts after an outcome
+        private final Object lock = new Object();
+        private boolean delivered;
+        // Failures are only delivered once every attempt has failed
+        private int pendingAttempts = 1;
+        private volatile Call<T> backup;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+        private ScheduledFuture<?> hedgeTimer;
+
+        HedgedCall(Call<T> primary) {
+            this.primary = primary;
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+
+            Request request = primary.request();
+            String route = NetworkMetricsInterceptor.routeOf(request);
+            long startNanos = System.nanoTime();
+
+            boolean interactive = RequestScheduler.priorityOf(request) == RequestPriority.INTERACTIVE;
+            long delay = interactive ? hedgeDelayMillis(route) : -1;
+            if (interactive) {
+                hedgeableCount.incrementAndGet();
+            }
+
+            Callback<T> attemptCallback = new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    synchronized (lock) {
+                        if (delivered) {
+                            return;
+                        }
+                        delivered = true;
+                    }
+                    long elapsedNanos = System.nanoTime() - startNanos;
+                    finish(call);
+                    // Primary won: its real latency. Backup won: the primary was
+                    // canceled after elapsedNanos, so it took at least that long
+                    record(primaryLatencyByRoute, route, elapsedNanos);
+                    record(latencyByRoute, route, elapsedNanos);
+                    callback.onResponse(HedgedCall.this, response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    synchronized (lock) {
+                        if (--pendingAttempts > 0 || delivered) {
+                            return;
+                        }
+                        delivered = true;
+                    }
+                    finish(call);
+                    callback.onFailure(HedgedCall.this, t);
+                }
+            };
+
+            if (delay >= 0) {
+                hedgeTimer = timer.schedule(() -> {
+                    Call<T> hedge;
+                    synchronized (lock) {
+                        // The primary may have just failed: its outcome is already on its way
+                        if (delivered || canceled || !tryAcquireHedge()) {
+                            return;
+                        }
+                        pendingAttempts++;
+                        hedge = primary.clone();
+                        backup = hedge;
+                    }
+                    Log.d(TAG, "Hedging " + route + " after " + delay + "ms");
+                    hedge.enqueue(attemptCallback);
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            primary.enqueue(attemptCallback);
+        }
+
+        /**
+         * Stop the timer and cancel the attempt that lost
+         */
+        private void finish(Call<T> winner) {
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+            }
+            Call<T> hedge = backup;
+            if (winner == hedge) {
+                hedgeWinCount.incrementAndGet();
+                primary.cancel();
+            } else if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() throws IOException {
+            // Synchronous calls are not hedged
+            executed = true;
+            return primary.execute();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (lock) {
+                canceled = true;
+            }
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+            }
+            primary.cancel();
+            Call<T> hedge = backup;
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new HedgedCall<>(primary.clone());
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return primary.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return primary.timeout();
+        }
+    }
+}
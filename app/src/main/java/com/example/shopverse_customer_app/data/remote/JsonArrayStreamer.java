@@ -0,0 +1,98 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.shopverse_customer_app.utils.ErrorParser;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Incremental parser for JSON array responses (product pages, order history)
+ *
+ * Reads a @Streaming response body element by element with JsonReader and
+ * hands elements to the consumer in batches as soon as they are parsed, so the
+ * first rows can be shown while the rest of the array is still downloading.
+ * No intermediate JSON tree or full list is built.
+ *
+ * Parsing runs on a background thread; consumer callbacks arrive on the main thread.
+ */
+public final class JsonArrayStreamer {
+
+    private static final String TAG = "JsonArrayStreamer";
+
+    // Two threads so a slow download does not hold up the next page's parse
+    private static final ExecutorService PARSE_EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "JsonArrayStreamer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private JsonArrayStreamer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Parse a JSON array body in the background and deliver it in batches
+     *
+     * @param body Response body positioned at the start of a JSON array (closed when done)
+     * @param type Element type
+     * @param batchSize Elements per onBatch() call (the first screenful)
+     * @param consumer Receives batches, then onComplete() or onError()
+     */
+    public static <T> void stream(ResponseBody body, Class<T> type, int batchSize,
+                                  ElementConsumer<T> consumer) {
+        TypeAdapter<T> adapter = GsonProvider.get().getAdapter(type);
+        PARSE_EXECUTOR.execute(() -> {
+            int count = 0;
+            try (ResponseBody responseBody = body;
+                 JsonReader reader = new JsonReader(responseBody.charStream())) {
+                List<T> batch = new ArrayList<>(batchSize);
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    batch.add(adapter.read(reader));
+                    count++;
+                    if (batch.size() == batchSize) {
+                        List<T> full = batch;
+                        MAIN_HANDLER.post(() -> consumer.onBatch(full));
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                reader.endArray();
+
+                List<T> last = batch;
+                int total = count;
+                MAIN_HANDLER.post(() -> {
+                    if (!last.isEmpty()) {
+                        consumer.onBatch(last);
+                    }
+                    consumer.onComplete(total);
+                });
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                Log.e(TAG, "Streaming parse failed after " + count + " elements", e);
+                String error = e instanceof IOException
+                        ? ErrorParser.parseError(e)
+                        : "Dữ liệu không hợp lệ";
+                MAIN_HANDLER.post(() -> consumer.onError(error));
+            }
+        });
+    }
+
+    public interface ElementConsumer<T> {
+        void onBatch(List<T> batch);
+        void onComplete(int count);
+        void onError(String error);
+    }
+}
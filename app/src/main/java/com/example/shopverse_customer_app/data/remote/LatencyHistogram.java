@@ -0,0 +1,113 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-memory latency histogram with percentile queries
+ *
+ * Buckets grow geometrically (about 10% apart) from 1 ms to about 2 minutes,
+ * so percentiles are accurate to one bucket width whatever the number of
+ * samples. Recording is O(log buckets) and allocation-free.
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.1;
+    private static final long[] UPPER_BOUNDS_MS = buildBounds();
+
+    private final long[] counts = new long[UPPER_BOUNDS_MS.length + 1]; // last = overflow
+    private long count = 0;
+    private long sumNanos = 0;
+    private long maxNanos = 0;
+
+    private static long[] buildBounds() {
+        long limit = TimeUnit.MINUTES.toMillis(2);
+        int size = 0;
+        for (double bound = 1; bound < limit; bound = Math.ceil(bound * GROWTH)) {
+            size++;
+        }
+        long[] bounds = new long[size];
+        double bound = 1;
+        for (int i = 0; i < size; i++) {
+            bounds[i] = (long) bound;
+            bound = Math.ceil(bound * GROWTH);
+        }
+        return bounds;
+    }
+
+    public synchronized void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+        counts[bucketOf(millis)]++;
+        count++;
+        sumNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    private static int bucketOf(long millis) {
+        int low = 0;
+        int high = UPPER_BOUNDS_MS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (UPPER_BOUNDS_MS[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMeanMillis() {
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(sumNanos / count) : 0;
+    }
+
+    public synchronized long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+    }
+
+    /**
+     * Percentile (0-100) in milliseconds, as the upper bound of its bucket
+     */
+    public synchronized long getPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < UPPER_BOUNDS_MS.length
+                        ? Math.min(UPPER_BOUNDS_MS[i], getMaxMillis())
+                        : getMaxMillis();
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", getCount());
+        json.addProperty("mean_ms", getMeanMillis());
+        json.addProperty("p50_ms", getPercentileMillis(50));
+        json.addProperty("p95_ms", getPercentileMillis(95));
+        json.addProperty("p99_ms", getPercentileMillis(99));
+        json.addProperty("max_ms", getMaxMillis());
+        return json;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "n=" + getCount() + ", p50=" + getPercentileMillis(50) + "ms, p95="
+                + getPercentileMillis(95) + "ms, p99=" + getPercentileMillis(99)
+                + "ms, max=" + getMaxMillis() + "ms";
+    }
+}
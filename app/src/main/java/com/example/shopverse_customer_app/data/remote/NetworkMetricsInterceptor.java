@@ -0,0 +1,343 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Network interceptor that records latency and payload metrics per route
+ *
+ * A route is the method plus the URL path (query string dropped, id-like
+ * segments replaced by {id}), e.g. "GET /rest/v1/products". For each route:
+ * latency to the end of the body and time to first byte (response headers) as
+ * histograms, request/response body bytes, status code counts, I/O failures and
+ * retries (extra network attempts made by the same call).
+ *
+ * Payload size is also kept per projection (path + select parameter), so the
+ * card and detail projections of /products can be compared directly. Both are
+ * measured by one wrapper as the body streams through (no extra buffering).
+ *
+ * Must be added with addNetworkInterceptor() so every attempt is seen.
+ */
+public class NetworkMetricsInterceptor implements Interceptor {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "[0-9]+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PayloadStats> payloads = new ConcurrentHashMap<>();
+    // Calls that already made a network attempt (weak: calls are dropped once done)
+    private final Map<Call, Boolean> attemptedCalls = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RouteMetrics metrics = routes.computeIfAbsent(routeOf(request), key -> new RouteMetrics());
+
+        if (attemptedCalls.put(chain.call(), Boolean.TRUE) != null) {
+            metrics.retries.incrementAndGet();
+        }
+        RequestBody requestBody = request.body();
+        if (requestBody != null && requestBody.contentLength() > 0) {
+            metrics.requestBytes.addAndGet(requestBody.contentLength());
+        }
+
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.failures.incrementAndGet();
+            throw e;
+        }
+        metrics.timeToFirstByte.record(System.nanoTime() - startNanos);
+        metrics.statusCounts.computeIfAbsent(response.code(), code -> new AtomicLong()).incrementAndGet();
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            metrics.latency.record(System.nanoTime() - startNanos);
+            return response;
+        }
+        // A 304 carries no payload of its own (the body comes from the cache)
+        PayloadStats payload = response.code() == 304
+                ? null
+                : payloads.computeIfAbsent(projectionOf(request), key -> new PayloadStats());
+        return response.newBuilder()
+                .body(new MeasuredResponseBody(body, metrics, payload, startNanos))
+                .build();
+    }
+
+    /**
+     * Route key: method + normalized path
+     */
+    static String routeOf(Request request) {
+        StringBuilder route = new StringBuilder(request.method()).append(' ');
+        List<String> segments = request.url().encodedPathSegments();
+        for (String segment : segments) {
+            route.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return route.toString();
+    }
+
+    /**
+     * Projection key: "GET /rest/v1/products select=..." (filters excluded)
+     */
+    static String projectionOf(Request request) {
+        String select = request.url().queryParameter("select");
+        return request.method() + " " + request.url().encodedPath()
+                + (select != null ? " select=" + select : "");
+    }
+
+    /**
+     * Snapshot of metrics per route
+     */
+    public Map<String, RouteMetrics> getRoutes() {
+        return new TreeMap<>(routes);
+    }
+
+    /**
+     * Metrics of one route, or null if it was never called
+     */
+    public RouteMetrics getRoute(String route) {
+        return routes.get(route);
+    }
+
+    /**
+     * Snapshot of response payload sizes per endpoint and projection
+     */
+    public Map<String, PayloadStats> getPayloadSizes() {
+        return new TreeMap<>(payloads);
+    }
+
+    /**
+     * Export every route as pretty-printed JSON (for offline analysis)
+     */
+    public String toJson() {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, RouteMetrics> entry : getRoutes().entrySet()) {
+            json.add(entry.getKey(), entry.getValue().toJson());
+        }
+        return GsonProvider.get().newBuilder().setPrettyPrinting().create().toJson(json);
+    }
+
+    /**
+     * Clear all recorded metrics
+     */
+    public void reset() {
+        routes.clear();
+        payloads.clear();
+    }
+
+    /**
+     * Running metrics for one route
+     */
+    public static class RouteMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        private final AtomicLong requestBytes = new AtomicLong();
+        private final AtomicLong responseBytes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final ConcurrentHashMap<Integer, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+
+        /**
+         * Request start to end of response body
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Request start to response headers
+         */
+        public LatencyHistogram getTimeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.get();
+        }
+
+        /**
+         * Wire bytes (before gzip decoding)
+         */
+        public long getResponseBytes() {
+            return responseBytes.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public long getRetries() {
+            return retries.get();
+        }
+
+        public Map<Integer, Long> getStatusCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            for (Map.Entry<Integer, AtomicLong> entry : statusCounts.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return counts;
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.add("latency", latency.toJson());
+            json.add("ttfb", timeToFirstByte.toJson());
+            json.addProperty("request_bytes", getRequestBytes());
+            json.addProperty("response_bytes", getResponseBytes());
+            json.addProperty("failures", getFailures());
+            json.addProperty("retries", getRetries());
+            JsonObject statuses = new JsonObject();
+            for (Map.Entry<Integer, Long> entry : getStatusCounts().entrySet()) {
+                statuses.addProperty(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            json.add("status", statuses);
+            return json;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("latency", latency);
+            summary.put("ttfb", timeToFirstByte);
+            summary.put("bytes", getResponseBytes());
+            summary.put("status", getStatusCounts());
+            summary.put("retries", getRetries());
+            return summary.toString();
+        }
+    }
+
+    /**
+     * Running totals for one endpoint + projection (fully read bodies only)
+     */
+    public static class PayloadStats {
+        private final AtomicLong responseCount = new AtomicLong();
+        private final AtomicLong totalBytes = new AtomicLong();
+
+        void record(long bytes) {
+            responseCount.incrementAndGet();
+            totalBytes.addAndGet(bytes);
+        }
+
+        public long getResponseCount() {
+            return responseCount.get();
+        }
+
+        /**
+         * Wire bytes (before gzip decoding)
+         */
+        public long getTotalBytes() {
+            return totalBytes.get();
+        }
+
+        public long getAverageBytes() {
+            long count = responseCount.get();
+            return count > 0 ? totalBytes.get() / count : 0;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "responses=" + getResponseCount() + ", avgBytes=" + getAverageBytes();
+        }
+    }
+
+    /**
+     * Response body that records bytes and total latency once exhausted or closed
+     */
+    private static class MeasuredResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final RouteMetrics metrics;
+        private final PayloadStats payload; // nullable
+        private final long startNanos;
+        private BufferedSource source;
+        private long bytesRead = 0;
+        private boolean reported = false;
+
+        MeasuredResponseBody(ResponseBody delegate, RouteMetrics metrics, PayloadStats payload, long startNanos) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+            this.payload = payload;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    @Override
+                    public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                        long read = super.read(sink, byteCount);
+                        if (read == -1) {
+                            report(true);
+                        } else {
+                            bytesRead += read;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        report(false);
+                        super.close();
+                    }
+                });
+            }
+            return source;
+        }
+
+        /**
+         * @param exhausted True if the whole body was read (payload sizes only count those)
+         */
+        private synchronized void report(boolean exhausted) {
+            if (reported) {
+                return;
+            }
+            reported = true;
+            metrics.responseBytes.addAndGet(bytesRead);
+            metrics.latency.record(System.nanoTime() - startNanos);
+            if (exhausted && payload != null) {
+                payload.record(bytesRead);
+            }
+        }
+    }
+}
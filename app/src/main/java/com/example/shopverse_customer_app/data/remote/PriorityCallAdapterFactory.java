@@ -0,0 +1,205 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Routes every Retrofit call through the RequestScheduler
+ *
+ * The priority comes from a {@code @Tag RequestPriority} parameter on the API
+ * method (INTERACTIVE when absent). enqueue() waits for its slot in the
+ * scheduler's queue; execute() blocks the calling thread until the slot is
+ * granted, so synchronous BACKGROUND work (catalog sync, cart flush) is
+ * throttled like asynchronous calls. Methods marked @Unscheduled bypass it.
+ * Register before other adapter factories so the scheduler sits closest to
+ * the network - a coalesced call then takes a single slot.
+ */
+public class PriorityCallAdapterFactory extends CallAdapter.Factory {
+
+    private final RequestScheduler scheduler;
+
+    public PriorityCallAdapterFactory(RequestScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations,
+                                 @NonNull Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> delegate =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Unscheduled) {
+                return delegate;
+            }
+        }
+
+        return new CallAdapter<Object, Object>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @NonNull
+            @Override
+            public Object adapt(@NonNull Call<Object> call) {
+                return delegate.adapt(new ScheduledCall<>(call));
+            }
+        };
+    }
+
+    private class ScheduledCall<T> implements Call<T> {
+
+        private final Call<T> delegate;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+        private volatile RequestScheduler.Ticket ticket;
+        private volatile CountDownLatch admission; // nullable; set while execute() waits for its slot
+        private Callback<T> callback;
+
+        ScheduledCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+            this.callback = callback;
+
+            Request request = delegate.request();
+            ticket = scheduler.submit(RequestScheduler.priorityOf(request), request.url().host(), started -> delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    started.finish();
+                    callback.onResponse(ScheduledCall.this, response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    started.finish();
+                    callback.onFailure(ScheduledCall.this, t);
+                }
+            }));
+            if (canceled) {
+                cancelQueued();
+            }
+        }
+
+        /**
+         * Fail a call canceled before it left the queue, like OkHttp does
+         */
+        private void cancelQueued() {
+            CountDownLatch waiting = admission;
+            if (waiting != null) {
+                // execute() wakes up, gives its ticket back and throws
+                waiting.countDown();
+                return;
+            }
+            RequestScheduler.Ticket queued = ticket;
+            if (queued != null && queued.cancel()) {
+                callback.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() throws IOException {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+
+            // Block this thread until the scheduler grants the call a slot
+            CountDownLatch admitted = new CountDownLatch(1);
+            admission = admitted;
+            Request request = delegate.request();
+            RequestScheduler.Ticket queued = scheduler.submit(RequestScheduler.priorityOf(request),
+                    request.url().host(), started -> admitted.countDown());
+            ticket = queued;
+            try {
+                if (!canceled) {
+                    admitted.await();
+                }
+            } catch (InterruptedException e) {
+                giveBack(queued);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a request slot");
+            }
+            if (canceled) {
+                giveBack(queued);
+                throw new IOException("Canceled");
+            }
+
+            try {
+                return delegate.execute();
+            } finally {
+                queued.finish();
+            }
+        }
+
+        /**
+         * Drop a ticket that execute() no longer waits for (release its slot if it was granted meanwhile)
+         */
+        private void giveBack(RequestScheduler.Ticket queued) {
+            if (!queued.cancel()) {
+                queued.finish();
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            cancelQueued();
+            delegate.cancel();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new ScheduledCall<>(delegate.clone());
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.shopverse_customer_app.config.SupabaseConfig;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Minimal Supabase Realtime client (Phoenix channels over a websocket)
+ *
+ * Subscribes to postgres_changes of one table and hands each changed row to
+ * the listener. Keeps the socket alive with Phoenix heartbeats and reconnects
+ * with exponential backoff until stop() is called. Row-level security
+ * applies: only rows the current user can select are delivered.
+ *
+ * The websocket URL is a constructor argument so the client can be pointed
+ * at a local stand-in server.
+ */
+public class RealtimeClient {
+
+    private static final String TAG = "RealtimeClient";
+
+    private static final long HEARTBEAT_INTERVAL_MS = 25_000;
+    private static final long RECONNECT_MIN_MS = 1_000;
+    private static final long RECONNECT_MAX_MS = 30_000;
+    private static final int NORMAL_CLOSURE = 1000;
+
+    private static final String EVENT_JOIN = "phx_join";
+    private static final String EVENT_REPLY = "phx_reply";
+    private static final String EVENT_ERROR = "phx_error";
+    private static final String EVENT_CLOSE = "phx_close";
+    private static final String EVENT_HEARTBEAT = "heartbeat";
+    private static final String EVENT_ACCESS_TOKEN = "access_token";
+    private static final String EVENT_POSTGRES_CHANGES = "postgres_changes";
+    private static final String TOPIC_PHOENIX = "phoenix";
+
+    private final String url;
+    private final String schema;
+    private final String table;
+    private final String topic;
+    private final Listener listener;
+    private final long heartbeatIntervalMs;
+    private final long reconnectMinMs;
+    private final OkHttpClient client;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RealtimeTimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private WebSocket socket; // nullable when disconnected
+    private ScheduledFuture<?> heartbeat; // nullable
+    private ScheduledFuture<?> reconnect; // nullable
+    private boolean running = false;
+    private int ref = 0;
+    private String joinRef; // nullable until joined
+    private String pendingHeartbeatRef; // nullable
+    private long reconnectDelayMs;
+    private String accessToken; // nullable: anon key is used
+
+    /**
+     * Receives changes on a background thread
+     */
+    public interface Listener {
+        /**
+         * @param type   INSERT, UPDATE or DELETE
+         * @param record New row (old key columns for DELETE)
+         */
+        void onChange(String type, JsonObject record);
+
+        /**
+         * Called after (re)joining the channel - changes while disconnected were missed
+         */
+        void onSubscribed();
+    }
+
+    /**
+     * @param url    Websocket endpoint, see websocketUrl()
+     * @param schema Database schema, usually "public"
+     * @param table  Table whose changes are delivered (must be in the supabase_realtime publication)
+     */
+    public RealtimeClient(String url, String schema, String table, Listener listener) {
+        this(url, schema, table, listener, HEARTBEAT_INTERVAL_MS, RECONNECT_MIN_MS);
+    }
+
+    /**
+     * @param heartbeatIntervalMs Heartbeat period; an unanswered heartbeat drops the socket at the next one
+     * @param reconnectMinMs      First reconnect delay, doubled up to RECONNECT_MAX_MS
+     */
+    RealtimeClient(String url, String schema, String table, Listener listener,
+                   long heartbeatIntervalMs, long reconnectMinMs) {
+        this.url = url;
+        this.schema = schema;
+        this.table = table;
+        this.topic = "realtime:" + schema + ":" + table;
+        this.listener = listener;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.reconnectMinMs = reconnectMinMs;
+        this.reconnectDelayMs = reconnectMinMs;
+        // OkHttp runs the websocket reader loop inside a dispatcher call, so the
+        // socket would hold one of the shared per-host slots on the Supabase
+        // host for its whole life. It gets its own dispatcher instead and only
+        // shares the connection pool. No read timeout: heartbeats detect dead sockets.
+        this.client = SharedHttpClient.get().newBuilder()
+                .dispatcher(new Dispatcher())
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Realtime endpoint of the configured Supabase project
+     */
+    public static String websocketUrl() {
+        String base = SupabaseConfig.BASE_URL.replaceFirst("^http", "ws");
+        return base + "realtime/v1/websocket?apikey=" + SupabaseConfig.SUPABASE_ANON_KEY + "&vsn=1.0.0";
+    }
+
+    /**
+     * Connect and keep reconnecting until stop()
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        reconnectDelayMs = reconnectMinMs;
+        connect();
+    }
+
+    /**
+     * Close the socket and stop reconnecting
+     */
+    public synchronized void stop() {
+        running = false;
+        cancelTimers();
+        if (socket != null) {
+            socket.close(NORMAL_CLOSURE, null);
+            socket = null;
+        }
+        joinRef = null;
+    }
+
+    /**
+     * User JWT for RLS (null to use the anon key), applied to the live channel too
+     */
+    public synchronized void setAccessToken(@Nullable String token) {
+        if (token == null ? accessToken == null : token.equals(accessToken)) {
+            return;
+        }
+        accessToken = token;
+        if (socket != null && joinRef != null) {
+            JsonObject payload = new JsonObject();
+            payload.addProperty("access_token", currentToken());
+            send(topic, EVENT_ACCESS_TOKEN, payload, nextRef(), joinRef);
+        }
+    }
+
+    public synchronized boolean isConnected() {
+        return socket != null && joinRef != null;
+    }
+
+    // ========== CONNECTION ==========
+
+    private void connect() {
+        Request request = new Request.Builder().url(url).build();
+        socket = client.newWebSocket(request, new SocketListener());
+    }
+
+    private void join() {
+        JsonObject change = new JsonObject();
+        change.addProperty("event", "*");
+        change.addProperty("schema", schema);
+        change.addProperty("table", table);
+        JsonArray changes = new JsonArray();
+        changes.add(change);
+
+        JsonObject config = new JsonObject();
+        config.add("postgres_changes", changes);
+        JsonObject payload = new JsonObject();
+        payload.add("config", config);
+        payload.addProperty("access_token", currentToken());
+
+        joinRef = nextRef();
+        send(topic, EVENT_JOIN, payload, joinRef, joinRef);
+    }
+
+    private void scheduleHeartbeat() {
+        heartbeat = timer.scheduleAtFixedRate(() -> {
+            synchronized (RealtimeClient.this) {
+                if (socket == null) {
+                    return;
+                }
+                if (pendingHeartbeatRef != null) {
+                    // Previous heartbeat unanswered: the connection is dead
+                    Log.w(TAG, "Heartbeat timeout, reconnecting");
+                    socket.cancel();
+                    onDisconnected();
+                    return;
+                }
+                pendingHeartbeatRef = nextRef();
+                send(TOPIC_PHOENIX, EVENT_HEARTBEAT, new JsonObject(), pendingHeartbeatRef, null);
+            }
+        }, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void onDisconnected() {
+        socket = null;
+        joinRef = null;
+        pendingHeartbeatRef = null;
+        cancelTimers();
+        if (!running) {
+            return;
+        }
+        long delay = reconnectDelayMs;
+        reconnectDelayMs = Math.min(reconnectDelayMs * 2, RECONNECT_MAX_MS);
+        Log.d(TAG, "Reconnecting in " + delay + "ms");
+        reconnect = timer.schedule(() -> {
+            synchronized (RealtimeClient.this) {
+                if (running && socket == null) {
+                    connect();
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelTimers() {
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+            heartbeat = null;
+        }
+        if (reconnect != null) {
+            reconnect.cancel(false);
+            reconnect = null;
+        }
+    }
+
+    // ========== MESSAGES ==========
+
+    private void send(String topic, String event, JsonObject payload, String ref, @Nullable String joinRef) {
+        JsonObject message = new JsonObject();
+        message.addProperty("topic", topic);
+        message.addProperty("event", event);
+        message.add("payload", payload);
+        message.addProperty("ref", ref);
+        if (joinRef != null) {
+            message.addProperty("join_ref", joinRef);
+        }
+        socket.send(GsonProvider.get().toJson(message));
+    }
+
+    private void handleMessage(JsonObject message) {
+        String event = string(message, "event");
+        String messageTopic = string(message, "topic");
+        JsonObject payload = message.has("payload") && message.get("payload").isJsonObject()
+                ? message.getAsJsonObject("payload") : new JsonObject();
+
+        if (EVENT_REPLY.equals(event)) {
+            String replyRef = string(message, "ref");
+            boolean ok = "ok".equals(string(payload, "status"));
+            synchronized (this) {
+                if (replyRef != null && replyRef.equals(pendingHeartbeatRef)) {
+                    pendingHeartbeatRef = null;
+                    return;
+                }
+                if (replyRef == null || !replyRef.equals(joinRef)) {
+                    return;
+                }
+                if (!ok) {
+                    Log.w(TAG, "Join rejected: " + payload);
+                    return;
+                }
+                reconnectDelayMs = reconnectMinMs;
+            }
+            Log.d(TAG, "Subscribed to " + topic);
+            listener.onSubscribed();
+            return;
+        }
+
+        if (!topic.equals(messageTopic)) {
+            return;
+        }
+
+        if (EVENT_POSTGRES_CHANGES.equals(event)) {
+            JsonElement data = payload.get("data");
+            if (data == null || !data.isJsonObject()) {
+                return;
+            }
+            JsonObject change = data.getAsJsonObject();
+            String type = string(change, "type");
+            JsonElement record = "DELETE".equals(type) ? change.get("old_record") : change.get("record");
+            if (type != null && record != null && record.isJsonObject()) {
+                listener.onChange(type, record.getAsJsonObject());
+            }
+        } else if (EVENT_ERROR.equals(event) || EVENT_CLOSE.equals(event)) {
+            // Channel died on the server; reconnect to rejoin it
+            Log.w(TAG, "Channel " + event + ", reconnecting");
+            synchronized (this) {
+                if (socket != null) {
+                    socket.cancel();
+                }
+                onDisconnected();
+            }
+        }
+    }
+
+    private String currentToken() {
+        return accessToken != null ? accessToken : SupabaseConfig.SUPABASE_ANON_KEY;
+    }
+
+    private String nextRef() {
+        return String.valueOf(++ref);
+    }
+
+    @Nullable
+    private static String string(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    private final class SocketListener extends WebSocketListener {
+
+        @Override
+        public void onOpen(@NonNull WebSocket webSocket, @NonNull Response response) {
+            synchronized (RealtimeClient.this) {
+                if (webSocket != socket) {
+                    return;
+                }
+                join();
+                scheduleHeartbeat();
+            }
+        }
+
+        @Override
+        public void onMessage(@NonNull WebSocket webSocket, @NonNull String text) {
+            synchronized (RealtimeClient.this) {
+                if (webSocket != socket) {
+                    return;
+                }
+            }
+            try {
+                JsonElement message = GsonProvider.get().fromJson(text, JsonElement.class);
+                if (message != null && message.isJsonObject()) {
+                    handleMessage(message.getAsJsonObject());
+                }
+            } catch (JsonParseException e) {
+                Log.w(TAG, "Malformed realtime message: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+            webSocket.close(NORMAL_CLOSURE, null);
+        }
+
+        @Override
+        public void onClosed(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+            synchronized (RealtimeClient.this) {
+                if (webSocket == socket) {
+                    onDisconnected();
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(@NonNull WebSocket webSocket, @NonNull Throwable t, @Nullable Response response) {
+            synchronized (RealtimeClient.this) {
+                if (webSocket == socket) {
+                    Log.w(TAG, "Realtime connection failed: " + t.getMessage());
+                    onDisconnected();
+                }
+            }
+        }
+    }
+}
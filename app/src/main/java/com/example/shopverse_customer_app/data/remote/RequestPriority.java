@@ -0,0 +1,17 @@
+package com.example.shopverse_customer_app.data.remote;
+
+/**
+ * Scheduling class of a request (see RequestScheduler)
+ *
+ * Attach to a Retrofit call with a {@code @Tag RequestPriority} parameter, or to
+ * a raw OkHttp request with {@code Request.Builder.tag(RequestPriority.class, ...)}.
+ * Untagged requests are INTERACTIVE.
+ */
+public enum RequestPriority {
+    // The user is waiting on screen for the result
+    INTERACTIVE,
+    // Speculative loads the user will probably need soon (next page)
+    PREFETCH,
+    // Fire-and-forget work nobody is waiting for (cleanup, device token upload)
+    BACKGROUND
+}
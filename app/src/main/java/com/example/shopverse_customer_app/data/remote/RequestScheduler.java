@@ -0,0 +1,337 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Admission control in front of the OkHttp dispatcher
+ *
+ * The dispatcher runs calls FIFO, so a burst of background work delays what
+ * the user is waiting for. Calls are held here per RequestPriority and only
+ * handed to OkHttp when a slot is free. The dispatcher's limits (total and
+ * per host) are applied here, so admitted calls never queue in OkHttp:
+ * - INTERACTIVE jumps ahead of everything still queued
+ * - PREFETCH waits while interactive calls are queued and leaves slots of its host free for them
+ * - BACKGROUND runs one at a time, and only while no interactive call is queued or running
+ * - PREFETCH and BACKGROUND calls queued longer than MAX_QUEUE_WAIT_MS are aged:
+ *   they go ahead of interactive calls, so a steady interactive load cannot starve them
+ *
+ * Admission runs on submit and on finish, and also when the oldest queued
+ * prefetch/background call reaches MAX_QUEUE_WAIT_MS, so a call that is held
+ * back by a long-running interactive call still starts once it has aged.
+ *
+ * Queue wait (submit to admission) is recorded per class.
+ */
+public class RequestScheduler {
+
+    private static final String TAG = "RequestScheduler";
+
+    // Same limits as the shared dispatcher, so admitted calls never queue in OkHttp
+    private static final int MAX_IN_FLIGHT = SharedHttpClient.MAX_REQUESTS;
+    private static final int MAX_IN_FLIGHT_PER_HOST = SharedHttpClient.MAX_REQUESTS_PER_HOST;
+    // Slots of a host that prefetch and background work must leave free for interactive calls
+    private static final int RESERVED_FOR_INTERACTIVE = 2;
+    private static final int MAX_BACKGROUND_IN_FLIGHT = 1;
+    // Queue wait after which prefetch/background calls are admitted ahead of interactive ones
+    private static final long MAX_QUEUE_WAIT_MS = 3_000;
+    private static final RequestPriority[] AGEABLE = {RequestPriority.PREFETCH, RequestPriority.BACKGROUND};
+
+    private static RequestScheduler instance;
+
+    private final Map<RequestPriority, ArrayDeque<Ticket>> queues = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Integer> running = new EnumMap<>(RequestPriority.class);
+    private final Map<String, Integer> runningPerHost = new HashMap<>();
+    private int runningTotal = 0;
+    private final Map<RequestPriority, LatencyHistogram> waitStats = new EnumMap<>(RequestPriority.class);
+    private final long maxQueueWaitNanos;
+    private final ScheduledExecutorService agingTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RequestAging");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> agingDrain; // nullable; guarded by this
+    private long agingDrainAtNanos;
+
+    private RequestScheduler() {
+        this(MAX_QUEUE_WAIT_MS);
+    }
+
+    /**
+     * @param maxQueueWaitMs Queue wait after which prefetch/background calls are aged (tests pass a short one)
+     */
+    RequestScheduler(long maxQueueWaitMs) {
+        maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        for (RequestPriority priority : RequestPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            running.put(priority, 0);
+            waitStats.put(priority, new LatencyHistogram());
+        }
+    }
+
+    public static synchronized RequestScheduler getInstance() {
+        if (instance == null) {
+            instance = new RequestScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Priority tagged on a request, INTERACTIVE if none
+     */
+    public static RequestPriority priorityOf(Request request) {
+        RequestPriority priority = request.tag(RequestPriority.class);
+        return priority != null ? priority : RequestPriority.INTERACTIVE;
+    }
+
+    /**
+     * Queue work that starts one network call
+     * start receives the ticket and must call finish() on it once the call completes
+     *
+     * @param host Host the call goes to (per-host limit)
+     */
+    public Ticket submit(RequestPriority priority, String host, Consumer<Ticket> start) {
+        Ticket ticket = new Ticket(priority, host, start);
+        synchronized (this) {
+            queues.get(priority).addLast(ticket);
+        }
+        drain();
+        return ticket;
+    }
+
+    /**
+     * Enqueue a raw OkHttp call through the scheduler (priority from its request tag)
+     */
+    public void enqueue(Call call, Callback callback) {
+        submit(priorityOf(call.request()), call.request().url().host(), ticket -> call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call c, @NonNull IOException e) {
+                ticket.finish();
+                callback.onFailure(c, e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call c, @NonNull Response response) throws IOException {
+                ticket.finish();
+                callback.onResponse(c, response);
+            }
+        }));
+    }
+
+    /**
+     * Start every queued call that may run now
+     */
+    private void drain() {
+        List<Ticket> admitted = new ArrayList<>();
+        synchronized (this) {
+            Ticket next;
+            while ((next = nextAdmissible()) != null) {
+                queues.get(next.priority).remove(next);
+                running.put(next.priority, running.get(next.priority) + 1);
+                runningPerHost.put(next.host, hostRunning(next.host) + 1);
+                runningTotal++;
+                next.started = true;
+                waitStats.get(next.priority).record(System.nanoTime() - next.submittedAtNanos);
+                admitted.add(next);
+            }
+            scheduleAgingDrain();
+        }
+        for (Ticket ticket : admitted) {
+            ticket.start.accept(ticket);
+        }
+    }
+
+    private Ticket nextAdmissible() {
+        if (runningTotal >= MAX_IN_FLIGHT) {
+            return null;
+        }
+        Ticket aged = oldestAged();
+        if (aged != null) {
+            return aged;
+        }
+        Ticket interactive = first(RequestPriority.INTERACTIVE, MAX_IN_FLIGHT_PER_HOST);
+        if (interactive != null) {
+            return interactive;
+        }
+        Ticket prefetch = first(RequestPriority.PREFETCH, MAX_IN_FLIGHT_PER_HOST - RESERVED_FOR_INTERACTIVE);
+        if (prefetch != null) {
+            return prefetch;
+        }
+        if (running.get(RequestPriority.INTERACTIVE) == 0 && backgroundMayRun()) {
+            return first(RequestPriority.BACKGROUND, MAX_IN_FLIGHT_PER_HOST - RESERVED_FOR_INTERACTIVE);
+        }
+        return null;
+    }
+
+    /**
+     * Drain again when the oldest queued prefetch/background call that has not aged yet ages
+     * Calls already aged but still waiting are blocked by a running call and drain when it finishes.
+     * Caller must hold the lock.
+     */
+    private void scheduleAgingDrain() {
+        long now = System.nanoTime();
+        long agedBefore = now - maxQueueWaitNanos;
+        Long nextAgingAt = null;
+        for (RequestPriority priority : AGEABLE) {
+            for (Ticket ticket : queues.get(priority)) {
+                if (ticket.submittedAtNanos - agedBefore > 0) {
+                    long agingAt = ticket.submittedAtNanos + maxQueueWaitNanos;
+                    if (nextAgingAt == null || agingAt - nextAgingAt < 0) {
+                        nextAgingAt = agingAt;
+                    }
+                    break; // queues are in submit order, the rest ages later
+                }
+            }
+        }
+        if (nextAgingAt == null) {
+            return;
+        }
+        if (agingDrain != null && agingDrainAtNanos - now > 0 && agingDrainAtNanos - nextAgingAt <= 0) {
+            return; // a drain at or before that time is still pending
+        }
+        if (agingDrain != null) {
+            agingDrain.cancel(false);
+        }
+        agingDrainAtNanos = nextAgingAt;
+        agingDrain = agingTimer.schedule(this::drain, nextAgingAt - now, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Oldest prefetch/background call queued past MAX_QUEUE_WAIT_MS whose host has a free slot
+     */
+    private Ticket oldestAged() {
+        long agedBefore = System.nanoTime() - maxQueueWaitNanos;
+        Ticket oldest = null;
+        for (RequestPriority priority : AGEABLE) {
+            if (priority == RequestPriority.BACKGROUND && !backgroundMayRun()) {
+                continue;
+            }
+            for (Ticket ticket : queues.get(priority)) {
+                if (ticket.submittedAtNanos - agedBefore > 0) {
+                    break; // queues are in submit order, the rest is younger
+                }
+                if (hostRunning(ticket.host) < MAX_IN_FLIGHT_PER_HOST) {
+                    if (oldest == null || ticket.submittedAtNanos - oldest.submittedAtNanos < 0) {
+                        oldest = ticket;
+                    }
+                    break;
+                }
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * First queued call of a class whose host has fewer than hostLimit calls running
+     */
+    private Ticket first(RequestPriority priority, int hostLimit) {
+        for (Ticket ticket : queues.get(priority)) {
+            if (hostRunning(ticket.host) < hostLimit) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    private boolean backgroundMayRun() {
+        return running.get(RequestPriority.BACKGROUND) < MAX_BACKGROUND_IN_FLIGHT;
+    }
+
+    private int hostRunning(String host) {
+        Integer count = runningPerHost.get(host);
+        return count != null ? count : 0;
+    }
+
+    private void release(Ticket ticket) {
+        synchronized (this) {
+            running.put(ticket.priority, running.get(ticket.priority) - 1);
+            int hostCount = hostRunning(ticket.host) - 1;
+            if (hostCount > 0) {
+                runningPerHost.put(ticket.host, hostCount);
+            } else {
+                runningPerHost.remove(ticket.host);
+            }
+            runningTotal--;
+        }
+        drain();
+    }
+
+    /**
+     * Remove a ticket that has not started yet
+     *
+     * @return true if it was still queued
+     */
+    private synchronized boolean removeQueued(Ticket ticket) {
+        return !ticket.started && queues.get(ticket.priority).remove(ticket);
+    }
+
+    /**
+     * Queue wait per priority class
+     */
+    public synchronized Map<RequestPriority, LatencyHistogram> getQueueWaitStats() {
+        return new LinkedHashMap<>(waitStats);
+    }
+
+    /**
+     * Handle of one scheduled call
+     */
+    public class Ticket {
+        final RequestPriority priority;
+        final String host;
+        final Consumer<Ticket> start;
+        final long submittedAtNanos = System.nanoTime();
+        boolean started; // guarded by RequestScheduler.this
+        private boolean finished;
+
+        Ticket(RequestPriority priority, String host, Consumer<Ticket> start) {
+            this.priority = priority;
+            this.host = host;
+            this.start = start;
+        }
+
+        /**
+         * Release the slot once the network call completed (idempotent)
+         */
+        public void finish() {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+            }
+            release(this);
+        }
+
+        /**
+         * Drop the call if it is still queued
+         *
+         * @return true if it never started
+         */
+        public boolean cancel() {
+            boolean removed = removeQueued(this);
+            if (removed) {
+                Log.d(TAG, "Canceled queued " + priority + " call");
+            }
+            return removed;
+        }
+    }
+}
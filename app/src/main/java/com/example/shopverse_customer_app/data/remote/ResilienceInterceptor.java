@@ -0,0 +1,231 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retry and circuit breaking for transient failures
+ *
+ * Idempotent requests (GET/HEAD) that fail with an I/O error or a transient
+ * status (408, 429, 5xx) are retried up to MAX_RETRIES times with exponential
+ * backoff and full jitter. Retry-After on 429/503 is honored when it is short
+ * enough, otherwise the response is returned as is.
+ *
+ * Each route (see NetworkMetricsInterceptor.routeOf) has a CircuitBreaker.
+ * While it is open, GETs are answered from the HTTP cache only
+ * (CacheControl.FORCE_CACHE) and other calls fail fast with an IOException,
+ * so a degraded backend is not hammered by every screen reload.
+ *
+ * Must be added with addInterceptor() (application level), after AuthInterceptor.
+ */
+public class ResilienceInterceptor implements Interceptor {
+
+    private static final String TAG = "ResilienceInterceptor";
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    private static final int MAX_RETRIES = 2;
+    private static final long BASE_BACKOFF_MS = 300;
+    private static final long MAX_BACKOFF_MS = 3_000;
+    // Longer server-requested waits are not worth blocking the caller for
+    private static final long MAX_RETRY_AFTER_MS = 5_000;
+    // How often a backoff wait checks whether its call was canceled
+    private static final long CANCEL_CHECK_INTERVAL_MS = 50;
+
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final LongSupplier clock;
+
+    public ResilienceInterceptor() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Current time in milliseconds for the breakers (tests pass a fake one)
+     */
+    ResilienceInterceptor(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String route = NetworkMetricsInterceptor.routeOf(request);
+        CircuitBreaker breaker = breakers.computeIfAbsent(route, key -> new CircuitBreaker(key, clock));
+
+        if (!breaker.allowRequest()) {
+            return shortCircuit(chain, request, route, breaker);
+        }
+
+        boolean idempotent = "GET".equals(request.method()) || "HEAD".equals(request.method());
+        // True while the breaker let this call through and has not been told
+        // the outcome; a canceled or interrupted call must still release it
+        boolean outcomePending = true;
+        int attempt = 0;
+        try {
+            while (true) {
+                Response response;
+                try {
+                    response = chain.proceed(request);
+                } catch (IOException e) {
+                    if (chain.call().isCanceled()) {
+                        throw e;
+                    }
+                    breaker.onFailure();
+                    outcomePending = false;
+                    if (!idempotent || attempt >= MAX_RETRIES || !breaker.allowRequest()) {
+                        throw e;
+                    }
+                    outcomePending = true;
+                    backOff(chain, backoffMillis(attempt));
+                    attempt++;
+                    retryCount.incrementAndGet();
+                    Log.d(TAG, "Retry " + attempt + " after " + e.getClass().getSimpleName() + ": " + route);
+                    continue;
+                }
+
+                outcomePending = false;
+                if (!isTransient(response.code())) {
+                    breaker.onSuccess();
+                    return response;
+                }
+                breaker.onFailure();
+                if (!idempotent || attempt >= MAX_RETRIES) {
+                    return response;
+                }
+                long delay = retryDelayMillis(response, attempt);
+                if (delay < 0 || !breaker.allowRequest()) {
+                    return response;
+                }
+                outcomePending = true;
+                response.close();
+                backOff(chain, delay);
+                attempt++;
+                retryCount.incrementAndGet();
+                Log.d(TAG, "Retry " + attempt + " after HTTP " + response.code() + ": " + route);
+            }
+        } finally {
+            if (outcomePending) {
+                breaker.onAbandoned();
+            }
+        }
+    }
+
+    /**
+     * Breaker is open: serve GETs from cache only, fail everything else fast
+     */
+    private Response shortCircuit(Chain chain, Request request, String route,
+                                  CircuitBreaker breaker) throws IOException {
+        if ("GET".equals(request.method())) {
+            Response cached = chain.proceed(request.newBuilder()
+                    .cacheControl(CacheControl.FORCE_CACHE)
+                    .build());
+            // 504 means nothing usable in cache (OkHttp's "Unsatisfiable Request")
+            if (cached.code() != 504) {
+                breaker.onShortCircuited(true);
+                return cached;
+            }
+            cached.close();
+        }
+        breaker.onShortCircuited(false);
+        throw new IOException("Circuit open for " + route);
+    }
+
+    private static boolean isTransient(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * Delay before the next attempt, or -1 if the server asked for too long a wait
+     */
+    private static long retryDelayMillis(Response response, int attempt) {
+        if (response.code() == 429 || response.code() == 503) {
+            long retryAfter = parseRetryAfterMillis(response);
+            if (retryAfter > MAX_RETRY_AFTER_MS) {
+                return -1;
+            }
+            if (retryAfter >= 0) {
+                return retryAfter;
+            }
+        }
+        return backoffMillis(attempt);
+    }
+
+    /**
+     * Retry-After as delta-seconds or HTTP date, -1 if absent or invalid
+     */
+    static long parseRetryAfterMillis(Response response) {
+        String value = response.header(HEADER_RETRY_AFTER);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate(HEADER_RETRY_AFTER);
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter: random in [0, min(cap, base * 2^attempt)]
+     */
+    private static long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Wait before the next attempt, giving up as soon as the call is canceled
+     * The wait can be several seconds (Retry-After), so it is slept in slices
+     */
+    private static void backOff(Chain chain, long millis) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (true) {
+            if (chain.call().isCanceled()) {
+                throw new IOException("Canceled");
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(Math.min(remainingMillis, CANCEL_CHECK_INTERVAL_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted during retry backoff");
+            }
+        }
+    }
+
+    /**
+     * Breaker per route (state, transition counts, short-circuited calls)
+     */
+    public Map<String, CircuitBreaker> getBreakers() {
+        return new TreeMap<>(breakers);
+    }
+
+    /**
+     * Retries performed across all routes
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.shopverse_customer_app.data.remote;
 
+import android.content.Context;
+
+import com.example.shopverse_customer_app.BuildConfig;
 import com.example.shopverse_customer_app.config.SupabaseConfig;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.example.shopverse_customer_app.utils.TokenManager;
 
+import java.io.File;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -15,8 +22,22 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class RetrofitClient {
 
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
+    private static final int LOG_SAMPLE_RATE = 10; // Debug: log 1 in 10 successful calls (errors are always logged)
+    private static final long LOG_MAX_BODY_BYTES = 4 * 1024; // Debug: body preview budget
+    private static final double HEDGE_PERCENTILE = 95;
+
     private static RetrofitClient instance;
+    private static File cacheDir; // nullable until init() is called
+    private static Context appContext; // nullable until init() is called
     private final AuthInterceptor authInterceptor;
+    private final TokenAuthenticator tokenAuthenticator;
+    private final CatalogCacheInterceptor catalogCacheInterceptor;
+    private final NetworkMetricsInterceptor networkMetricsInterceptor;
+    private final ResilienceInterceptor resilienceInterceptor;
+    private final CoalescingCallAdapterFactory requestCoalescer;
+    private final HedgingCallAdapterFactory requestHedging;
     private final Retrofit retrofit;
     private SupabaseAuthApi authApi;
     private SupabaseRestApi restApi;
@@ -29,25 +50,76 @@ public class RetrofitClient {
         // Create auth interceptor
         authInterceptor = new AuthInterceptor();
 
-        // Logging interceptor for debugging
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+        // Refreshes the session on 401 (single-flight) and before expiry
+        tokenAuthenticator = new TokenAuthenticator(authInterceptor);
+
+        // Makes @Cacheable catalog GETs (category, brand and product lists) cacheable on disk;
+        // its outcome counter sits outermost so a retried call counts once
+        catalogCacheInterceptor = new CatalogCacheInterceptor();
+
+        // Latency / TTFB histograms, bytes, status and retry counts per route,
+        // and wire bytes per endpoint + select projection
+        networkMetricsInterceptor = new NetworkMetricsInterceptor();
 
-        // Create OkHttpClient with interceptors
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
+        // Backoff retries for idempotent calls, per-route circuit breakers
+        resilienceInterceptor = new ResilienceInterceptor();
+
+        // Derive from the shared stack (one connection pool and dispatcher per process)
+        OkHttpClient.Builder builder = SharedHttpClient.get().newBuilder()
+                .addInterceptor(catalogCacheInterceptor.outcomeCounter())
                 .addInterceptor(authInterceptor)
+                .addInterceptor(resilienceInterceptor)
+                .addNetworkInterceptor(networkMetricsInterceptor)
+                .addNetworkInterceptor(catalogCacheInterceptor)
+                .authenticator(tokenAuthenticator)
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+                .writeTimeout(30, TimeUnit.SECONDS);
+
+        // Request logging only exists in debug builds (BuildConfig.DEBUG is a
+        // compile-time constant, so R8 strips this branch from release)
+        if (BuildConfig.DEBUG) {
+            builder.addInterceptor(new DebugLoggingInterceptor(LOG_SAMPLE_RATE, LOG_MAX_BODY_BYTES));
+        }
+
+        if (cacheDir != null) {
+            Cache cache = new Cache(new File(cacheDir, HTTP_CACHE_DIR), HTTP_CACHE_SIZE);
+            builder.cache(cache);
+        }
+
+        OkHttpClient client = builder.build();
+
+        // Shares one network call among concurrent identical @Coalesce GETs
+        requestCoalescer = new CoalescingCallAdapterFactory();
+
+        // Sends a backup request for @Hedge GETs slower than p95 of their route
+        requestHedging = new HedgingCallAdapterFactory(HEDGE_PERCENTILE);
 
         // Create single Retrofit instance
+        // Priority scheduling is registered first so it sits closest to the network
         retrofit = new Retrofit.Builder()
                 .baseUrl(SupabaseConfig.BASE_URL)
                 .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(new PriorityCallAdapterFactory(RequestScheduler.getInstance()))
+                .addCallAdapterFactory(requestHedging)
+                .addCallAdapterFactory(requestCoalescer)
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                 .build();
+
+        if (appContext != null) {
+            tokenAuthenticator.attach(new TokenManager(appContext), getAuthApi());
+        }
+    }
+
+    /**
+     * Provide app context so the HTTP disk cache and token refresh can be set up
+     * Must be called before the first getInstance() to enable them
+     */
+    public static synchronized void init(Context context) {
+        if (appContext == null) {
+            appContext = context.getApplicationContext();
+            cacheDir = appContext.getCacheDir();
+        }
     }
 
     /**
@@ -80,6 +152,48 @@ public class RetrofitClient {
         return restApi;
     }
 
+    /**
+     * Get catalog cache interceptor (hit/miss/revalidate counters)
+     */
+    public CatalogCacheInterceptor getCatalogCache() {
+        return catalogCacheInterceptor;
+    }
+
+    /**
+     * Get payload size stats per endpoint and projection
+     */
+    public Map<String, NetworkMetricsInterceptor.PayloadStats> getPayloadSizes() {
+        return networkMetricsInterceptor.getPayloadSizes();
+    }
+
+    /**
+     * Get per-route network metrics (queryable, exportable as JSON)
+     */
+    public NetworkMetricsInterceptor getNetworkMetrics() {
+        return networkMetricsInterceptor;
+    }
+
+    /**
+     * Get request hedging (backup requests sent / won)
+     */
+    public HedgingCallAdapterFactory getRequestHedging() {
+        return requestHedging;
+    }
+
+    /**
+     * Get retry / circuit breaker layer (breaker state per route)
+     */
+    public ResilienceInterceptor getResilience() {
+        return resilienceInterceptor;
+    }
+
+    /**
+     * Get request coalescer (duplicate calls saved)
+     */
+    public CoalescingCallAdapterFactory getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
     /**
      * Get AuthInterceptor for token management
      */
@@ -87,6 +201,27 @@ public class RetrofitClient {
         return authInterceptor;
     }
 
+    /**
+     * Get request scheduler (queue wait per priority class)
+     */
+    public RequestScheduler getRequestScheduler() {
+        return RequestScheduler.getInstance();
+    }
+
+    /**
+     * Get connection pool and dispatcher stats of the shared HTTP stack
+     */
+    public SharedHttpClient.Stats getHttpStats() {
+        return SharedHttpClient.getStats();
+    }
+
+    /**
+     * Get token authenticator (scheduled renewal, refresh counters)
+     */
+    public TokenAuthenticator getTokenAuthenticator() {
+        return tokenAuthenticator;
+    }
+
     /**
      * Set access token (for authenticated requests)
      */
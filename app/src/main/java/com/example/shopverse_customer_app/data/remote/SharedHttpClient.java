@@ -0,0 +1,90 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Process-wide HTTP stack shared by every OkHttp user in the app
+ *
+ * Retrofit (Supabase), DirectionsHelper (Google Maps) and FirebaseTokenManager
+ * derive their clients from get().newBuilder(), so they all share one
+ * connection pool (warm TCP/TLS connections are reused across subsystems) and
+ * one dispatcher (one thread pool, global and per-host concurrency limits).
+ * RealtimeClient is the exception: its long-lived websocket uses its own
+ * dispatcher so it never occupies a per-host slot.
+ */
+public final class SharedHttpClient {
+
+    // Concurrent async calls across all hosts
+    static final int MAX_REQUESTS = 32;
+    // Concurrent async calls to one host - keeps a burst of catalog requests
+    // from starving maps or FCM and from opening too many sockets to Supabase
+    static final int MAX_REQUESTS_PER_HOST = 6;
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static OkHttpClient client;
+
+    private SharedHttpClient() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Base client - call newBuilder() on it to add interceptors, timeouts or a cache
+     */
+    public static synchronized OkHttpClient get() {
+        if (client == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(MAX_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+            client = new OkHttpClient.Builder()
+                    .dispatcher(dispatcher)
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Snapshot of connection pool and dispatcher usage
+     */
+    public static Stats getStats() {
+        OkHttpClient base = get();
+        return new Stats(
+                base.connectionPool().connectionCount(),
+                base.connectionPool().idleConnectionCount(),
+                base.dispatcher().runningCallsCount(),
+                base.dispatcher().queuedCallsCount());
+    }
+
+    public static class Stats {
+        public final int connectionCount;
+        public final int idleConnectionCount;
+        public final int runningCalls;
+        public final int queuedCalls;
+
+        Stats(int connectionCount, int idleConnectionCount, int runningCalls, int queuedCalls) {
+            this.connectionCount = connectionCount;
+            this.idleConnectionCount = idleConnectionCount;
+            this.runningCalls = runningCalls;
+            this.queuedCalls = queuedCalls;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "HttpStack{" +
+                    "connections=" + connectionCount +
+                    ", idle=" + idleConnectionCount +
+                    ", running=" + runningCalls +
+                    ", queued=" + queuedCalls +
+                    '}';
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.google.gson.JsonObject;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 
@@ -26,6 +27,17 @@ public interface SupabaseAuthApi {
     @POST("auth/v1/token?grant_type=password")
     Call<AuthResponse> login(@Body LoginRequest request);
 
+    /**
+     * REFRESH TOKEN: POST /auth/v1/token?grant_type=refresh_token
+     * Exchange a refresh token for a new session (requires apikey only)
+     * Body: { "refresh_token": "..." }
+     * Authorization is passed explicitly (anon key) so the expired access token is not sent
+     * Unscheduled: TokenAuthenticator runs it inside the call that got the 401
+     */
+    @Unscheduled
+    @POST("auth/v1/token?grant_type=refresh_token")
+    Call<AuthResponse> refreshToken(@Header("Authorization") String authorization, @Body JsonObject request);
+
     /**
      * SIGNUP: POST /auth/v1/signup
      * Only requires apikey, returns user object
@@ -3,6 +3,7 @@ package com.example.shopverse_customer_app.data.remote;
 import com.example.shopverse_customer_app.data.model.Brand;
 import com.example.shopverse_customer_app.data.model.CartItem;
 import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.HomeFeed;
 import com.example.shopverse_customer_app.data.model.Order;
 import com.example.shopverse_customer_app.data.model.OrderItem;
 import com.example.shopverse_customer_app.data.model.Product;
@@ -10,6 +11,8 @@ import com.example.shopverse_customer_app.data.model.Profile;
 
 import java.util.List;
 
+import okhttp3.ResponseBody;
+
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
@@ -18,12 +21,17 @@ import retrofit2.http.Headers;
 import retrofit2.http.PATCH;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+import retrofit2.http.Tag;
 
 /**
  * Retrofit interface for Supabase REST API (Database/PostgREST endpoints)
  * Base URL: https://shopverse.supabase.co/
  * All paths are relative to base URL
  * Requires apikey + bearer token (added by AuthInterceptor)
+ * Catalog reads marked @Coalesce share one in-flight request between identical callers
+ * Reads marked @Hedge send a backup request when the first one is unusually slow
+ * Reads marked @Cacheable are stored on disk and reused while fresh; other reads always reach the server
  */
 public interface SupabaseRestApi {
 
@@ -56,29 +64,55 @@ public interface SupabaseRestApi {
 
     /**
      * Get all categories from categories table
-     * GET /rest/v1/categories?select=*
+     * GET /rest/v1/categories?select=*&order={order}
+     *
+     * @param order Sort order, e.g. ProductRepository.ORDER_CATEGORIES
      */
+    @Hedge
+    @Coalesce
+    @Cacheable(maxAgeSeconds = Cacheable.CATALOG_MAX_AGE_SECONDS)
     @GET("rest/v1/categories")
     Call<List<Category>> getCategories(
-            @Query("select") String select
+            @Query("select") String select,
+            @Query("order") String order
     );
 
     /**
      * Get brands for a specific category from categories_brands table with join
      * GET /rest/v1/categories_brands?select=brands(*)&category_id=eq.{id}
      */
+    @Coalesce
+    @Cacheable(maxAgeSeconds = Cacheable.CATALOG_MAX_AGE_SECONDS)
     @GET("rest/v1/categories_brands")
     Call<List<BrandResponse>> getBrandsByCategory(
             @Query("select") String select,
             @Query("category_id") String categoryIdFilter
     );
 
+    /**
+     * Get the brands of every category in one embedded query
+     * GET /rest/v1/categories?select=category_id,categories_brands(brands(*))
+     *
+     * @param select Embedded projection (category_id plus the brands join)
+     * @param priority Scheduling class (PREFETCH: loaded ahead of sidebar taps)
+     * @return One entry per category with its brands
+     */
+    @Coalesce
+    @GET("rest/v1/categories")
+    Call<List<CategoryBrandsResponse>> getCategoryBrands(
+            @Query("select") String select,
+            @Tag RequestPriority priority
+    );
+
     /**
      * Get products by category with optional brand filter and search
      * GET /rest/v1/products?select=*,brands(*),categories(*)&category_id=eq.{id}&status=eq.active
      * Optional: &brand_id=eq.{brandId} or &brand_id=in.(id1,id2,id3)
      * Optional: &product_name=ilike.*search*
      */
+    @Hedge
+    @Coalesce
+    @Cacheable(maxAgeSeconds = Cacheable.PRODUCTS_MAX_AGE_SECONDS)
     @GET("rest/v1/products")
     Call<List<Product>> getProducts(
             @Query("select") String select,
@@ -89,6 +123,183 @@ public interface SupabaseRestApi {
             @Query("order") String order
     );
 
+    /**
+     * Get a single product by ID (used for the detail projection)
+     * GET /rest/v1/products?select=*,brands(*),categories(*)&product_id=eq.{id}
+     *
+     * @param select Detail projection
+     * @param productIdFilter Product ID filter (e.g., "eq.{productId}")
+     * @return List with the matching product (empty if not found)
+     */
+    @Coalesce
+    @GET("rest/v1/products")
+    Call<List<Product>> getProductById(
+            @Query("select") String select,
+            @Query("product_id") String productIdFilter
+    );
+
+    /**
+     * Get one page of products (offset pagination)
+     * GET /rest/v1/products?select=...&limit={limit}&offset={offset}
+     * Prefer: count=exact makes PostgREST return the total in Content-Range (e.g. "0-19/1234")
+     * Streamed: parse the body incrementally with JsonArrayStreamer (not shareable, so no @Coalesce)
+     *
+     * @param unitPriceFilters Price bounds, each its own unit_price param (e.g. gte.5000000, lt.10000000); nullable
+     * @param limit Page size
+     * @param offset Index of the first row of the page
+     * @param priority Scheduling class (PREFETCH for pages loaded ahead of the viewport)
+     * @return Raw JSON array of the requested page
+     */
+    @Hedge
+    @Streaming
+    @Headers("Prefer: count=exact")
+    @GET("rest/v1/products")
+    Call<ResponseBody> getProductsPage(
+            @Query("select") String select,
+            @Query("category_id") String categoryIdFilter,
+            @Query("brand_id") String brandIdFilter,
+            @Query("status") String statusFilter,
+            @Query("product_name") String productNameFilter,
+            @Query("unit_price") List<String> unitPriceFilters,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Query("offset") int offset,
+            @Tag RequestPriority priority
+    );
+
+    /**
+     * Get the page of products that follows a cursor (keyset/seek pagination)
+     * GET /rest/v1/products?select=...&or=(unit_price.gt.{p},and(unit_price.eq.{p},product_id.gt.{id}))
+     *     &order=unit_price.asc,product_id.asc&limit={limit}
+     * Cost does not grow with scroll depth, unlike limit/offset
+     * Streamed: parse the body incrementally with JsonArrayStreamer
+     *
+     * @param unitPriceFilters Price bounds, as in getProductsPage; nullable
+     * @param seekFilter Tuple comparison on the sort key (PostgREST "or" filter)
+     * @param order Sort order including the product_id tiebreaker
+     * @param limit Page size
+     * @param priority Scheduling class (PREFETCH for pages loaded ahead of the viewport)
+     * @return Raw JSON array of the products following the cursor
+     */
+    @Hedge
+    @Streaming
+    @GET("rest/v1/products")
+    Call<ResponseBody> getProductsAfter(
+            @Query("select") String select,
+            @Query("category_id") String categoryIdFilter,
+            @Query("brand_id") String brandIdFilter,
+            @Query("status") String statusFilter,
+            @Query("product_name") String productNameFilter,
+            @Query("unit_price") List<String> unitPriceFilters,
+            @Query("or") String seekFilter,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Tag RequestPriority priority
+    );
+
+    /**
+     * Get the first-paint data of the Home and Dashboard screens in one round trip
+     * GET /rest/v1/rpc/home_feed?product_limit={limit}&product_order={order}
+     * Defined in supabase/migrations/20261016000000_home_feed.sql (STABLE, so callable with GET)
+     *
+     * @param productLimit Number of products (null for all active products, 0 for none)
+     * @param productOrder "unit_price.asc", "unit_price.desc" or null (ties and null by product_id)
+     * @return Categories, brands of the first category and the first products
+     */
+    @Hedge
+    @Coalesce
+    @GET("rest/v1/rpc/home_feed")
+    Call<HomeFeed> getHomeFeed(
+            @Query("product_limit") Integer productLimit,
+            @Query("product_order") String productOrder
+    );
+
+    // ========== CATALOG SYNC ==========
+    // Delta reads for the offline catalog mirror (CatalogSyncEngine), always BACKGROUND
+    // Rows changed after a cursor, in (updated_at, primary key) order:
+    //   first page: updated_at=gt.{cursor} (null for a full download)
+    //   next pages: or=(updated_at.gt.{t},and(updated_at.eq.{t},{key}.gt.{k})) seeking after the last row
+    // The URL only changes when the cursor moves, so these reads bypass the HTTP cache:
+    // a stored page would hide rows changed since it was downloaded
+
+    /**
+     * Get categories changed after a cursor
+     * GET /rest/v1/categories?select=...&updated_at=gt.{cursor}&order=updated_at.asc,category_id.asc&limit={n}
+     */
+    @Headers("Cache-Control: no-cache, no-store")
+    @GET("rest/v1/categories")
+    Call<List<Category>> getCategoryChanges(
+            @Query("select") String select,
+            @Query("updated_at") String updatedAtFilter,
+            @Query("or") String seekFilter,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Tag RequestPriority priority
+    );
+
+    /**
+     * Get brands changed after a cursor
+     * GET /rest/v1/brands?select=...&updated_at=gt.{cursor}&order=updated_at.asc,brand_id.asc&limit={n}
+     */
+    @Headers("Cache-Control: no-cache, no-store")
+    @GET("rest/v1/brands")
+    Call<List<Brand>> getBrandChanges(
+            @Query("select") String select,
+            @Query("updated_at") String updatedAtFilter,
+            @Query("or") String seekFilter,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Tag RequestPriority priority
+    );
+
+    /**
+     * Get category -> brand links changed after a cursor
+     * GET /rest/v1/categories_brands?select=...&updated_at=gt.{cursor}&order=updated_at.asc,category_id.asc,brand_id.asc&limit={n}
+     */
+    @Headers("Cache-Control: no-cache, no-store")
+    @GET("rest/v1/categories_brands")
+    Call<List<CategoryBrandRow>> getCategoryBrandChanges(
+            @Query("select") String select,
+            @Query("updated_at") String updatedAtFilter,
+            @Query("or") String seekFilter,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Tag RequestPriority priority
+    );
+
+    /**
+     * Get products changed after a cursor
+     * GET /rest/v1/products?select=...&updated_at=gt.{cursor}&order=updated_at.asc,product_id.asc&limit={n}
+     *
+     * @param statusFilter "eq.active" for a full download, null for deltas (inactive rows are tombstones)
+     */
+    @Headers("Cache-Control: no-cache, no-store")
+    @GET("rest/v1/products")
+    Call<List<Product>> getProductChanges(
+            @Query("select") String select,
+            @Query("status") String statusFilter,
+            @Query("updated_at") String updatedAtFilter,
+            @Query("or") String seekFilter,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Tag RequestPriority priority
+    );
+
+    /**
+     * Get catalog rows deleted (or deactivated) after a cursor
+     * GET /rest/v1/catalog_tombstones?select=...&deleted_at=gt.{cursor}&order=deleted_at.asc,id.asc&limit={n}
+     */
+    @Headers("Cache-Control: no-cache, no-store")
+    @GET("rest/v1/catalog_tombstones")
+    Call<List<TombstoneRow>> getCatalogTombstones(
+            @Query("select") String select,
+            @Query("deleted_at") String deletedAtFilter,
+            @Query("or") String seekFilter,
+            @Query("order") String order,
+            @Query("limit") int limit,
+            @Tag RequestPriority priority
+    );
+
     // ========== CART ITEMS ==========
 
     /**
@@ -107,6 +318,19 @@ public interface SupabaseRestApi {
             @Query("order") String order
     );
 
+    /**
+     * Get one cart item by composite primary key (without the product join)
+     * GET /rest/v1/cart_items?select=...&user_id=eq.{userId}&product_id=eq.{productId}
+     *
+     * @return List with the cart item (empty if the product is not in the cart)
+     */
+    @GET("rest/v1/cart_items")
+    Call<List<CartItem>> getCartItem(
+            @Query("select") String select,
+            @Query("user_id") String userIdFilter,
+            @Query("product_id") String productIdFilter
+    );
+
     /**
      * Add item to cart (or update if already exists due to UNIQUE constraint)
      * POST /rest/v1/cart_items
@@ -121,6 +345,31 @@ public interface SupabaseRestApi {
     @POST("rest/v1/cart_items")
     Call<List<CartItem>> addToCart(@Body CartItem cartItem);
 
+    /**
+     * Insert a cart item or overwrite the quantity of the existing one, in one request
+     * POST /rest/v1/cart_items?on_conflict=user_id,product_id
+     *
+     * @param onConflict Conflict target, "user_id,product_id" (the primary key)
+     * @param cartItem Cart item to store (userId, productId, quantity)
+     * @return Stored cart item (as array with single element)
+     */
+    @Headers("Prefer: resolution=merge-duplicates,return=representation")
+    @POST("rest/v1/cart_items")
+    Call<List<CartItem>> upsertCartItem(
+            @Query("on_conflict") String onConflict,
+            @Body CartItem cartItem
+    );
+
+    /**
+     * Add to the quantity of a cart item, inserting it if missing, in one request
+     * POST /rest/v1/rpc/add_to_cart (supabase/migrations/*_cart_add_item.sql)
+     *
+     * @param request Product and quantity to add (the user is the caller)
+     * @return Resulting cart item
+     */
+    @POST("rest/v1/rpc/add_to_cart")
+    Call<CartItem> incrementCartItem(@Body AddToCartRequest request);
+
     /**
      * Update cart item quantity using composite primary key
      * PATCH /rest/v1/cart_items?user_id=eq.{userId}&product_id=eq.{productId}
@@ -139,17 +388,62 @@ public interface SupabaseRestApi {
     );
 
     /**
-     * Delete cart item using composite primary key
+     * Update a cart item only while it still holds the quantity read before (compare-and-set)
+     * PATCH /rest/v1/cart_items?user_id=eq.{userId}&product_id=eq.{productId}&quantity=eq.{expected}
+     *
+     * @param quantityFilter Expected current quantity (e.g., "eq.3")
+     * @param cartItem Updated cart item data (the new quantity)
+     * @return Updated cart item, or an empty list if the quantity changed in the meantime
+     */
+    @Headers("Prefer: return=representation")
+    @PATCH("rest/v1/cart_items")
+    Call<List<CartItem>> updateCartItemIfQuantity(
+            @Query("user_id") String userIdFilter,
+            @Query("product_id") String productIdFilter,
+            @Query("quantity") String quantityFilter,
+            @Body CartItem cartItem
+    );
+
+    /**
+     * Insert or overwrite several cart items in one request
+     * POST /rest/v1/cart_items?on_conflict=user_id,product_id (JSON array body)
+     *
+     * @param onConflict Conflict target, "user_id,product_id" (the primary key)
+     * @param cartItems Cart items to store (unique product IDs)
+     * @return Stored cart items
+     */
+    @Headers("Prefer: resolution=merge-duplicates,return=representation")
+    @POST("rest/v1/cart_items")
+    Call<List<CartItem>> upsertCartItems(
+            @Query("on_conflict") String onConflict,
+            @Body List<CartItem> cartItems
+    );
+
+    /**
+     * Set and remove several cart items in one request and one transaction
+     * POST /rest/v1/rpc/apply_cart_changes (supabase/migrations/*_cart_changeset.sql)
+     *
+     * @param request Changes (quantity 0 removes the item)
+     * @return Inserted or updated cart items
+     */
+    @POST("rest/v1/rpc/apply_cart_changes")
+    Call<List<CartItem>> applyCartChanges(@Body CartChangesRequest request);
+
+    /**
+     * Delete cart items using composite primary key
      * DELETE /rest/v1/cart_items?user_id=eq.{userId}&product_id=eq.{productId}
+     * Several items at once with product_id=in.(id1,id2,...)
      *
      * @param userIdFilter User ID filter (e.g., "eq.123")
-     * @param productIdFilter Product ID filter (e.g., "eq.456")
+     * @param productIdFilter Product ID filter (e.g., "eq.456" or "in.(456,789)")
+     * @param priority Scheduling class (BACKGROUND for fire-and-forget cleanup)
      * @return Void
      */
     @DELETE("rest/v1/cart_items")
     Call<Void> deleteCartItem(
             @Query("user_id") String userIdFilter,
-            @Query("product_id") String productIdFilter
+            @Query("product_id") String productIdFilter,
+            @Tag RequestPriority priority
     );
 
     // ========== ORDERS ==========
@@ -183,6 +477,21 @@ public interface SupabaseRestApi {
             @Query("order") String order
     );
 
+    /**
+     * Get orders for a user, streamed
+     * Same query as getOrders(); parse the body incrementally with JsonArrayStreamer
+     *
+     * @return Raw JSON array of orders
+     */
+    @Streaming
+    @GET("rest/v1/orders")
+    Call<ResponseBody> getOrdersStream(
+            @Query("select") String select,
+            @Query("user_id") String userIdFilter,
+            @Query("status") String statusFilter,
+            @Query("order") String order
+    );
+
     /**
      * Create order items
      * POST /rest/v1/order_items
@@ -201,4 +510,91 @@ public interface SupabaseRestApi {
         @com.google.gson.annotations.SerializedName("brands")
         public Brand brand;
     }
+
+    /**
+     * Inner class for a plain categories_brands row
+     */
+    class CategoryBrandRow {
+        @com.google.gson.annotations.SerializedName("category_id")
+        public String categoryId;
+
+        @com.google.gson.annotations.SerializedName("brand_id")
+        public String brandId;
+
+        @com.google.gson.annotations.SerializedName("updated_at")
+        public String updatedAt;
+    }
+
+    /**
+     * Inner class for a catalog_tombstones row (a catalog row clients must drop)
+     */
+    class TombstoneRow {
+        @com.google.gson.annotations.SerializedName("id")
+        public long id;
+
+        @com.google.gson.annotations.SerializedName("table_name")
+        public String tableName;
+
+        // Primary key of the dropped row ("category_id/brand_id" for categories_brands)
+        @com.google.gson.annotations.SerializedName("row_id")
+        public String rowId;
+
+        @com.google.gson.annotations.SerializedName("deleted_at")
+        public String deletedAt;
+    }
+
+    /**
+     * Inner class for a category with its embedded categories_brands join rows
+     */
+    class CategoryBrandsResponse {
+        @com.google.gson.annotations.SerializedName("category_id")
+        public String categoryId;
+
+        @com.google.gson.annotations.SerializedName("categories_brands")
+        public List<BrandResponse> brands;
+    }
+
+    /**
+     * Inner class for the add_to_cart RPC arguments
+     */
+    class AddToCartRequest {
+        @com.google.gson.annotations.SerializedName("p_product_id")
+        public final String productId;
+
+        @com.google.gson.annotations.SerializedName("p_quantity")
+        public final int quantity;
+
+        public AddToCartRequest(String productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Inner class for the apply_cart_changes RPC arguments
+     */
+    class CartChangesRequest {
+        @com.google.gson.annotations.SerializedName("p_changes")
+        public final List<CartChange> changes;
+
+        public CartChangesRequest(List<CartChange> changes) {
+            this.changes = changes;
+        }
+    }
+
+    /**
+     * One change of a changeset: new quantity of a product, 0 to remove it
+     */
+    class CartChange {
+        @com.google.gson.annotations.SerializedName("product_id")
+        public final String productId;
+
+        @com.google.gson.annotations.SerializedName("quantity")
+        public final int quantity;
+
+        public CartChange(String productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
 }
@@ -0,0 +1,309 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.shopverse_customer_app.config.SupabaseConfig;
+import com.example.shopverse_customer_app.data.model.AuthResponse;
+import com.example.shopverse_customer_app.utils.ErrorParser;
+import com.example.shopverse_customer_app.utils.TokenManager;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Route;
+
+/**
+ * Refreshes the Supabase session when the access token expires
+ *
+ * Reactive: as an OkHttp Authenticator it answers a 401 by refreshing through
+ * auth/v1/token?grant_type=refresh_token and replaying the request. Refreshes are
+ * single-flight - concurrent 401s queue on one lock, the first one refreshes and
+ * the others replay with the token it obtained.
+ *
+ * Proactive: scheduleRefresh() renews the session shortly before the stored
+ * expiry, so user-facing calls normally never see the 401 at all. A renewal
+ * that fails on the network or with a 5xx is retried; one the server rejects
+ * (4xx, e.g. a revoked refresh token) ends the session instead.
+ *
+ * Connections that hold the token outside OkHttp (the realtime socket) follow
+ * both through setTokenListener().
+ */
+public class TokenAuthenticator implements Authenticator {
+
+    private static final String TAG = "TokenAuthenticator";
+    private static final String REFRESH_PATH = "/auth/v1/token";
+
+    // Renew this long before the access token expires
+    private static final long REFRESH_MARGIN_MS = TimeUnit.SECONDS.toMillis(60);
+    // Delay before retrying a proactive refresh that failed (offline or 5xx)
+    private static final long RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+    // Give up after this many authentication attempts for one request
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final AuthInterceptor authInterceptor;
+    private final Object refreshLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong replayCount = new AtomicLong();
+
+    private volatile TokenManager tokenManager; // nullable until attached
+    private volatile SupabaseAuthApi authApi; // nullable until attached
+    private volatile TokenListener tokenListener; // nullable
+    private ScheduledFuture<?> scheduledRefresh; // guarded by this
+    private int lastRefreshCode; // HTTP status of the last refresh, 0 on network error; guarded by refreshLock
+
+    public TokenAuthenticator(AuthInterceptor authInterceptor) {
+        this.authInterceptor = authInterceptor;
+    }
+
+    /**
+     * Provide the session store and the auth API used for refreshing
+     * Schedules renewal for a session restored from storage
+     */
+    public void attach(TokenManager tokenManager, SupabaseAuthApi authApi) {
+        this.tokenManager = tokenManager;
+        this.authApi = authApi;
+        if (tokenManager.isLoggedIn() && tokenManager.getRefreshToken() != null) {
+            scheduleRefresh(tokenManager.getTokenExpiry());
+        }
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, @NonNull okhttp3.Response response) {
+        Request request = response.request();
+        TokenManager sessionStore = tokenManager;
+        if (sessionStore == null || request.url().encodedPath().startsWith(REFRESH_PATH)) {
+            return null;
+        }
+        if (attemptCount(response) >= MAX_ATTEMPTS) {
+            Log.e(TAG, "Still unauthorized after refresh: " + request.url().encodedPath());
+            return null;
+        }
+
+        String failedToken = bearerOf(request);
+        synchronized (refreshLock) {
+            String sessionToken = sessionStore.getAccessToken();
+            if (sessionToken == null || failedToken == null) {
+                return null;
+            }
+            if (!sessionToken.equals(failedToken)) {
+                if (failedToken.equals(authInterceptor.getAccessToken())) {
+                    // Request used a token that is not the session's (e.g. password recovery)
+                    return null;
+                }
+                // Another caller refreshed while this one waited - just replay
+                replayCount.incrementAndGet();
+                return withToken(request, sessionToken);
+            }
+
+            String newToken = refreshLocked(failedToken);
+            if (newToken == null) {
+                return null;
+            }
+            replayCount.incrementAndGet();
+            return withToken(request, newToken);
+        }
+    }
+
+    /**
+     * Be told when a refresh replaces the access token or a rejected refresh clears it
+     * Called on the thread that refreshed, with the new token or null
+     */
+    public void setTokenListener(@Nullable TokenListener listener) {
+        this.tokenListener = listener;
+    }
+
+    /**
+     * Renew the session shortly before the given expiry timestamp (millis)
+     * Replaces any previously scheduled renewal
+     */
+    public synchronized void scheduleRefresh(long expiryTimestamp) {
+        cancelScheduledRefresh();
+        if (expiryTimestamp <= 0) {
+            return;
+        }
+        long delay = Math.max(0, expiryTimestamp - REFRESH_MARGIN_MS - System.currentTimeMillis());
+        scheduledRefresh = scheduler.schedule(this::proactiveRefresh, delay, TimeUnit.MILLISECONDS);
+        Log.d(TAG, "Token renewal scheduled in " + TimeUnit.MILLISECONDS.toSeconds(delay) + "s");
+    }
+
+    /**
+     * Cancel the pending renewal (logout)
+     */
+    public synchronized void cancelScheduledRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+
+    /**
+     * Refresh the session now on a background thread
+     *
+     * @param callback Called on the background thread with the result
+     */
+    public void refreshNow(RefreshCallback callback) {
+        scheduler.execute(() -> {
+            String newToken;
+            synchronized (refreshLock) {
+                TokenManager sessionStore = tokenManager;
+                newToken = sessionStore != null ? refreshLocked(sessionStore.getAccessToken()) : null;
+            }
+            if (newToken != null) {
+                callback.onRefreshed(newToken);
+            } else {
+                callback.onError("Token refresh failed");
+            }
+        });
+    }
+
+    private void proactiveRefresh() {
+        TokenManager sessionStore = tokenManager;
+        if (sessionStore == null) {
+            return;
+        }
+        String newToken;
+        int code;
+        synchronized (refreshLock) {
+            String expiringToken = sessionStore.getAccessToken();
+            if (expiringToken == null) {
+                return;
+            }
+            lastRefreshCode = 0;
+            newToken = refreshLocked(expiringToken);
+            code = lastRefreshCode;
+        }
+        if (newToken != null) {
+            return;
+        }
+        if (code >= 400 && code < 500) {
+            // Refresh token rejected - retrying cannot succeed, so sign out
+            Log.w(TAG, "Refresh token rejected (" + code + "), clearing session");
+            sessionStore.clearTokens();
+            authInterceptor.clearAccessToken();
+            notifyTokenChanged(null);
+            return;
+        }
+        if ((code == 0 || code >= 500) && sessionStore.getRefreshToken() != null) {
+            synchronized (this) {
+                scheduledRefresh = scheduler.schedule(this::proactiveRefresh,
+                        RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Exchange the refresh token for a new session
+     * Caller must hold refreshLock. Skips the network call if the session
+     * already moved past expiredToken.
+     *
+     * @return The current access token, or null if the refresh failed
+     */
+    private String refreshLocked(String expiredToken) {
+        TokenManager sessionStore = tokenManager;
+        SupabaseAuthApi api = authApi;
+        if (sessionStore == null || api == null) {
+            return null;
+        }
+        String sessionToken = sessionStore.getAccessToken();
+        if (sessionToken != null && !sessionToken.equals(expiredToken)) {
+            return sessionToken;
+        }
+        String refreshToken = sessionStore.getRefreshToken();
+        if (refreshToken == null) {
+            Log.e(TAG, "No refresh token available");
+            return null;
+        }
+
+        JsonObject body = new JsonObject();
+        body.addProperty("refresh_token", refreshToken);
+        try {
+            retrofit2.Response<AuthResponse> response = api.refreshToken(
+                    "Bearer " + SupabaseConfig.SUPABASE_ANON_KEY, body).execute();
+            AuthResponse session = response.body();
+            lastRefreshCode = response.code();
+            if (!response.isSuccessful() || session == null || session.getAccessToken() == null) {
+                Log.e(TAG, "Token refresh failed: " + ErrorParser.parseError(response));
+                return null;
+            }
+
+            String userId = session.getUser() != null ? session.getUser().getId() : sessionStore.getUserId();
+            String email = session.getUser() != null ? session.getUser().getEmail() : sessionStore.getUserEmail();
+            sessionStore.saveAuthSession(session.getAccessToken(), session.getRefreshToken(),
+                    userId, email, session.getExpiresIn());
+            authInterceptor.setAccessToken(session.getAccessToken());
+            notifyTokenChanged(session.getAccessToken());
+            refreshCount.incrementAndGet();
+            Log.d(TAG, "Token refresh successful");
+
+            scheduleRefresh(sessionStore.getTokenExpiry());
+            return session.getAccessToken();
+        } catch (IOException e) {
+            Log.e(TAG, "Token refresh network error", e);
+            return null;
+        }
+    }
+
+    private void notifyTokenChanged(@Nullable String accessToken) {
+        TokenListener listener = tokenListener;
+        if (listener != null) {
+            listener.onAccessTokenChanged(accessToken);
+        }
+    }
+
+    private static String bearerOf(Request request) {
+        String header = request.header(SupabaseConfig.HEADER_AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        return header.substring("Bearer ".length());
+    }
+
+    private static Request withToken(Request request, String token) {
+        return request.newBuilder()
+                .header(SupabaseConfig.HEADER_AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    private static int attemptCount(okhttp3.Response response) {
+        int count = 1;
+        while ((response = response.priorResponse()) != null) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Refresh round trips actually sent
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * Requests replayed after a 401 with a fresh token
+     */
+    public long getReplayCount() {
+        return replayCount.get();
+    }
+
+    public interface TokenListener {
+        void onAccessTokenChanged(@Nullable String accessToken);
+    }
+
+    public interface RefreshCallback {
+        void onRefreshed(String accessToken);
+        void onError(String error);
+    }
+}
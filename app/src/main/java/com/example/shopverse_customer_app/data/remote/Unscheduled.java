@@ -0,0 +1,21 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Retrofit method whose calls go straight to OkHttp instead of
+ * waiting for a RequestScheduler slot (see PriorityCallAdapterFactory)
+ *
+ * Only use for calls made while another scheduled call holds its slot, such
+ * as the token refresh inside TokenAuthenticator: waiting for a slot there
+ * can deadlock once every slot of the host is held by calls waiting for it.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Unscheduled {
+}
@@ -1,6 +1,8 @@
 package com.example.shopverse_customer_app.data.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -12,6 +14,7 @@ import com.example.shopverse_customer_app.data.model.RegisterRequest;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseAuthApi;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.data.remote.TokenAuthenticator;
 import com.example.shopverse_customer_app.utils.ErrorParser;
 import com.example.shopverse_customer_app.utils.GoogleSignInManager;
 import com.example.shopverse_customer_app.utils.TokenManager;
@@ -43,6 +46,7 @@ public class AuthRepository {
      * Constructor
      */
     public AuthRepository(Context context) {
+        RetrofitClient.init(context);
         this.retrofitClient = RetrofitClient.getInstance();
         this.authApi = retrofitClient.getAuthApi();
         this.restApi = retrofitClient.getRestApi();
@@ -135,45 +139,39 @@ public class AuthRepository {
         // Clear tokens from TokenManager
         tokenManager.clearTokens();
 
-        // Clear token from RetrofitClient AuthInterceptor
+        // Clear token from RetrofitClient AuthInterceptor and stop scheduled renewal
         retrofitClient.clearAccessToken();
+        retrofitClient.getTokenAuthenticator().cancelScheduledRefresh();
 
         callback.onSuccess();
         Log.d(TAG, "Logout successful - tokens cleared");
     }
 
     /**
-     * Refresh access token
+     * Refresh access token now
+     * Shares the single-flight refresh used by the 401 authenticator and the renewal scheduler
      */
-//    public void refreshToken(AuthCallback callback) {
-//        String refreshToken = tokenManager.getRefreshToken();
-//
-//        if (refreshToken == null) {
-//            callback.onError("No refresh token available");
-//            return;
-//        }
-//
-//        authApi.refreshToken(refreshToken).enqueue(new Callback<AuthResponse>() {
-//            @Override
-//            public void onResponse(@NonNull Call<AuthResponse> call, @NonNull Response<AuthResponse> response) {
-//                if (response.isSuccessful() && response.body() != null) {
-//                    AuthResponse authResponse = response.body();
-//                    saveAuthSession(authResponse);
-//                    callback.onSuccess(authResponse);
-//                    Log.d(TAG, "Token refresh successful");
-//                } else {
-//                    callback.onError("Token refresh failed");
-//                    Log.e(TAG, "Token refresh failed");
-//                }
-//            }
-//
-//            @Override
-//            public void onFailure(@NonNull Call<AuthResponse> call, @NonNull Throwable t) {
-//                callback.onError("Network error: " + t.getMessage());
-//                Log.e(TAG, "Token refresh network error", t);
-//            }
-//        });
-//    }
+    public void refreshToken(SimpleCallback callback) {
+        if (tokenManager.getRefreshToken() == null) {
+            callback.onError("No refresh token available");
+            return;
+        }
+
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        retrofitClient.getTokenAuthenticator().refreshNow(new TokenAuthenticator.RefreshCallback() {
+            @Override
+            public void onRefreshed(String accessToken) {
+                mainHandler.post(callback::onSuccess);
+                Log.d(TAG, "Token refresh successful");
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> callback.onError(error));
+                Log.e(TAG, "Token refresh failed: " + error);
+            }
+        });
+    }
 
     /**
      * Request password reset
@@ -362,6 +360,9 @@ public class AuthRepository {
 
         // Set access token in RetrofitClient AuthInterceptor for immediate use
         retrofitClient.setAccessToken(authResponse.getAccessToken());
+
+        // Renew shortly before the new token expires
+        retrofitClient.getTokenAuthenticator().scheduleRefresh(tokenManager.getTokenExpiry());
     }
 
     /**
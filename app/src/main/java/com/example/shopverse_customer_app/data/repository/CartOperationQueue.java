@@ -0,0 +1,367 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.shopverse_customer_app.data.local.CartDatabase;
+import com.example.shopverse_customer_app.data.local.CartOperationDao;
+import com.example.shopverse_customer_app.data.local.CartOperationEntity;
+import com.example.shopverse_customer_app.data.local.CartSyncWorker;
+import com.example.shopverse_customer_app.data.model.CartItem;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.utils.ErrorParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Write-ahead log for cart changes
+ *
+ * The cart screen applies a change to its own state at once and hands it
+ * here; it is stored in CartDatabase before anything is sent, so it survives
+ * process death. CartSyncWorker flushes the log to cart_items oldest first,
+ * sending only the newest change per product (changes are absolute).
+ *
+ * Bursts are collapsed: the flush is scheduled COALESCE_WINDOW_MS after the
+ * last change, only the newest change per product is sent, and a write
+ * still in flight is cancelled when a newer change for the same product
+ * arrives. Flushes never overlap, so writes reach the server in tap order
+ * and the final server state is the last tap.
+ *
+ * Outcomes of a flush:
+ * - accepted: the change is removed from the log
+ * - unreachable (IO error, 5xx, 408, 429): kept and retried with backoff
+ * - rejected (other 4xx, or the row no longer exists): removed and reported
+ *   through getRejections(), so the screen reloads the server state (rollback)
+ *
+ * Cart reads overlay the log on the server rows (applyPending()), so changes
+ * that are still queued are not undone by a reload.
+ */
+public final class CartOperationQueue {
+
+    private static final String TAG = "CartOperationQueue";
+    // Quiet period after the last change before the log is flushed
+    private static final long COALESCE_WINDOW_MS = 400;
+
+    private static CartOperationQueue instance;
+
+    private final Context appContext;
+    private final CartOperationDao dao;
+    private final SupabaseRestApi restApi;
+    private final MutableLiveData<Rejection> rejections = new MutableLiveData<>();
+    // Single disk thread, so the log keeps the order of the taps
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CartLog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler; // null in tests that only flush
+    private final Runnable scheduleFlush;
+
+    // Write currently on the wire, cancelled when a newer change supersedes it
+    private final Object inFlightLock = new Object();
+    private Call<?> inFlightCall; // nullable
+    private CartOperationEntity inFlightOperation; // nullable
+
+    private final AtomicLong changeCount = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    private CartOperationQueue(Context context) {
+        this(context, CartDatabase.getInstance(context).cartOperationDao(),
+                RetrofitClient.getInstance().getRestApi(), new Handler(Looper.getMainLooper()));
+    }
+
+    /**
+     * @param mainHandler Runs the flush debounce and read callbacks (tests that only flush pass null)
+     */
+    CartOperationQueue(Context context, CartOperationDao dao, SupabaseRestApi restApi, Handler mainHandler) {
+        this.appContext = context;
+        this.dao = dao;
+        this.restApi = restApi;
+        this.mainHandler = mainHandler;
+        scheduleFlush = () -> CartSyncWorker.schedule(appContext);
+    }
+
+    /**
+     * Initialize with application context (call once at startup, before getInstance())
+     */
+    public static synchronized void init(Context context) {
+        if (instance == null) {
+            instance = new CartOperationQueue(context.getApplicationContext());
+        }
+    }
+
+    public static synchronized CartOperationQueue getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("CartOperationQueue.init() must be called first");
+        }
+        return instance;
+    }
+
+    /**
+     * Changes the server refused; the screen should reload the cart
+     */
+    public LiveData<Rejection> getRejections() {
+        return rejections;
+    }
+
+    // ========== LOG ==========
+
+    public void enqueueSetQuantity(String userId, String productId, int quantity) {
+        append(CartOperationEntity.setQuantity(userId, productId, quantity));
+    }
+
+    public void enqueueDelete(String userId, String productId) {
+        append(CartOperationEntity.delete(userId, productId));
+    }
+
+    private void append(CartOperationEntity operation) {
+        diskExecutor.execute(() -> {
+            try {
+                operation.id = dao.insert(operation);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to store cart change", e);
+                return;
+            }
+            changeCount.incrementAndGet();
+            cancelSuperseded(operation);
+            // Debounce: a burst of taps is flushed once, after the last one
+            mainHandler.removeCallbacks(scheduleFlush);
+            mainHandler.postDelayed(scheduleFlush, COALESCE_WINDOW_MS);
+        });
+    }
+
+    /**
+     * Cancel the in-flight write of the same product; the newer change replaces it
+     * Called once the newer change is stored, so the flush finds it next
+     */
+    void cancelSuperseded(CartOperationEntity operation) {
+        synchronized (inFlightLock) {
+            if (inFlightCall != null && inFlightOperation != null
+                    && inFlightOperation.id < operation.id
+                    && inFlightOperation.userId.equals(operation.userId)
+                    && inFlightOperation.productId.equals(operation.productId)) {
+                inFlightCall.cancel();
+            }
+        }
+    }
+
+    /**
+     * Schedule a flush if changes are left from a previous run (call at startup)
+     */
+    public void flushPending() {
+        diskExecutor.execute(() -> {
+            if (dao.count() > 0) {
+                CartSyncWorker.schedule(appContext);
+            }
+        });
+    }
+
+    /**
+     * Apply the queued changes of a user to cart rows loaded from the server
+     *
+     * @param items Server rows, modified in place
+     * @param callback Called on the main thread with the merged rows
+     */
+    public void applyPending(String userId, List<CartItem> items, CartRepository.CartItemsCallback callback) {
+        diskExecutor.execute(() -> {
+            List<CartOperationEntity> pending;
+            try {
+                pending = dao.getPending(userId);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to read cart log", e);
+                pending = new ArrayList<>();
+            }
+            List<CartItem> merged = new ArrayList<>(items);
+            for (CartOperationEntity operation : pending) {
+                Iterator<CartItem> iterator = merged.iterator();
+                while (iterator.hasNext()) {
+                    CartItem item = iterator.next();
+                    if (!operation.productId.equals(item.getProductId())) {
+                        continue;
+                    }
+                    if (operation.isDelete()) {
+                        iterator.remove();
+                    } else {
+                        item.setQuantity(operation.quantity);
+                    }
+                    break;
+                }
+            }
+            mainHandler.post(() -> callback.onSuccess(merged));
+        });
+    }
+
+    // ========== FLUSH ==========
+
+    /**
+     * Send the log to the server until it is empty
+     * Blocking: runs the requests on the calling thread (CartSyncWorker)
+     *
+     * @return false if the server could not be reached and the rest should be retried
+     */
+    @WorkerThread
+    public synchronized boolean flush() {
+        try {
+            return flushAll();
+        } finally {
+            Log.d(TAG, "Cart writes: " + getChangeCount() + " changes, " + getRequestCount() + " requests, "
+                    + getCollapsedCount() + " collapsed, " + getCancelledCount() + " cancelled in flight");
+        }
+    }
+
+    private boolean flushAll() {
+        while (true) {
+            CartOperationEntity oldest = dao.getOldest();
+            if (oldest == null) {
+                return true;
+            }
+            // Later changes of the same product replace the older ones
+            CartOperationEntity operation = dao.getLatest(oldest.userId, oldest.productId);
+
+            Outcome outcome;
+            String error = null;
+            Call<?> call = call(operation);
+            synchronized (inFlightLock) {
+                inFlightCall = call;
+                inFlightOperation = operation;
+            }
+            try {
+                requestCount.incrementAndGet();
+                Response<?> response = call.execute();
+                outcome = outcomeOf(response, operation);
+                if (outcome == Outcome.REJECTED) {
+                    error = response.isSuccessful()
+                            ? "Sản phẩm không còn trong giỏ hàng"
+                            : ErrorParser.parseError(response);
+                }
+            } catch (IOException e) {
+                if (call.isCanceled()) {
+                    // Superseded by a newer change of the same product, which is sent next
+                    cancelledCount.incrementAndGet();
+                    collapsedCount.addAndGet(dao.deleteUpTo(operation.userId, operation.productId, operation.id));
+                    continue;
+                }
+                Log.w(TAG, "Cart change not sent: " + e.getMessage());
+                return false;
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Cart change not sent", e);
+                return false;
+            } finally {
+                synchronized (inFlightLock) {
+                    inFlightCall = null;
+                    inFlightOperation = null;
+                }
+            }
+
+            if (outcome == Outcome.RETRY) {
+                return false;
+            }
+            // Older changes of the product were replaced by this write
+            int removed = dao.deleteUpTo(operation.userId, operation.productId, operation.id);
+            collapsedCount.addAndGet(Math.max(0, removed - 1));
+            if (outcome == Outcome.REJECTED) {
+                Log.w(TAG, "Cart change rejected for " + operation.productId + ": " + error);
+                rejections.postValue(new Rejection(operation.userId, operation.productId, error));
+            }
+        }
+    }
+
+    private Call<?> call(CartOperationEntity operation) {
+        String userFilter = "eq." + operation.userId;
+        String productFilter = "eq." + operation.productId;
+        if (operation.isDelete()) {
+            return restApi.deleteCartItem(userFilter, productFilter, RequestPriority.BACKGROUND);
+        }
+        CartItem update = new CartItem();
+        update.setQuantity(operation.quantity);
+        return restApi.updateCartItem(userFilter, productFilter, update);
+    }
+
+    // ========== STATS ==========
+
+    /**
+     * Cart changes queued (one per tap)
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Writes actually sent to cart_items
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Queued changes that never needed a request of their own
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    /**
+     * Writes cancelled on the wire because a newer change replaced them
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Outcome outcomeOf(Response<?> response, CartOperationEntity operation) {
+        int code = response.code();
+        if (response.isSuccessful()) {
+            if (operation.isDelete()) {
+                return Outcome.ACCEPTED;
+            }
+            // PATCH matched no row: the item was removed elsewhere (other device, checkout)
+            List<CartItem> updated = (List<CartItem>) response.body();
+            return updated == null || updated.isEmpty() ? Outcome.REJECTED : Outcome.ACCEPTED;
+        }
+        if (code >= 500 || code == 408 || code == 429 || code == 401) {
+            // 401 is only left after the session refresh failed; retry once signed in again
+            return Outcome.RETRY;
+        }
+        return Outcome.REJECTED;
+    }
+
+    private enum Outcome {
+        ACCEPTED,
+        RETRY,
+        REJECTED
+    }
+
+    /**
+     * A change the server refused
+     */
+    public static class Rejection {
+        public final String userId;
+        public final String productId;
+        public final String message;
+
+        Rejection(String userId, String productId, String message) {
+            this.userId = userId;
+            this.productId = productId;
+            this.message = message;
+        }
+    }
+}
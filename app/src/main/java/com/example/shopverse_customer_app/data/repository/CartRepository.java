@@ -3,13 +3,19 @@ package com.example.shopverse_customer_app.data.repository;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
 
 import com.example.shopverse_customer_app.data.model.CartItem;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
 import com.example.shopverse_customer_app.utils.ErrorParser;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -21,15 +27,24 @@ import retrofit2.Response;
 public class CartRepository {
 
     private static final String TAG = "CartRepository";
+    // Primary key of cart_items, the conflict target of upserts
+    private static final String ON_CONFLICT_CART_KEY = "user_id,product_id";
+    private static final String SELECT_CART_KEY_AND_QUANTITY = "user_id,product_id,quantity";
+    private static final String ERROR_CART_CHANGED = "Giỏ hàng vừa thay đổi, vui lòng thử lại";
     private final SupabaseRestApi restApi;
 
     public CartRepository() {
-        this.restApi = RetrofitClient.getInstance().getRestApi();
+        this(RetrofitClient.getInstance().getRestApi());
+    }
+
+    CartRepository(SupabaseRestApi restApi) {
+        this.restApi = restApi;
     }
 
     /**
      * Get all cart items for a user
-     * Returns items in reverse chronological order (newest first)
+     * Returns items in reverse chronological order (newest first), with
+     * changes still queued in CartOperationQueue applied on top
      *
      * @param userId User ID (UUID string)
      * @param callback Callback with list of cart items
@@ -46,7 +61,11 @@ public class CartRepository {
             public void onResponse(@NonNull Call<List<CartItem>> call,
                                    @NonNull Response<List<CartItem>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    callback.onSuccess(response.body());
+                    // Stock and price of the embedded products stay live (stock check on +)
+                    for (CartItem item : response.body()) {
+                        ProductLiveUpdates.getInstance().track(item.getProduct());
+                    }
+                    CartOperationQueue.getInstance().applyPending(userId, response.body(), callback);
                     Log.d(TAG, "Loaded " + response.body().size() + " cart items");
                 } else {
                     String error = ErrorParser.parseError(response);
@@ -66,8 +85,8 @@ public class CartRepository {
 
     /**
      * Add item to cart
-     * Note: Will fail if item already exists (UNIQUE constraint on user_id + product_id)
-     * Consider checking existence first or handling the error
+     * Note: Will fail if item already exists (UNIQUE constraint on user_id + product_id);
+     * use addOrUpdateCartItem() or incrementCartItem() to add in one request
      *
      * @param cartItem Cart item to add (must have userId, productId, quantity)
      * @param callback Callback with created cart item
@@ -176,7 +195,7 @@ public class CartRepository {
         String userFilter = "eq." + userId;
         String productFilter = "eq." + productId;
 
-        restApi.deleteCartItem(userFilter, productFilter).enqueue(new Callback<Void>() {
+        restApi.deleteCartItem(userFilter, productFilter, RequestPriority.INTERACTIVE).enqueue(new Callback<Void>() {
             @Override
             public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
                 if (response.isSuccessful()) {
@@ -199,40 +218,340 @@ public class CartRepository {
     }
 
     /**
-     * Add to cart or update quantity if item already exists
-     * This is a convenience method that handles the UNIQUE constraint
+     * Set the quantity of a cart item without waiting for the server
+     * The change is logged durably and sent by CartSyncWorker; refusals are
+     * reported by CartOperationQueue.getRejections()
+     */
+    public void queueQuantityUpdate(String userId, String productId, int newQuantity) {
+        CartOperationQueue.getInstance().enqueueSetQuantity(userId, productId, newQuantity);
+    }
+
+    /**
+     * Remove a cart item without waiting for the server (see queueQuantityUpdate())
+     */
+    public void queueDelete(String userId, String productId) {
+        CartOperationQueue.getInstance().enqueueDelete(userId, productId);
+    }
+
+    public LiveData<CartOperationQueue.Rejection> getRejectedChanges() {
+        return CartOperationQueue.getInstance().getRejections();
+    }
+
+    /**
+     * Add to cart or overwrite the quantity if the item already exists
+     * One upsert request (resolution=merge-duplicates on the primary key)
      *
      * @param userId User ID (UUID string)
      * @param productId Product ID (UUID string)
-     * @param quantity Quantity to add (or set if updating)
+     * @param quantity Quantity to set
      * @param callback Callback with cart item
      */
     public void addOrUpdateCartItem(String userId, String productId, int quantity,
                                     CartItemCallback callback) {
-        CartItem newItem = new CartItem(userId, productId, quantity);
+        CartItem item = new CartItem(userId, productId, quantity);
+
+        Log.d(TAG, "Upserting cart item - userId: " + userId + ", productId: " + productId + ", quantity: " + quantity);
 
-        Log.d(TAG, "Adding to cart - userId: " + userId + ", productId: " + productId + ", quantity: " + quantity);
+        restApi.upsertCartItem(ON_CONFLICT_CART_KEY, item).enqueue(new Callback<List<CartItem>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<CartItem>> call,
+                                   @NonNull Response<List<CartItem>> response) {
+                if (response.isSuccessful()) {
+                    boolean hasBody = response.body() != null && !response.body().isEmpty();
+                    callback.onSuccess(hasBody ? response.body().get(0) : item);
+                    Log.d(TAG, "Upserted cart item");
+                } else {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to upsert cart item - Code: " + response.code() + ", Error: " + error);
+                }
+            }
 
-        // Try to add first
-        addToCart(newItem, new CartItemCallback() {
             @Override
-            public void onSuccess(CartItem cartItem) {
-                callback.onSuccess(cartItem);
+            public void onFailure(@NonNull Call<List<CartItem>> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error upserting cart item: " + t.getMessage(), t);
             }
+        });
+    }
+
+    /**
+     * Add quantity to a cart item, inserting it if it is not in the cart yet
+     * One request to the add_to_cart RPC (the server adds atomically); where
+     * the RPC is not deployed (404) the row is read and written back with
+     * addByReadAndWrite() instead
+     *
+     * @param userId User ID (UUID string), the signed-in user
+     * @param productId Product ID (UUID string)
+     * @param quantity Quantity to add
+     * @param callback Callback with the resulting cart item
+     */
+    public void incrementCartItem(String userId, String productId, int quantity, CartItemCallback callback) {
+        Log.d(TAG, "Adding " + quantity + " to cart - productId: " + productId);
 
+        restApi.incrementCartItem(new SupabaseRestApi.AddToCartRequest(productId, quantity))
+                .enqueue(new Callback<CartItem>() {
             @Override
-            public void onError(String error) {
-                // If add fails (likely due to duplicate), try update instead
-                if (error.contains("duplicate") || error.contains("unique") ||
-                    error.contains("already exists")) {
-                    updateCartItemQuantity(userId, productId, quantity, callback);
+            public void onResponse(@NonNull Call<CartItem> call, @NonNull Response<CartItem> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    callback.onSuccess(response.body());
+                    Log.d(TAG, "Cart quantity is now " + response.body().getQuantity());
+                } else if (response.code() == 404) {
+                    Log.w(TAG, "add_to_cart RPC not available, falling back to read and write");
+                    addByReadAndWrite(userId, productId, quantity, callback);
                 } else {
+                    String error = ErrorParser.parseError(response);
                     callback.onError(error);
+                    Log.e(TAG, "Failed to add to cart - Code: " + response.code() + ", Error: " + error);
                 }
             }
+
+            @Override
+            public void onFailure(@NonNull Call<CartItem> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error adding to cart: " + t.getMessage(), t);
+            }
         });
     }
 
+    /**
+     * Add quantity without the add_to_cart RPC: read the cart item, then write
+     * current + quantity only while the row still holds the quantity read
+     * (quantity=eq.{current}), or insert it if it is not in the cart
+     * A concurrent change makes the write match nothing (or the insert conflict)
+     * and is reported as an error - the quantity is never overwritten
+     */
+    private void addByReadAndWrite(String userId, String productId, int quantity, CartItemCallback callback) {
+        String userFilter = "eq." + userId;
+        String productFilter = "eq." + productId;
+
+        restApi.getCartItem(SELECT_CART_KEY_AND_QUANTITY, userFilter, productFilter)
+                .enqueue(new Callback<List<CartItem>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<CartItem>> call,
+                                   @NonNull Response<List<CartItem>> response) {
+                if (!response.isSuccessful()) {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to read cart item - Code: " + response.code() + ", Error: " + error);
+                    return;
+                }
+                if (response.body() == null || response.body().isEmpty()) {
+                    // Not in the cart yet: a plain insert fails (409) if another add got there first
+                    addToCart(new CartItem(userId, productId, quantity), callback);
+                    return;
+                }
+
+                int current = response.body().get(0).getQuantity();
+                CartItem updateData = new CartItem();
+                updateData.setQuantity(current + quantity);
+                restApi.updateCartItemIfQuantity(userFilter, productFilter, "eq." + current, updateData)
+                        .enqueue(new Callback<List<CartItem>>() {
+                    @Override
+                    public void onResponse(@NonNull Call<List<CartItem>> call,
+                                           @NonNull Response<List<CartItem>> response) {
+                        if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
+                            callback.onSuccess(response.body().get(0));
+                            Log.d(TAG, "Cart quantity is now " + (current + quantity));
+                        } else if (response.isSuccessful()) {
+                            callback.onError(ERROR_CART_CHANGED);
+                            Log.w(TAG, "Cart item changed since it was read (quantity was " + current + ")");
+                        } else {
+                            String error = ErrorParser.parseError(response);
+                            callback.onError(error);
+                            Log.e(TAG, "Failed to add to cart - Code: " + response.code() + ", Error: " + error);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<List<CartItem>> call, @NonNull Throwable t) {
+                        String error = ErrorParser.parseError(t);
+                        callback.onError(error);
+                        Log.e(TAG, "Network error adding to cart: " + t.getMessage(), t);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<List<CartItem>> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error reading cart item: " + t.getMessage(), t);
+            }
+        });
+    }
+
+    /**
+     * Delete several cart items in one request (product_id=in.(...))
+     *
+     * @param userId User ID (UUID string)
+     * @param productIds Products to remove
+     * @param priority BACKGROUND for fire-and-forget cleanup, INTERACTIVE when the user waits
+     * @param callback Simple callback
+     */
+    public void deleteCartItems(String userId, Collection<String> productIds, RequestPriority priority,
+                                SimpleCallback callback) {
+        if (productIds.isEmpty()) {
+            callback.onSuccess();
+            return;
+        }
+        String userFilter = "eq." + userId;
+        String productFilter = inFilter(productIds);
+
+        restApi.deleteCartItem(userFilter, productFilter, priority).enqueue(new Callback<Void>() {
+            @Override
+            public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
+                if (response.isSuccessful()) {
+                    callback.onSuccess();
+                    Log.d(TAG, "Deleted " + productIds.size() + " cart items");
+                } else {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to delete cart items: " + error);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<Void> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error deleting cart items", t);
+            }
+        });
+    }
+
+    /**
+     * Insert or overwrite the quantity of several cart items in one request
+     * If a product appears more than once, the last item wins
+     *
+     * @param cartItems Items to store (userId, productId, quantity)
+     * @param callback Callback with the stored items
+     */
+    public void upsertCartItems(List<CartItem> cartItems, CartItemsCallback callback) {
+        Map<String, CartItem> byProduct = new LinkedHashMap<>();
+        for (CartItem item : cartItems) {
+            // Only the row columns are sent, not the embedded product
+            byProduct.put(item.getProductId(), new CartItem(item.getUserId(), item.getProductId(), item.getQuantity()));
+        }
+        if (byProduct.isEmpty()) {
+            callback.onSuccess(new ArrayList<>());
+            return;
+        }
+
+        restApi.upsertCartItems(ON_CONFLICT_CART_KEY, new ArrayList<>(byProduct.values()))
+                .enqueue(new Callback<List<CartItem>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<CartItem>> call,
+                                   @NonNull Response<List<CartItem>> response) {
+                if (response.isSuccessful()) {
+                    callback.onSuccess(response.body() != null ? response.body() : new ArrayList<>());
+                    Log.d(TAG, "Upserted " + byProduct.size() + " cart items");
+                } else {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to upsert cart items: " + error);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<List<CartItem>> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error upserting cart items", t);
+            }
+        });
+    }
+
+    /**
+     * Apply a mix of quantity changes and removals in one request, all or nothing
+     * Where the apply_cart_changes RPC is not deployed (404), falls back to one
+     * bulk delete and one bulk upsert
+     *
+     * @param userId User ID (UUID string), the signed-in user
+     * @param changes New quantities; quantity 0 removes the item (last change per product wins)
+     * @param callback Callback with the inserted or updated items
+     */
+    public void applyCartChanges(String userId, List<SupabaseRestApi.CartChange> changes,
+                                 CartItemsCallback callback) {
+        Map<String, SupabaseRestApi.CartChange> byProduct = new LinkedHashMap<>();
+        for (SupabaseRestApi.CartChange change : changes) {
+            byProduct.put(change.productId, change);
+        }
+        if (byProduct.isEmpty()) {
+            callback.onSuccess(new ArrayList<>());
+            return;
+        }
+        List<SupabaseRestApi.CartChange> unique = new ArrayList<>(byProduct.values());
+
+        restApi.applyCartChanges(new SupabaseRestApi.CartChangesRequest(unique))
+                .enqueue(new Callback<List<CartItem>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<CartItem>> call,
+                                   @NonNull Response<List<CartItem>> response) {
+                if (response.isSuccessful()) {
+                    callback.onSuccess(response.body() != null ? response.body() : new ArrayList<>());
+                    Log.d(TAG, "Applied " + unique.size() + " cart changes");
+                } else if (response.code() == 404) {
+                    Log.w(TAG, "apply_cart_changes RPC not available, falling back to bulk requests");
+                    applyCartChangesSeparately(userId, unique, callback);
+                } else {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to apply cart changes: " + error);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<List<CartItem>> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error applying cart changes", t);
+            }
+        });
+    }
+
+    private void applyCartChangesSeparately(String userId, List<SupabaseRestApi.CartChange> changes,
+                                            CartItemsCallback callback) {
+        List<String> removed = new ArrayList<>();
+        List<CartItem> updated = new ArrayList<>();
+        for (SupabaseRestApi.CartChange change : changes) {
+            if (change.quantity <= 0) {
+                removed.add(change.productId);
+            } else {
+                updated.add(new CartItem(userId, change.productId, change.quantity));
+            }
+        }
+        deleteCartItems(userId, removed, RequestPriority.INTERACTIVE, new SimpleCallback() {
+            @Override
+            public void onSuccess() {
+                upsertCartItems(updated, callback);
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    /**
+     * PostgREST in.(...) filter with quoted values
+     */
+    private static String inFilter(Collection<String> values) {
+        StringBuilder filter = new StringBuilder("in.(");
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                filter.append(',');
+            }
+            filter.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            first = false;
+        }
+        return filter.append(')').toString();
+    }
+
     // Callback interfaces
     public interface CartItemsCallback {
         void onSuccess(List<CartItem> cartItems);
@@ -0,0 +1,284 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.shopverse_customer_app.data.local.BrandEntity;
+import com.example.shopverse_customer_app.data.local.CatalogDao;
+import com.example.shopverse_customer_app.data.local.CatalogDatabase;
+import com.example.shopverse_customer_app.data.local.CategoryEntity;
+import com.example.shopverse_customer_app.data.local.ProductEntity;
+import com.example.shopverse_customer_app.data.model.Brand;
+import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline-first access to the catalog
+ *
+ * Screens read categories, brands and products from the local Room mirror
+ * (CatalogDatabase), where filtering, search and price sorting run against
+ * indexed columns. The mirror is kept up to date by syncNow() (see
+ * CatalogSyncEngine), which CatalogSyncWorker runs in the background;
+ * getLastSyncTime() changes after every sync that changed something so
+ * screens can re-read.
+ *
+ * Until the first sync has finished isSynced() is false and screens keep
+ * using the network directly.
+ */
+public final class CatalogRepository {
+
+    private static final String TAG = "CatalogRepository";
+    private static final String PREFS_NAME = "catalog_sync";
+    private static final String KEY_LAST_SYNC = "last_sync_at";
+
+    private static final String KEY_DB_VERSION = "db_version";
+    // Server purges tombstones after 30 days; older local catalogs are rebuilt from scratch
+    private static final long TOMBSTONE_RETENTION_MS = 29L * 24 * 60 * 60 * 1000;
+
+    private static CatalogRepository instance;
+
+    private final CatalogDao dao;
+    private final SharedPreferences prefs;
+    private final CatalogSyncEngine syncEngine;
+    private final MutableLiveData<Long> lastSyncTime;
+    // Single disk thread for reads, so results are delivered in request order
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CatalogDisk");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private CatalogRepository(Context context) {
+        CatalogDatabase database = CatalogDatabase.getInstance(context);
+        dao = database.catalogDao();
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        // A schema change wipes the database (destructive migration), so forget the sync state too
+        if (prefs.getInt(KEY_DB_VERSION, 0) != CatalogDatabase.VERSION) {
+            prefs.edit().clear().putInt(KEY_DB_VERSION, CatalogDatabase.VERSION).apply();
+        }
+        syncEngine = new CatalogSyncEngine(database, RetrofitClient.getInstance().getRestApi(), prefs);
+        lastSyncTime = new MutableLiveData<>(prefs.getLong(KEY_LAST_SYNC, 0L));
+    }
+
+    /**
+     * Initialize with application context (call once at startup, before getInstance())
+     */
+    public static synchronized void init(Context context) {
+        if (instance == null) {
+            instance = new CatalogRepository(context.getApplicationContext());
+        }
+    }
+
+    public static synchronized boolean isInitialized() {
+        return instance != null;
+    }
+
+    public static synchronized CatalogRepository getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("CatalogRepository.init() must be called first");
+        }
+        return instance;
+    }
+
+    /**
+     * Whether the local mirror holds a complete catalog snapshot
+     */
+    public boolean isSynced() {
+        return prefs.getLong(KEY_LAST_SYNC, 0L) > 0;
+    }
+
+    /**
+     * Wall-clock time of the last successful sync (0 if never), updated after each sync
+     */
+    public LiveData<Long> getLastSyncTime() {
+        return lastSyncTime;
+    }
+
+    // ========== LOCAL READS (callbacks on the main thread) ==========
+
+    public void getCategories(ListCallback<Category> callback) {
+        read(() -> {
+            List<Category> categories = new ArrayList<>();
+            for (CategoryEntity entity : dao.getCategories()) {
+                categories.add(entity.toModel());
+            }
+            return categories;
+        }, callback);
+    }
+
+    public void getBrandsForCategory(String categoryId, ListCallback<Brand> callback) {
+        read(() -> {
+            List<Brand> brands = new ArrayList<>();
+            for (BrandEntity entity : dao.getBrandsForCategory(categoryId)) {
+                brands.add(entity.toModel());
+            }
+            return brands;
+        }, callback);
+    }
+
+    /**
+     * Query active products with filters, search and sort applied by SQLite
+     */
+    public void queryProducts(LocalProductQuery query, ListCallback<Product> callback) {
+        read(() -> toProducts(dao.queryProducts(
+                query.categoryId,
+                query.brandIds.isEmpty(),
+                query.brandIds,
+                searchPattern(query.search),
+                query.minPrice,
+                query.maxPrice,
+                query.order)), callback);
+    }
+
+    /**
+     * One page of queryProducts(), so long lists only hold the pages near the viewport (ProductPager)
+     */
+    public void queryProductPage(LocalProductQuery query, int offset, int limit, ListCallback<Product> callback) {
+        read(() -> toProducts(dao.queryProductPage(
+                query.categoryId,
+                query.brandIds.isEmpty(),
+                query.brandIds,
+                searchPattern(query.search),
+                query.minPrice,
+                query.maxPrice,
+                query.order,
+                offset,
+                limit)), callback);
+    }
+
+    private static List<Product> toProducts(List<CatalogDao.ProductRow> rows) {
+        List<Product> products = new ArrayList<>(rows.size());
+        for (CatalogDao.ProductRow row : rows) {
+            products.add(row.product.toModel(row.brandName));
+        }
+        ProductLiveUpdates.getInstance().track(products);
+        return products;
+    }
+
+    private static String searchPattern(String query) {
+        String search = ProductEntity.normalizeSearch(query);
+        return search == null || search.isEmpty() ? null : escapeLike(search);
+    }
+
+    private <T> void read(Reader<T> reader, ListCallback<T> callback) {
+        diskExecutor.execute(() -> {
+            try {
+                List<T> items = reader.read();
+                mainHandler.post(() -> callback.onSuccess(items));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Local catalog read failed", e);
+                mainHandler.post(() -> callback.onError("Không đọc được dữ liệu đã lưu"));
+            }
+        });
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // ========== SYNC ==========
+
+    /**
+     * Bring the local catalog up to date with the server
+     * Downloads only what changed since the last sync; everything on the first
+     * sync or when the last one is older than the server keeps tombstones
+     * Blocking: runs the requests and the writes on the calling thread
+     *
+     * @return true if the catalog is now up to date
+     */
+    @WorkerThread
+    public boolean syncNow() {
+        long lastSync = prefs.getLong(KEY_LAST_SYNC, 0L);
+        boolean full = lastSync == 0 || System.currentTimeMillis() - lastSync > TOMBSTONE_RETENTION_MS;
+        if (full && lastSync != 0) {
+            // Screens fall back to the network until the rebuilt catalog is complete
+            prefs.edit().putLong(KEY_LAST_SYNC, 0L).apply();
+        }
+        try {
+            int changed = syncEngine.sync(full);
+            long now = System.currentTimeMillis();
+            prefs.edit().putLong(KEY_LAST_SYNC, now).apply();
+            // Screens only need to re-read when something changed
+            if (full || changed > 0) {
+                lastSyncTime.postValue(now);
+            }
+            Log.i(TAG, (full ? "Full" : "Delta") + " catalog sync: " + changed + " changed rows");
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Catalog sync failed: " + e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Catalog sync failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Patch one product of the mirror with a realtime change (screens are patched
+     * in memory by ProductLiveUpdates, so lastSyncTime is not bumped)
+     */
+    public void applyProductUpdate(ProductLiveUpdates.ProductUpdate update) {
+        if (update.updatedAt == null) {
+            return;
+        }
+        diskExecutor.execute(() -> {
+            try {
+                if (update.isActive()) {
+                    dao.updateStockAndPrice(update.productId, update.stock, update.unitPrice, update.updatedAt);
+                } else {
+                    dao.deleteProduct(update.productId, update.updatedAt);
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Local catalog patch failed", e);
+            }
+        });
+    }
+
+    /**
+     * Filters and sort order of a local product query
+     */
+    public static class LocalProductQuery {
+        public final String categoryId; // nullable: all categories
+        public final List<String> brandIds; // empty: all brands
+        public final String search; // nullable: no name filter
+        public final double minPrice; // inclusive
+        public final double maxPrice; // exclusive
+        public final String order; // nullable, ProductRepository.ORDER_PRICE_ASC / ORDER_PRICE_DESC
+
+        public LocalProductQuery(String categoryId, List<String> brandIds, String search,
+                                 double minPrice, double maxPrice, String order) {
+            this.categoryId = categoryId;
+            this.brandIds = brandIds != null ? brandIds : Collections.emptyList();
+            this.search = search;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.order = order;
+        }
+    }
+
+    private interface Reader<T> {
+        List<T> read();
+    }
+
+    // Callback interfaces
+    public interface ListCallback<T> {
+        void onSuccess(List<T> items);
+        void onError(String error);
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import com.example.shopverse_customer_app.data.local.BrandEntity;
+import com.example.shopverse_customer_app.data.local.CatalogDao;
+import com.example.shopverse_customer_app.data.local.CatalogDatabase;
+import com.example.shopverse_customer_app.data.local.CategoryBrandEntity;
+import com.example.shopverse_customer_app.data.local.CategoryEntity;
+import com.example.shopverse_customer_app.data.local.ProductEntity;
+import com.example.shopverse_customer_app.data.model.Brand;
+import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Incremental sync of the local catalog (supabase/migrations/*_catalog_delta_sync.sql)
+ *
+ * Keeps a high-water mark per table (the last updated_at seen, deleted_at for
+ * tombstones) and only downloads rows changed after it, in pages of BATCH_SIZE
+ * ordered by (cursor column, primary key). Each page is applied in one
+ * transaction and the cursor is saved after it, so an interrupted sync resumes
+ * where it stopped. The cost of a sync is proportional to what changed.
+ *
+ * Rows to drop arrive as tombstones: changed rows with deleted_at set or a
+ * status other than active, and catalog_tombstones entries (hard deletes and
+ * deactivations). A tombstone only removes a local row that was not changed
+ * again after the deletion.
+ */
+final class CatalogSyncEngine {
+
+    private static final String TAG = "CatalogSyncEngine";
+    private static final String KEY_CURSOR_PREFIX = "cursor_";
+    private static final String KEY_FULL_SYNC_RUNNING = "full_sync_running";
+
+    static final int BATCH_SIZE = 500;
+    // Re-read this much before the cursor: rows committed late with an older
+    // updated_at are not missed (re-applying a row is harmless)
+    private static final long CURSOR_OVERLAP_MS = 60_000;
+
+    private static final String SELECT_CATEGORIES = "category_id,category_name,updated_at,deleted_at";
+    private static final String SELECT_BRANDS = "brand_id,brand_name,brand_logo_url,updated_at,deleted_at";
+    private static final String SELECT_CATEGORY_BRANDS = "category_id,brand_id,updated_at";
+    private static final String SELECT_PRODUCTS = "product_id,product_name,unit_price,product_media,stock,"
+            + "status,brand_id,category_id,updated_at,deleted_at";
+    private static final String SELECT_TOMBSTONES = "id,table_name,row_id,deleted_at";
+
+    private final CatalogDatabase database;
+    private final CatalogDao dao;
+    private final SupabaseRestApi restApi;
+    private final SharedPreferences prefs;
+
+    CatalogSyncEngine(CatalogDatabase database, SupabaseRestApi restApi, SharedPreferences prefs) {
+        this.database = database;
+        this.dao = database.catalogDao();
+        this.restApi = restApi;
+        this.prefs = prefs;
+    }
+
+    /**
+     * Bring the local catalog up to date
+     *
+     * @param full Drop the local catalog and cursors and download everything
+     *             (an interrupted full download is resumed instead)
+     * @return Number of changed rows applied (upserts and deletions)
+     */
+    @WorkerThread
+    int sync(boolean full) throws IOException {
+        // An interrupted full download resumes from its cursors instead of starting over
+        if (full && !prefs.getBoolean(KEY_FULL_SYNC_RUNNING, false)) {
+            database.clearAllTables();
+            clearCursors();
+            // Deletions before now are already reflected in the full download
+            startTombstonesAtLatest();
+            prefs.edit().putBoolean(KEY_FULL_SYNC_RUNNING, true).apply();
+        }
+
+        int changed = 0;
+        changed += pull(new CategoriesTable(), full);
+        changed += pull(new BrandsTable(), full);
+        changed += pull(new CategoryBrandsTable(), full);
+        changed += pull(new ProductsTable(), full);
+        changed += pull(new TombstonesTable(), full);
+        if (full) {
+            prefs.edit().remove(KEY_FULL_SYNC_RUNNING).apply();
+        }
+        return changed;
+    }
+
+    /**
+     * Download and apply all rows of a table changed after its cursor
+     */
+    private <T> int pull(DeltaTable<T> table, boolean full) throws IOException {
+        String cursorKey = KEY_CURSOR_PREFIX + table.name;
+        String cursor = prefs.getString(cursorKey, null);
+        String cursorFilter = cursor != null ? "gt." + withOverlap(cursor) : null;
+        String seekFilter = null;
+        int count = 0;
+
+        while (true) {
+            Response<List<T>> response = table.fetch(cursorFilter, seekFilter, table.order(), full).execute();
+            List<T> rows = body(response);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            database.runInTransaction(() -> table.apply(rows));
+            count += rows.size();
+
+            T last = rows.get(rows.size() - 1);
+            String lastCursor = table.cursorOf(last);
+            // Pages are in ascending order, but the overlap can start below the saved cursor
+            if (lastCursor != null && (cursor == null || lastCursor.compareTo(cursor) > 0)) {
+                cursor = lastCursor;
+                prefs.edit().putString(cursorKey, cursor).apply();
+            }
+            if (rows.size() < BATCH_SIZE || lastCursor == null) {
+                break;
+            }
+            seekFilter = table.seekAfter(lastCursor, table.keyOf(last));
+        }
+
+        if (count > 0) {
+            Log.d(TAG, table.name + ": " + count + " changed rows");
+        }
+        return count;
+    }
+
+    /**
+     * Set the tombstone cursor to the newest tombstone, skipping the history
+     */
+    private void startTombstonesAtLatest() throws IOException {
+        List<SupabaseRestApi.TombstoneRow> latest = body(restApi.getCatalogTombstones(SELECT_TOMBSTONES,
+                null, null, "deleted_at.desc,id.desc", 1, RequestPriority.BACKGROUND).execute());
+        if (!latest.isEmpty() && latest.get(0).deletedAt != null) {
+            prefs.edit().putString(KEY_CURSOR_PREFIX + TombstonesTable.NAME, latest.get(0).deletedAt).apply();
+        }
+    }
+
+    private void clearCursors() {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (String key : prefs.getAll().keySet()) {
+            if (key.startsWith(KEY_CURSOR_PREFIX)) {
+                editor.remove(key);
+            }
+        }
+        editor.apply();
+    }
+
+    /**
+     * Cursor timestamp moved back by CURSOR_OVERLAP_MS (the cursor itself if it cannot be parsed)
+     */
+    static String withOverlap(String timestamp) {
+        // PostgREST returns e.g. 2026-10-16T10:00:00.123456+00:00; fractions only make the overlap larger
+        String withoutFraction = timestamp.replaceFirst("\\.\\d+", "");
+        SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.US);
+        try {
+            Date date = parser.parse(withoutFraction);
+            if (date == null) {
+                return timestamp;
+            }
+            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+            formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return formatter.format(new Date(date.getTime() - CURSOR_OVERLAP_MS));
+        } catch (ParseException e) {
+            return timestamp;
+        }
+    }
+
+    /**
+     * PostgREST "or" filter for rows after (cursor, keys) in ascending (cursorColumn, keyColumns...) order
+     * e.g. (updated_at.gt."t",and(updated_at.eq."t",product_id.gt."id"))
+     */
+    static String seekAfter(String cursorColumn, String[] keyColumns, String cursor, String[] keys) {
+        StringBuilder filter = new StringBuilder("(")
+                .append(cursorColumn).append(".gt.").append(quote(cursor));
+        for (int i = 0; i < keyColumns.length; i++) {
+            filter.append(",and(").append(cursorColumn).append(".eq.").append(quote(cursor));
+            for (int j = 0; j < i; j++) {
+                filter.append(',').append(keyColumns[j]).append(".eq.").append(quote(keys[j]));
+            }
+            filter.append(',').append(keyColumns[i]).append(".gt.").append(quote(keys[i])).append(')');
+        }
+        return filter.append(')').toString();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static <T> List<T> body(Response<List<T>> response) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException("HTTP " + response.code());
+        }
+        return response.body() != null ? response.body() : Collections.emptyList();
+    }
+
+    /**
+     * One synced table: how to fetch a page of changes and apply it locally
+     */
+    private abstract static class DeltaTable<T> {
+        final String name;
+        final String cursorColumn;
+        final String[] keyColumns;
+
+        DeltaTable(String name, String cursorColumn, String... keyColumns) {
+            this.name = name;
+            this.cursorColumn = cursorColumn;
+            this.keyColumns = keyColumns;
+        }
+
+        abstract Call<List<T>> fetch(String cursorFilter, String seekFilter, String order, boolean full);
+
+        abstract String cursorOf(T row);
+
+        abstract String[] keyOf(T row);
+
+        /**
+         * Apply one page (runs inside a transaction)
+         */
+        abstract void apply(List<T> rows);
+
+        String order() {
+            StringBuilder order = new StringBuilder(cursorColumn).append(".asc");
+            for (String key : keyColumns) {
+                order.append(',').append(key).append(".asc");
+            }
+            return order.toString();
+        }
+
+        String seekAfter(String cursor, String[] keys) {
+            return CatalogSyncEngine.seekAfter(cursorColumn, keyColumns, cursor, keys);
+        }
+    }
+
+    private final class CategoriesTable extends DeltaTable<Category> {
+        CategoriesTable() {
+            super("categories", "updated_at", "category_id");
+        }
+
+        @Override
+        Call<List<Category>> fetch(String cursorFilter, String seekFilter, String order, boolean full) {
+            return restApi.getCategoryChanges(SELECT_CATEGORIES, cursorFilter, seekFilter, order,
+                    BATCH_SIZE, RequestPriority.BACKGROUND);
+        }
+
+        @Override
+        String cursorOf(Category row) {
+            return row.getUpdatedAt();
+        }
+
+        @Override
+        String[] keyOf(Category row) {
+            return new String[]{row.getCategoryId()};
+        }
+
+        @Override
+        void apply(List<Category> rows) {
+            List<CategoryEntity> upserts = new ArrayList<>();
+            int next = dao.nextCategoryPosition();
+            for (Category category : rows) {
+                if (category.getDeletedAt() != null) {
+                    dao.deleteCategory(category.getCategoryId(), category.getUpdatedAt());
+                    continue;
+                }
+                CategoryEntity entity = CategoryEntity.from(category);
+                Integer position = dao.getCategoryPosition(entity.categoryId);
+                entity.position = position != null ? position : next++;
+                upserts.add(entity);
+            }
+            dao.insertCategories(upserts);
+        }
+    }
+
+    private final class BrandsTable extends DeltaTable<Brand> {
+        BrandsTable() {
+            super("brands", "updated_at", "brand_id");
+        }
+
+        @Override
+        Call<List<Brand>> fetch(String cursorFilter, String seekFilter, String order, boolean full) {
+            return restApi.getBrandChanges(SELECT_BRANDS, cursorFilter, seekFilter, order,
+                    BATCH_SIZE, RequestPriority.BACKGROUND);
+        }
+
+        @Override
+        String cursorOf(Brand row) {
+            return row.getUpdatedAt();
+        }
+
+        @Override
+        String[] keyOf(Brand row) {
+            return new String[]{row.getBrandId()};
+        }
+
+        @Override
+        void apply(List<Brand> rows) {
+            List<BrandEntity> upserts = new ArrayList<>();
+            for (Brand brand : rows) {
+                if (brand.getDeletedAt() != null) {
+                    dao.deleteBrand(brand.getBrandId(), brand.getUpdatedAt());
+                } else {
+                    upserts.add(BrandEntity.from(brand));
+                }
+            }
+            dao.insertBrands(upserts);
+        }
+    }
+
+    private final class CategoryBrandsTable extends DeltaTable<SupabaseRestApi.CategoryBrandRow> {
+        CategoryBrandsTable() {
+            super("categories_brands", "updated_at", "category_id", "brand_id");
+        }
+
+        @Override
+        Call<List<SupabaseRestApi.CategoryBrandRow>> fetch(String cursorFilter, String seekFilter,
+                                                            String order, boolean full) {
+            return restApi.getCategoryBrandChanges(SELECT_CATEGORY_BRANDS, cursorFilter, seekFilter, order,
+                    BATCH_SIZE, RequestPriority.BACKGROUND);
+        }
+
+        @Override
+        String cursorOf(SupabaseRestApi.CategoryBrandRow row) {
+            return row.updatedAt;
+        }
+
+        @Override
+        String[] keyOf(SupabaseRestApi.CategoryBrandRow row) {
+            return new String[]{row.categoryId, row.brandId};
+        }
+
+        @Override
+        void apply(List<SupabaseRestApi.CategoryBrandRow> rows) {
+            List<CategoryBrandEntity> upserts = new ArrayList<>();
+            int next = dao.nextCategoryBrandPosition();
+            for (SupabaseRestApi.CategoryBrandRow row : rows) {
+                if (row.categoryId == null || row.brandId == null) {
+                    continue;
+                }
+                CategoryBrandEntity entity = CategoryBrandEntity.of(row.categoryId, row.brandId, row.updatedAt);
+                Integer position = dao.getCategoryBrandPosition(row.categoryId, row.brandId);
+                entity.position = position != null ? position : next++;
+                upserts.add(entity);
+            }
+            dao.insertCategoryBrands(upserts);
+        }
+    }
+
+    private final class ProductsTable extends DeltaTable<Product> {
+        ProductsTable() {
+            super("products", "updated_at", "product_id");
+        }
+
+        @Override
+        Call<List<Product>> fetch(String cursorFilter, String seekFilter, String order, boolean full) {
+            // A full download only needs live rows; deltas also carry rows that left the catalog
+            return restApi.getProductChanges(SELECT_PRODUCTS, full ? ProductRepository.STATUS_ACTIVE : null,
+                    cursorFilter, seekFilter, order, BATCH_SIZE, RequestPriority.BACKGROUND);
+        }
+
+        @Override
+        String cursorOf(Product row) {
+            return row.getUpdatedAt();
+        }
+
+        @Override
+        String[] keyOf(Product row) {
+            return new String[]{row.getProductId()};
+        }
+
+        @Override
+        void apply(List<Product> rows) {
+            List<ProductEntity> upserts = new ArrayList<>();
+            int next = dao.nextProductPosition();
+            for (Product product : rows) {
+                if (product.getDeletedAt() != null || !product.isActive()) {
+                    dao.deleteProduct(product.getProductId(), product.getUpdatedAt());
+                    continue;
+                }
+                ProductEntity entity = ProductEntity.from(product);
+                Integer position = dao.getProductPosition(entity.productId);
+                entity.position = position != null ? position : next++;
+                upserts.add(entity);
+            }
+            dao.insertProducts(upserts);
+        }
+    }
+
+    private final class TombstonesTable extends DeltaTable<SupabaseRestApi.TombstoneRow> {
+        static final String NAME = "catalog_tombstones";
+
+        TombstonesTable() {
+            super(NAME, "deleted_at", "id");
+        }
+
+        @Override
+        Call<List<SupabaseRestApi.TombstoneRow>> fetch(String cursorFilter, String seekFilter,
+                                                        String order, boolean full) {
+            return restApi.getCatalogTombstones(SELECT_TOMBSTONES, cursorFilter, seekFilter, order,
+                    BATCH_SIZE, RequestPriority.BACKGROUND);
+        }
+
+        @Override
+        String cursorOf(SupabaseRestApi.TombstoneRow row) {
+            return row.deletedAt;
+        }
+
+        @Override
+        String[] keyOf(SupabaseRestApi.TombstoneRow row) {
+            return new String[]{String.valueOf(row.id)};
+        }
+
+        @Override
+        void apply(List<SupabaseRestApi.TombstoneRow> rows) {
+            for (SupabaseRestApi.TombstoneRow row : rows) {
+                if (row.tableName == null || row.rowId == null || row.deletedAt == null) {
+                    continue;
+                }
+                switch (row.tableName) {
+                    case "categories":
+                        dao.deleteCategory(row.rowId, row.deletedAt);
+                        break;
+                    case "brands":
+                        dao.deleteBrand(row.rowId, row.deletedAt);
+                        break;
+                    case "products":
+                        dao.deleteProduct(row.rowId, row.deletedAt);
+                        break;
+                    case "categories_brands":
+                        String[] key = row.rowId.split("/", 2);
+                        if (key.length == 2) {
+                            dao.deleteCategoryBrand(key[0], key[1], row.deletedAt);
+                        }
+                        break;
+                    default:
+                        Log.w(TAG, "Tombstone for unknown table: " + row.tableName);
+                }
+            }
+        }
+    }
+}
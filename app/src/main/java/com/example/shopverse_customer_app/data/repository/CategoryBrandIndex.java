@@ -0,0 +1,150 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import com.example.shopverse_customer_app.data.model.Brand;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.utils.ErrorParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * In-memory category_id -> brands index for the Dashboard sidebar
+ *
+ * The whole mapping is loaded with one embedded query, so switching category
+ * is a local lookup instead of a round trip per tap. The index is shared by
+ * all Dashboard instances and refreshed in the background once it is older
+ * than MAX_AGE_MS; the previous mapping keeps being served meanwhile.
+ *
+ * Main thread only (Retrofit delivers callbacks on the main thread).
+ */
+public final class CategoryBrandIndex {
+
+    private static final String TAG = "CategoryBrandIndex";
+    private static final String SELECT_CATEGORY_BRANDS = "category_id,categories_brands(brands(*))";
+    private static final long MAX_AGE_MS = 5 * 60 * 1000; // 5 minutes
+
+    private static CategoryBrandIndex instance;
+
+    private final SupabaseRestApi restApi;
+    private Map<String, List<Brand>> brandsByCategory = Collections.emptyMap();
+    private long loadedAtMs = -1;
+    private boolean refreshing = false;
+    private final List<IndexCallback> pendingCallbacks = new ArrayList<>();
+
+    private CategoryBrandIndex() {
+        restApi = RetrofitClient.getInstance().getRestApi();
+    }
+
+    @MainThread
+    public static CategoryBrandIndex getInstance() {
+        if (instance == null) {
+            instance = new CategoryBrandIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Brands of a category from the index
+     *
+     * @return Unmodifiable list, or null if the category is not indexed (yet)
+     */
+    @MainThread
+    public List<Brand> getBrands(String categoryId) {
+        return brandsByCategory.get(categoryId);
+    }
+
+    /**
+     * Reload the index in the background if it was never loaded or is older than MAX_AGE_MS
+     * Concurrent callers share one request
+     *
+     * @param callback Notified when the refresh finishes (not called if the index is fresh)
+     */
+    @MainThread
+    public void refreshIfStale(IndexCallback callback) {
+        if (loadedAtMs >= 0 && SystemClock.elapsedRealtime() - loadedAtMs < MAX_AGE_MS) {
+            return;
+        }
+        pendingCallbacks.add(callback);
+        if (refreshing) {
+            return;
+        }
+        refreshing = true;
+
+        restApi.getCategoryBrands(SELECT_CATEGORY_BRANDS, RequestPriority.PREFETCH)
+                .enqueue(new Callback<List<SupabaseRestApi.CategoryBrandsResponse>>() {
+                    @Override
+                    public void onResponse(@NonNull Call<List<SupabaseRestApi.CategoryBrandsResponse>> call,
+                                           @NonNull Response<List<SupabaseRestApi.CategoryBrandsResponse>> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            brandsByCategory = buildIndex(response.body());
+                            loadedAtMs = SystemClock.elapsedRealtime();
+                            Log.d(TAG, "Indexed brands of " + brandsByCategory.size() + " categories");
+                            finishRefresh(null);
+                        } else {
+                            String error = ErrorParser.parseError(response);
+                            Log.e(TAG, "Failed to load category brands: " + error);
+                            finishRefresh(error);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<List<SupabaseRestApi.CategoryBrandsResponse>> call,
+                                          @NonNull Throwable t) {
+                        Log.e(TAG, "Network error loading category brands", t);
+                        finishRefresh(ErrorParser.parseError(t));
+                    }
+                });
+    }
+
+    private void finishRefresh(String error) {
+        refreshing = false;
+        List<IndexCallback> callbacks = new ArrayList<>(pendingCallbacks);
+        pendingCallbacks.clear();
+        for (IndexCallback callback : callbacks) {
+            if (error == null) {
+                callback.onIndexUpdated();
+            } else {
+                callback.onError(error);
+            }
+        }
+    }
+
+    private static Map<String, List<Brand>> buildIndex(List<SupabaseRestApi.CategoryBrandsResponse> rows) {
+        Map<String, List<Brand>> index = new HashMap<>();
+        for (SupabaseRestApi.CategoryBrandsResponse row : rows) {
+            if (row == null || row.categoryId == null) {
+                continue;
+            }
+            List<Brand> brands = new ArrayList<>();
+            if (row.brands != null) {
+                for (SupabaseRestApi.BrandResponse brandResponse : row.brands) {
+                    if (brandResponse != null && brandResponse.brand != null) {
+                        brands.add(brandResponse.brand);
+                    }
+                }
+            }
+            index.put(row.categoryId, Collections.unmodifiableList(brands));
+        }
+        return index;
+    }
+
+    public interface IndexCallback {
+        void onIndexUpdated();
+        void onError(String error);
+    }
+}
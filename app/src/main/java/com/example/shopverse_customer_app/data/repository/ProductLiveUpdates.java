@@ -0,0 +1,270 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.shopverse_customer_app.data.local.CatalogSyncWorker;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.remote.RealtimeClient;
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live stock and price of products, pushed by Supabase Realtime
+ *
+ * Repositories track() every Product they hand out. When a products row
+ * changes, the tracked instances with that id are patched in place (stock,
+ * unit_price, status), the local catalog mirror is patched, and getUpdates()
+ * emits the change so screens can rebind the affected rows. Nothing is
+ * polled or reloaded.
+ *
+ * The socket is only open between start() and stop() (MainActivity's
+ * onStart/onStop). Changes missed while disconnected are picked up by a
+ * catalog delta sync scheduled on every re-subscribe.
+ */
+public final class ProductLiveUpdates {
+
+    private static final String TAG = "ProductLiveUpdates";
+    private static final String SCHEMA = "public";
+    private static final String TABLE = "products";
+    // Drop cleared references after this many track() calls
+    private static final int SWEEP_INTERVAL = 200;
+
+    private static ProductLiveUpdates instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final MutableLiveData<ProductUpdate> updates = new MutableLiveData<>();
+    // Guarded by itself - repositories track from background threads too
+    private final Map<String, List<WeakReference<Product>>> tracked = new HashMap<>();
+    private int tracksSinceSweep = 0;
+    private RealtimeClient client; // nullable until start()
+    private Context appContext; // nullable until start()
+    private boolean subscribedBefore = false;
+
+    private ProductLiveUpdates() {
+    }
+
+    public static synchronized ProductLiveUpdates getInstance() {
+        if (instance == null) {
+            instance = new ProductLiveUpdates();
+        }
+        return instance;
+    }
+
+    /**
+     * Last applied change (main thread); the Product instances are already patched
+     */
+    public LiveData<ProductUpdate> getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Open the realtime subscription (no-op if already open)
+     */
+    @MainThread
+    public void start(Context context) {
+        appContext = context.getApplicationContext();
+        if (client == null) {
+            client = new RealtimeClient(RealtimeClient.websocketUrl(), SCHEMA, TABLE, new RealtimeClient.Listener() {
+                @Override
+                public void onChange(String type, JsonObject record) {
+                    ProductUpdate update = ProductUpdate.from(type, record);
+                    if (update != null) {
+                        mainHandler.post(() -> apply(update));
+                    }
+                }
+
+                @Override
+                public void onSubscribed() {
+                    mainHandler.post(ProductLiveUpdates.this::onSubscribed);
+                }
+            });
+            // Refreshes happen while the socket is open; without this the channel
+            // keeps the old JWT and is dropped when it expires
+            RetrofitClient.getInstance().getTokenAuthenticator().setTokenListener(client::setAccessToken);
+        }
+        // RLS on products is evaluated for the signed-in user when there is one
+        client.setAccessToken(RetrofitClient.getInstance().getAuthInterceptor().getAccessToken());
+        client.start();
+    }
+
+    /**
+     * Close the realtime subscription
+     */
+    @MainThread
+    public void stop() {
+        if (client != null) {
+            client.stop();
+        }
+    }
+
+    // ========== TRACKING ==========
+
+    /**
+     * Keep products patched while they are referenced (weakly held)
+     */
+    public void track(Product product) {
+        if (product == null || product.getProductId() == null) {
+            return;
+        }
+        synchronized (tracked) {
+            List<WeakReference<Product>> refs = tracked.get(product.getProductId());
+            if (refs == null) {
+                refs = new ArrayList<>(1);
+                tracked.put(product.getProductId(), refs);
+            }
+            for (WeakReference<Product> ref : refs) {
+                if (ref.get() == product) {
+                    return;
+                }
+            }
+            refs.add(new WeakReference<>(product));
+            if (++tracksSinceSweep >= SWEEP_INTERVAL) {
+                sweep();
+            }
+        }
+    }
+
+    public void track(List<Product> products) {
+        if (products == null) {
+            return;
+        }
+        for (Product product : products) {
+            track(product);
+        }
+    }
+
+    private void sweep() {
+        tracksSinceSweep = 0;
+        Iterator<List<WeakReference<Product>>> iterator = tracked.values().iterator();
+        while (iterator.hasNext()) {
+            List<WeakReference<Product>> refs = iterator.next();
+            refs.removeIf(ref -> ref.get() == null);
+            if (refs.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    // ========== CHANGES ==========
+
+    @MainThread
+    private void apply(ProductUpdate update) {
+        int patched = 0;
+        synchronized (tracked) {
+            List<WeakReference<Product>> refs = tracked.get(update.productId);
+            if (refs != null) {
+                Iterator<WeakReference<Product>> iterator = refs.iterator();
+                while (iterator.hasNext()) {
+                    Product product = iterator.next().get();
+                    if (product == null) {
+                        iterator.remove();
+                    } else {
+                        update.applyTo(product);
+                        patched++;
+                    }
+                }
+            }
+        }
+        if (CatalogRepository.isInitialized()) {
+            CatalogRepository.getInstance().applyProductUpdate(update);
+        }
+        Log.d(TAG, "Product " + update.productId + " stock=" + update.stock + " price=" + update.unitPrice
+                + " (" + patched + " instances)");
+        updates.setValue(update);
+    }
+
+    @MainThread
+    private void onSubscribed() {
+        // Changes made while the socket was down never arrive; a delta sync catches up
+        if (subscribedBefore && appContext != null && CatalogRepository.isInitialized()
+                && CatalogRepository.getInstance().isSynced()) {
+            CatalogSyncWorker.schedule(appContext);
+        }
+        subscribedBefore = true;
+    }
+
+    /**
+     * New stock, price and status of one product
+     */
+    public static final class ProductUpdate {
+        public final String productId;
+        public final int stock;
+        public final double unitPrice;
+        public final String status; // nullable
+        public final String updatedAt; // nullable
+
+        ProductUpdate(String productId, int stock, double unitPrice, String status, String updatedAt) {
+            this.productId = productId;
+            this.stock = stock;
+            this.unitPrice = unitPrice;
+            this.status = status;
+            this.updatedAt = updatedAt;
+        }
+
+        /**
+         * Parse a realtime record (null for deletes and incomplete records)
+         */
+        static ProductUpdate from(String type, JsonObject record) {
+            if ("DELETE".equals(type)) {
+                // Deletions reach the catalog through tombstones in the next sync
+                return null;
+            }
+            String productId = string(record, "product_id");
+            JsonElement stock = record.get("stock");
+            JsonElement unitPrice = record.get("unit_price");
+            if (productId == null || stock == null || stock.isJsonNull()
+                    || unitPrice == null || unitPrice.isJsonNull()) {
+                return null;
+            }
+            try {
+                return new ProductUpdate(productId, stock.getAsInt(), unitPrice.getAsDouble(),
+                        string(record, "status"), string(record, "updated_at"));
+            } catch (NumberFormatException | UnsupportedOperationException e) {
+                Log.w(TAG, "Unexpected product record: " + record);
+                return null;
+            }
+        }
+
+        public boolean isActive() {
+            return status == null || "active".equalsIgnoreCase(status);
+        }
+
+        /**
+         * Patch a product in place, unless it already holds a newer version
+         */
+        public void applyTo(Product product) {
+            if (updatedAt != null && product.getUpdatedAt() != null
+                    && product.getUpdatedAt().compareTo(updatedAt) > 0) {
+                return;
+            }
+            product.setStock(stock);
+            product.setUnitPrice(unitPrice);
+            if (status != null) {
+                product.setStatus(status);
+            }
+            if (updatedAt != null) {
+                product.setUpdatedAt(updatedAt);
+            }
+        }
+
+        private static String string(JsonObject record, String key) {
+            JsonElement element = record.get(key);
+            return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+        }
+    }
+}
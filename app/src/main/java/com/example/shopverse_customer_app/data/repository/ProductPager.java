@@ -0,0 +1,400 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.util.Log;
+
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Paged product list with scroll-driven prefetch and bounded memory
+ *
+ * Pages are loaded from ProductRepository on demand and published batch by
+ * batch while they stream in, so the first screenful shows before the rest of
+ * the page has arrived. The next page is fetched before the user reaches the
+ * end of what is loaded, and pages far from the viewport are dropped.
+ * Dropped positions are published as null placeholders and reloaded when they
+ * scroll back into view.
+ *
+ * Each publish is a Window over the pages in memory, so its cost does not grow
+ * with the number of positions reached; it also carries the range of positions
+ * that changed since the previous one (ProductAdapter rebinds only those).
+ *
+ * With the KEYSET strategy only the end cursor of each page is kept for dropped
+ * pages, which is enough to reload them with a seek query.
+ *
+ * Pages come from the network (ProductRepository) or, once the catalog is
+ * mirrored, from the local catalog (CatalogRepository) with the same windowing.
+ *
+ * Not thread-safe: call from the main thread (Retrofit callbacks arrive there).
+ */
+public class ProductPager {
+
+    private static final String TAG = "ProductPager";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    // Start loading the next page when this many items remain below the viewport
+    private static final int PREFETCH_DISTANCE = 10;
+    // Pages kept in memory on each side of the visible pages
+    private static final int PAGES_KEPT_AROUND_VIEWPORT = 2;
+
+    private final ProductRepository repository; // nullable: local catalog source
+    private final ProductRepository.ProductQuery query; // nullable: local catalog source
+    private final CatalogRepository catalog; // nullable: network source
+    private final CatalogRepository.LocalProductQuery localQuery; // nullable: network source
+    private final ProductRepository.PagingStrategy strategy;
+    private final int pageSize;
+    private final Listener listener;
+
+    // Page number -> its products; the lists are never modified, so windows can share them
+    private final Map<Integer, List<Product>> pages = new HashMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+    // Sort key of the last product of each page ever loaded (seek origin for KEYSET)
+    private final Map<Integer, ProductRepository.ProductCursor> pageEndCursors = new HashMap<>();
+    private int loadedCount = 0; // Number of positions reached so far (loaded or dropped)
+    private int totalCount = -1; // From Content-Range, -1 if unknown
+    private boolean endReached = false;
+    private boolean released = false;
+    private int firstVisible = 0;
+    private int lastVisible = 0;
+    // Positions changed since the last publish, [changedFrom, changedTo)
+    private int changedFrom = Integer.MAX_VALUE;
+    private int changedTo = 0;
+    private int version = 0;
+
+    public ProductPager(ProductRepository repository, ProductRepository.ProductQuery query,
+                        ProductRepository.PagingStrategy strategy, int pageSize, Listener listener) {
+        this.repository = repository;
+        this.query = query;
+        // Fall back to offsets for orders that keyset paging cannot seek on
+        this.strategy = strategy == ProductRepository.PagingStrategy.KEYSET
+                && ProductRepository.supportsKeyset(query)
+                ? ProductRepository.PagingStrategy.KEYSET
+                : ProductRepository.PagingStrategy.OFFSET;
+        this.pageSize = pageSize;
+        this.listener = listener;
+        this.catalog = null;
+        this.localQuery = null;
+    }
+
+    /**
+     * Page through a query on the local catalog mirror (offset paging, no network)
+     */
+    public ProductPager(CatalogRepository catalog, CatalogRepository.LocalProductQuery query,
+                        int pageSize, Listener listener) {
+        this.repository = null;
+        this.query = null;
+        this.strategy = ProductRepository.PagingStrategy.OFFSET;
+        this.catalog = catalog;
+        this.localQuery = query;
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Load the first page
+     */
+    public void start() {
+        loadPage(0, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Use an already fetched first page (e.g. from the home_feed RPC) and page on from it
+     * The products must be the query's first page, in the same order.
+     */
+    public void start(List<Product> firstPage) {
+        pendingPages.add(0);
+        ProductRepository.ProductStreamCallback callback = pageCallback(0);
+        if (!firstPage.isEmpty()) {
+            callback.onBatch(firstPage);
+        }
+        callback.onComplete(-1);
+    }
+
+    /**
+     * Stop publishing results (e.g. filters changed and a new pager replaced this one)
+     */
+    public void release() {
+        released = true;
+        pages.clear();
+    }
+
+    /**
+     * Report the adapter positions currently on screen
+     * Reloads dropped pages in view, prefetches the next page and drops far pages
+     */
+    public void onVisibleRangeChanged(int first, int last) {
+        if (released || first < 0 || last < first) {
+            return;
+        }
+        firstVisible = first;
+        lastVisible = last;
+
+        // Reload dropped pages that came back into view
+        int lastLoadedPosition = Math.min(last, loadedCount - 1);
+        for (int page = first / pageSize; page <= lastLoadedPosition / pageSize; page++) {
+            loadPage(page, RequestPriority.INTERACTIVE);
+        }
+
+        // Prefetch before the user reaches the end (interactive once they are already there)
+        if (!endReached && last >= loadedCount - PREFETCH_DISTANCE) {
+            loadPage(loadedCount / pageSize, last >= loadedCount - 1
+                    ? RequestPriority.INTERACTIVE
+                    : RequestPriority.PREFETCH);
+        }
+
+        if (dropFarPages()) {
+            publish();
+        }
+    }
+
+    /**
+     * Retry the page that failed last (or the first page)
+     */
+    public void retry() {
+        onVisibleRangeChanged(firstVisible, Math.max(lastVisible, firstVisible));
+        if (loadedCount == 0) {
+            loadPage(0, RequestPriority.INTERACTIVE);
+        }
+    }
+
+    public ProductRepository.PagingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    private void loadPage(int page, RequestPriority priority) {
+        if (released || pages.containsKey(page) || pendingPages.contains(page)) {
+            return;
+        }
+        ProductRepository.ProductCursor after = null;
+        if (strategy == ProductRepository.PagingStrategy.KEYSET && page > 0) {
+            after = pageEndCursors.get(page - 1);
+            if (after == null) {
+                // Previous page was never loaded, nothing to seek from yet
+                return;
+            }
+        }
+        pendingPages.add(page);
+        listener.onLoadingChanged(true);
+        ProductRepository.ProductStreamCallback callback = pageCallback(page);
+
+        if (localQuery != null) {
+            catalog.queryProductPage(localQuery, page * pageSize, pageSize, new CatalogRepository.ListCallback<Product>() {
+                @Override
+                public void onSuccess(List<Product> items) {
+                    if (!items.isEmpty()) {
+                        callback.onBatch(items);
+                    }
+                    callback.onComplete(-1);
+                }
+
+                @Override
+                public void onError(String error) {
+                    callback.onError(error);
+                }
+            });
+        } else if (strategy == ProductRepository.PagingStrategy.OFFSET) {
+            repository.getProductPage(query, page * pageSize, pageSize, priority, callback);
+        } else if (after == null) {
+            repository.getFirstKeysetPage(query, pageSize, callback);
+        } else {
+            repository.getProductPageAfter(query, after, pageSize, priority, callback);
+        }
+    }
+
+    /**
+     * Receiver of one page (pending in pendingPages) that publishes it as it streams in
+     */
+    private ProductRepository.ProductStreamCallback pageCallback(int page) {
+        // Products of this page received so far - batches are published as they stream in
+        List<Product> received = new ArrayList<>();
+        return new ProductRepository.ProductStreamCallback() {
+            @Override
+            public void onBatch(List<Product> products) {
+                if (released) {
+                    return;
+                }
+                int start = page * pageSize + received.size();
+                received.addAll(products);
+                // New list per batch (at most a page), published windows keep the old one
+                pages.put(page, Collections.unmodifiableList(new ArrayList<>(received)));
+                int end = page * pageSize + received.size();
+                if (end > loadedCount) {
+                    loadedCount = end;
+                }
+                markChanged(start, end);
+                publish();
+            }
+
+            @Override
+            public void onComplete(int total) {
+                pendingPages.remove(page);
+                if (released) {
+                    return;
+                }
+                listener.onLoadingChanged(!pendingPages.isEmpty());
+
+                if (!pages.containsKey(page)) {
+                    // Dropped while streaming (or empty): back in memory with every product
+                    pages.put(page, Collections.unmodifiableList(new ArrayList<>(received)));
+                    markPageChanged(page);
+                }
+                if (!received.isEmpty()) {
+                    pageEndCursors.put(page, ProductRepository.ProductCursor.of(received.get(received.size() - 1)));
+                }
+                if (total >= 0) {
+                    totalCount = total;
+                }
+                if (received.size() < pageSize || (totalCount >= 0 && loadedCount >= totalCount)) {
+                    endReached = true;
+                }
+
+                dropFarPages();
+                publish();
+            }
+
+            @Override
+            public void onError(String error) {
+                pendingPages.remove(page);
+                if (released) {
+                    return;
+                }
+                // Drop a partially streamed page so it is reloaded in full
+                if (pages.remove(page) != null) {
+                    markPageChanged(page);
+                    publish();
+                }
+                listener.onLoadingChanged(!pendingPages.isEmpty());
+                listener.onError(error);
+            }
+        };
+    }
+
+    /**
+     * Drop pages outside the window around the viewport
+     *
+     * @return true if any page was dropped
+     */
+    private boolean dropFarPages() {
+        int firstKept = firstVisible / pageSize - PAGES_KEPT_AROUND_VIEWPORT;
+        int lastKept = lastVisible / pageSize + PAGES_KEPT_AROUND_VIEWPORT;
+        boolean dropped = false;
+        Iterator<Integer> iterator = pages.keySet().iterator();
+        while (iterator.hasNext()) {
+            int page = iterator.next();
+            if (page < firstKept || page > lastKept) {
+                iterator.remove();
+                markPageChanged(page);
+                dropped = true;
+            }
+        }
+        if (dropped) {
+            Log.d(TAG, "Pages in memory: " + pages.size() + " (viewport " + firstVisible + "-" + lastVisible + ")");
+        }
+        return dropped;
+    }
+
+    private void markPageChanged(int page) {
+        markChanged(page * pageSize, Math.min(loadedCount, (page + 1) * pageSize));
+    }
+
+    private void markChanged(int from, int to) {
+        if (from < to) {
+            changedFrom = Math.min(changedFrom, from);
+            changedTo = Math.max(changedTo, to);
+        }
+    }
+
+    /**
+     * Publish a window over every reached position, with null for dropped pages
+     */
+    private void publish() {
+        Window window = new Window(this, ++version, loadedCount, pageSize, new HashMap<>(pages),
+                Math.min(changedFrom, changedTo), changedTo);
+        changedFrom = Integer.MAX_VALUE;
+        changedTo = 0;
+        listener.onProductsChanged(window);
+    }
+
+    public interface Listener {
+        void onProductsChanged(List<Product> products);
+        void onLoadingChanged(boolean loading);
+        void onError(String error);
+    }
+
+    /**
+     * Unmodifiable list of the reached positions, read through the pages that were in memory
+     * Positions of dropped pages (and not yet streamed ones) are null.
+     */
+    public static final class Window extends AbstractList<Product> implements RandomAccess {
+        private final ProductPager pager;
+        private final int version;
+        private final int size;
+        private final int pageSize;
+        private final Map<Integer, List<Product>> pages;
+        private final int changedFrom;
+        private final int changedTo;
+
+        Window(ProductPager pager, int version, int size, int pageSize, Map<Integer, List<Product>> pages,
+               int changedFrom, int changedTo) {
+            this.pager = pager;
+            this.version = version;
+            this.size = size;
+            this.pageSize = pageSize;
+            this.pages = pages;
+            this.changedFrom = changedFrom;
+            this.changedTo = changedTo;
+        }
+
+        @Override
+        public Product get(int position) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Position " + position + ", size " + size);
+            }
+            List<Product> page = pages.get(position / pageSize);
+            int index = position % pageSize;
+            return page != null && index < page.size() ? page.get(index) : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Whether this is the next window of the same pager after previous
+         * If so, only positions in [getChangedFrom(), getChangedTo()) and those past previous.size() differ.
+         */
+        public boolean follows(List<Product> previous) {
+            return previous instanceof Window
+                    && ((Window) previous).pager == pager
+                    && ((Window) previous).version == version - 1;
+        }
+
+        public int getChangedFrom() {
+            return changedFrom;
+        }
+
+        public int getChangedTo() {
+            return changedTo;
+        }
+    }
+}
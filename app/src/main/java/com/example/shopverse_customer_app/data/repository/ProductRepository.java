@@ -0,0 +1,374 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.shopverse_customer_app.data.model.HomeFeed;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.remote.JsonArrayStreamer;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+import com.example.shopverse_customer_app.data.remote.RetrofitClient;
+import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.utils.ErrorParser;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Repository for product catalog queries
+ */
+public class ProductRepository {
+
+    private static final String TAG = "ProductRepository";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
+    // Slim projection for list cards: only what ProductAdapter shows (plus stock/status for add-to-cart)
+    public static final String SELECT_CARD =
+            "product_id,product_name,unit_price,product_media,stock,status,brand_id,category_id,brands(brand_name)";
+    // Full projection for the detail screen, fetched lazily by product_id
+    public static final String SELECT_DETAIL = "*,brands(*),categories(*)";
+    public static final String STATUS_ACTIVE = "eq.active";
+    public static final String ORDER_PRICE_ASC = "unit_price.asc";
+    public static final String ORDER_PRICE_DESC = "unit_price.desc";
+    // Category order of the home_feed RPC, so "first category" is the same on every path
+    public static final String ORDER_CATEGORIES = "category_name.asc,category_id.asc";
+    // Products per streamed batch - about one screenful of cards
+    private static final int STREAM_BATCH_SIZE = 8;
+
+    /**
+     * How successive pages are addressed
+     * OFFSET: limit/offset, supports any order, cost grows with depth
+     * KEYSET: seek after the last (unit_price, product_id) seen, price orders only,
+     *         constant cost per page and stable while rows change
+     */
+    public enum PagingStrategy {
+        OFFSET,
+        KEYSET
+    }
+
+    private final SupabaseRestApi restApi;
+
+    public ProductRepository() {
+        this.restApi = RetrofitClient.getInstance().getRestApi();
+    }
+
+    /**
+     * Stream one page of products using offset pagination
+     * Products are delivered in batches while the response is still downloading;
+     * the order gets a product_id tiebreaker (offsetOrder()) so pages do not overlap
+     *
+     * @param query Filters and sort order
+     * @param offset Index of the first product of the page
+     * @param limit Page size
+     * @param priority INTERACTIVE when the user is waiting, PREFETCH when loading ahead
+     * @param callback Callback with batches, then the total row count (-1 if unknown)
+     */
+    public void getProductPage(ProductQuery query, int offset, int limit, RequestPriority priority,
+                               ProductStreamCallback callback) {
+        getProductPage(query, offsetOrder(query.order), offset, limit, priority, callback);
+    }
+
+    /**
+     * Get the detail projection of a single product
+     * List screens only load the card projection, so the detail screen calls this on open
+     *
+     * @param productId Product ID (UUID string)
+     * @param callback Callback with the full product
+     */
+    public void getProductDetail(String productId, ProductCallback callback) {
+        restApi.getProductById(SELECT_DETAIL, "eq." + productId).enqueue(new Callback<List<Product>>() {
+            @Override
+            public void onResponse(@NonNull Call<List<Product>> call,
+                                   @NonNull Response<List<Product>> response) {
+                if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
+                    Product product = response.body().get(0);
+                    ProductLiveUpdates.getInstance().track(product);
+                    callback.onSuccess(product);
+                    Log.d(TAG, "Loaded product detail: " + productId);
+                } else if (response.isSuccessful()) {
+                    callback.onError("Không tìm thấy sản phẩm");
+                    Log.e(TAG, "Product not found: " + productId);
+                } else {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to load product detail: " + error);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<List<Product>> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error loading product detail", t);
+            }
+        });
+    }
+
+    /**
+     * Get categories, the first category's brands and the first products in one request
+     * Reports onUnavailable() when the home_feed RPC is not deployed (PostgREST 404),
+     * so callers can fall back to the separate catalog requests
+     *
+     * @param productLimit Number of products (null for all active products, 0 for none)
+     * @param order ORDER_PRICE_ASC, ORDER_PRICE_DESC or null
+     * @param callback Callback with the feed
+     */
+    public void getHomeFeed(Integer productLimit, String order, HomeFeedCallback callback) {
+        restApi.getHomeFeed(productLimit, order).enqueue(new Callback<HomeFeed>() {
+            @Override
+            public void onResponse(@NonNull Call<HomeFeed> call, @NonNull Response<HomeFeed> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    HomeFeed feed = response.body();
+                    ProductLiveUpdates.getInstance().track(feed.getProducts());
+                    callback.onSuccess(feed);
+                    Log.d(TAG, "Home feed loaded: " + feed.getCategories().size() + " categories, "
+                            + feed.getBrands().size() + " brands, " + feed.getProducts().size() + " products");
+                } else if (response.code() == 404) {
+                    callback.onUnavailable();
+                    Log.w(TAG, "home_feed RPC not available, falling back to separate requests");
+                } else {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to load home feed: " + error);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<HomeFeed> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error loading home feed", t);
+            }
+        });
+    }
+
+    /**
+     * Get the first page of a keyset-paged listing
+     * Uses the same tiebroken order as getProductPageAfter() so pages line up
+     */
+    public void getFirstKeysetPage(ProductQuery query, int limit, ProductStreamCallback callback) {
+        getProductPage(query, keysetOrder(query), 0, limit, RequestPriority.INTERACTIVE, callback);
+    }
+
+    private void getProductPage(ProductQuery query, String order, int offset, int limit,
+                                RequestPriority priority, ProductStreamCallback callback) {
+        Log.d(TAG, "Fetching products page - offset: " + offset + ", limit: " + limit);
+
+        streamProducts(restApi.getProductsPage(query.select, query.categoryFilter, query.brandFilter,
+                query.statusFilter, query.nameFilter, query.priceFilters, order, limit, offset, priority), callback);
+    }
+
+    /**
+     * Get the page of products that follows a cursor using keyset pagination
+     * Only valid for queries where supportsKeyset() is true
+     *
+     * @param query Filters and price sort order
+     * @param after Sort key of the last product of the previous page
+     * @param limit Page size
+     * @param priority INTERACTIVE when the user is waiting, PREFETCH when loading ahead
+     * @param callback Callback with batches (total count is not computed: -1)
+     */
+    public void getProductPageAfter(ProductQuery query, ProductCursor after, int limit,
+                                    RequestPriority priority, ProductStreamCallback callback) {
+        String seekFilter = seekAfter(query.order, after);
+
+        Log.d(TAG, "Fetching products after " + after + ", limit: " + limit);
+
+        streamProducts(restApi.getProductsAfter(query.select, query.categoryFilter, query.brandFilter,
+                query.statusFilter, query.nameFilter, query.priceFilters, seekFilter, keysetOrder(query), limit,
+                priority), callback);
+    }
+
+    /**
+     * Enqueue a @Streaming products call and parse its body incrementally
+     * The total comes from Content-Range when the request asked for a count
+     */
+    private void streamProducts(Call<ResponseBody> call, ProductStreamCallback callback) {
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    String error = ErrorParser.parseError(response);
+                    callback.onError(error);
+                    Log.e(TAG, "Failed to load products page: " + error);
+                    return;
+                }
+
+                int total = parseTotalCount(response.headers().get(HEADER_CONTENT_RANGE));
+                JsonArrayStreamer.stream(response.body(), Product.class, STREAM_BATCH_SIZE,
+                        new JsonArrayStreamer.ElementConsumer<Product>() {
+                            @Override
+                            public void onBatch(List<Product> batch) {
+                                ProductLiveUpdates.getInstance().track(batch);
+                                callback.onBatch(batch);
+                            }
+
+                            @Override
+                            public void onComplete(int count) {
+                                callback.onComplete(total);
+                                Log.d(TAG, "Streamed " + count + " products (total: " + total + ")");
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                callback.onError(error);
+                                Log.e(TAG, "Failed to parse products page: " + error);
+                            }
+                        });
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                String error = ErrorParser.parseError(t);
+                callback.onError(error);
+                Log.e(TAG, "Network error loading products page", t);
+            }
+        });
+    }
+
+    /**
+     * Keyset paging needs a total order on the sort key - only price sorts qualify
+     */
+    public static boolean supportsKeyset(ProductQuery query) {
+        return ORDER_PRICE_ASC.equals(query.order) || ORDER_PRICE_DESC.equals(query.order);
+    }
+
+    /**
+     * Price order with product_id as tiebreaker so equal prices have a stable position
+     */
+    private static String keysetOrder(ProductQuery query) {
+        return ORDER_PRICE_DESC.equals(query.order)
+                ? "unit_price.desc,product_id.desc"
+                : "unit_price.asc,product_id.asc";
+    }
+
+    /**
+     * PostgREST "or" filter for the products after a cursor in keysetOrder() order
+     * e.g. (unit_price.gt.10.5,and(unit_price.eq.10.5,product_id.gt.p-1)); lt for price descending
+     *
+     * @param order Requested price order
+     * @param after Sort key of the last product of the previous page
+     */
+    static String seekAfter(String order, ProductCursor after) {
+        String comparison = ORDER_PRICE_DESC.equals(order) ? "lt" : "gt";
+        String price = BigDecimal.valueOf(after.unitPrice).toPlainString();
+        return "(unit_price." + comparison + "." + price
+                + ",and(unit_price.eq." + price + ",product_id." + comparison + "." + after.productId + "))";
+    }
+
+    /**
+     * Sort order with product_id.asc appended unless it already orders by product_id
+     * Without a total order PostgREST may return tied rows in any order, so
+     * consecutive offset pages (or a page loaded again) can repeat or skip products
+     *
+     * @param order Requested order, nullable for the default sort
+     */
+    static String offsetOrder(String order) {
+        if (order == null || order.trim().isEmpty()) {
+            return "product_id.asc";
+        }
+        for (String term : order.split(",")) {
+            if (term.trim().startsWith("product_id.")) {
+                return order;
+            }
+        }
+        return order + ",product_id.asc";
+    }
+
+    /**
+     * Parse the total row count from a PostgREST Content-Range header
+     * Format: "0-19/1234", or "0-19/*" when the count was not requested
+     *
+     * @return Total count, or -1 if unknown
+     */
+    public static int parseTotalCount(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || slash == contentRange.length() - 1) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Filters and sort order of a product listing (PostgREST filter syntax)
+     */
+    public static class ProductQuery {
+        public final String select;
+        public final String categoryFilter; // nullable, e.g. "eq.{id}"
+        public final String brandFilter; // nullable, e.g. "eq.{id}" or "in.(id1,id2)"
+        public final String statusFilter; // nullable, e.g. "eq.active"
+        public final String nameFilter; // nullable, e.g. "ilike.*phone*"
+        public final List<String> priceFilters; // nullable, e.g. ["gte.5000000", "lt.10000000"]
+        public final String order; // nullable, e.g. "unit_price.asc"
+
+        public ProductQuery(String select, String categoryFilter, String brandFilter,
+                            String statusFilter, String nameFilter, String order) {
+            this(select, categoryFilter, brandFilter, statusFilter, nameFilter, null, order);
+        }
+
+        public ProductQuery(String select, String categoryFilter, String brandFilter,
+                            String statusFilter, String nameFilter, List<String> priceFilters, String order) {
+            this.select = select;
+            this.categoryFilter = categoryFilter;
+            this.brandFilter = brandFilter;
+            this.statusFilter = statusFilter;
+            this.nameFilter = nameFilter;
+            this.priceFilters = priceFilters;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Position in a price-sorted listing: the (unit_price, product_id) of a product
+     */
+    public static class ProductCursor {
+        public final double unitPrice;
+        public final String productId;
+
+        public ProductCursor(double unitPrice, String productId) {
+            this.unitPrice = unitPrice;
+            this.productId = productId;
+        }
+
+        public static ProductCursor of(Product product) {
+            return new ProductCursor(product.getUnitPrice(), product.getProductId());
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "(" + unitPrice + ", " + productId + ")";
+        }
+    }
+
+    // Callback interfaces
+    public interface ProductCallback {
+        void onSuccess(Product product);
+        void onError(String error);
+    }
+
+    public interface HomeFeedCallback {
+        void onSuccess(HomeFeed feed);
+        void onUnavailable();
+        void onError(String error);
+    }
+
+    public interface ProductStreamCallback {
+        void onBatch(List<Product> products);
+        void onComplete(int totalCount);
+        void onError(String error);
+    }
+}
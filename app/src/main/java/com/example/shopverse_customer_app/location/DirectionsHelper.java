@@ -4,10 +4,12 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+import com.example.shopverse_customer_app.data.remote.RequestScheduler;
+import com.example.shopverse_customer_app.data.remote.SharedHttpClient;
+import com.example.shopverse_customer_app.utils.GsonProvider;
 import com.google.android.gms.maps.model.LatLng;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.annotations.SerializedName;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -18,6 +20,7 @@ import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * Helper class for getting directions using Google Directions API.
@@ -36,7 +39,8 @@ public class DirectionsHelper {
     }
 
     public DirectionsHelper(String apiKey) {
-        this.client = new OkHttpClient();
+        // Shares connections and dispatcher threads with the rest of the app
+        this.client = SharedHttpClient.get();
         this.mainHandler = new Handler(Looper.getMainLooper());
         this.apiKey = apiKey;
     }
@@ -53,9 +57,11 @@ public class DirectionsHelper {
 
         Request request = new Request.Builder()
                 .url(url)
+                .tag(RequestPriority.class, RequestPriority.INTERACTIVE)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        // Through the scheduler, so the shared dispatcher's slots are accounted for
+        RequestScheduler.getInstance().enqueue(client.newCall(request), new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "Directions API call failed", e);
@@ -71,9 +77,11 @@ public class DirectionsHelper {
                     return;
                 }
 
-                try {
-                    String jsonData = response.body().string();
-                    parseDirectionsResponse(jsonData, callback);
+                try (ResponseBody body = response.body()) {
+                    // Bind straight from the stream into typed objects (no string copy or JSON tree)
+                    DirectionsResponse directions = GsonProvider.get()
+                            .fromJson(body.charStream(), DirectionsResponse.class);
+                    handleDirectionsResponse(directions, callback);
                 } catch (Exception e) {
                     Log.e(TAG, "Error parsing directions response", e);
                     mainHandler.post(() ->
@@ -95,50 +103,42 @@ public class DirectionsHelper {
     }
 
     /**
-     * Parses the JSON response from Directions API.
+     * Extracts the first route from the Directions API response.
      */
-    private void parseDirectionsResponse(String jsonData, DirectionsCallback callback) {
-        try {
-            JsonObject jsonObject = JsonParser.parseString(jsonData).getAsJsonObject();
-            String status = jsonObject.get("status").getAsString();
-
-            if (!status.equals("OK")) {
-                mainHandler.post(() ->
-                        callback.onFailure("No route found between locations."));
-                return;
-            }
-
-            JsonArray routes = jsonObject.getAsJsonArray("routes");
-            if (routes.size() == 0) {
-                mainHandler.post(() ->
-                        callback.onFailure("No route available."));
-                return;
-            }
-
-            JsonObject route = routes.get(0).getAsJsonObject();
-            JsonObject overviewPolyline = route.getAsJsonObject("overview_polyline");
-            String encodedPolyline = overviewPolyline.get("points").getAsString();
-
-            // Get distance and duration from first leg
-            JsonArray legs = route.getAsJsonArray("legs");
-            JsonObject leg = legs.get(0).getAsJsonObject();
-            String distance = leg.getAsJsonObject("distance").get("text").getAsString();
-            String duration = leg.getAsJsonObject("duration").get("text").getAsString();
-
-            // Decode polyline
-            List<LatLng> routePoints = decodePolyline(encodedPolyline);
-
-            Log.d(TAG, "Route found: " + distance + ", " + duration +
-                    ", " + routePoints.size() + " points");
+    private void handleDirectionsResponse(DirectionsResponse directions, DirectionsCallback callback) {
+        if (directions == null || !"OK".equals(directions.status)) {
+            mainHandler.post(() ->
+                    callback.onFailure("No route found between locations."));
+            return;
+        }
 
+        if (directions.routes == null || directions.routes.isEmpty()) {
             mainHandler.post(() ->
-                    callback.onSuccess(routePoints, distance, duration));
+                    callback.onFailure("No route available."));
+            return;
+        }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing directions", e);
+        Route route = directions.routes.get(0);
+        if (route.overviewPolyline == null || route.overviewPolyline.points == null
+                || route.legs == null || route.legs.isEmpty()) {
             mainHandler.post(() ->
                     callback.onFailure("Error parsing route data."));
+            return;
         }
+
+        // Get distance and duration from first leg
+        Leg leg = route.legs.get(0);
+        String distance = leg.distance != null ? leg.distance.text : "";
+        String duration = leg.duration != null ? leg.duration.text : "";
+
+        // Decode polyline
+        List<LatLng> routePoints = decodePolyline(route.overviewPolyline.points);
+
+        Log.d(TAG, "Route found: " + distance + ", " + duration +
+                ", " + routePoints.size() + " points");
+
+        mainHandler.post(() ->
+                callback.onSuccess(routePoints, distance, duration));
     }
 
     /**
@@ -176,4 +176,30 @@ public class DirectionsHelper {
 
         return poly;
     }
+
+    // Subset of the Directions API response that is actually read
+
+    static class DirectionsResponse {
+        String status;
+        List<Route> routes;
+    }
+
+    static class Route {
+        @SerializedName("overview_polyline")
+        Polyline overviewPolyline;
+        List<Leg> legs;
+    }
+
+    static class Polyline {
+        String points;
+    }
+
+    static class Leg {
+        TextValue distance;
+        TextValue duration;
+    }
+
+    static class TextValue {
+        String text;
+    }
 }
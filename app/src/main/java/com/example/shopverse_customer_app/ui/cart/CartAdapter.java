@@ -9,6 +9,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -40,9 +41,37 @@ public class CartAdapter extends RecyclerView.Adapter<CartAdapter.CartViewHolder
         this.listener = listener;
     }
 
+    /**
+     * Show a cart snapshot, rebinding only the rows that differ from the previous one
+     * Rows are copy-on-write (CartState), so an unchanged row is the same instance
+     */
     public void setCartItems(List<CartItem> cartItems) {
-        this.cartItems = cartItems != null ? cartItems : new ArrayList<>();
-        notifyDataSetChanged();
+        List<CartItem> oldItems = this.cartItems;
+        List<CartItem> newItems = cartItems != null ? cartItems : new ArrayList<>();
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldItems.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newItems.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldItems.get(oldItemPosition).getProductId()
+                        .equals(newItems.get(newItemPosition).getProductId());
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldItems.get(oldItemPosition) == newItems.get(newItemPosition);
+            }
+        }, false);
+        this.cartItems = newItems;
+        diff.dispatchUpdatesTo(this);
     }
 
     @NonNull
@@ -0,0 +1,206 @@
+package com.example.shopverse_customer_app.ui.cart;
+
+import androidx.annotation.Nullable;
+
+import com.example.shopverse_customer_app.data.model.CartItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cart screen state: rows indexed by product, with running totals
+ *
+ * A mutation touches one row and adjusts the selected subtotal, selected
+ * count and all-selected flag by that row's delta, so nothing rescans the
+ * cart. Rows are copy-on-write: a changed row is replaced by a new CartItem
+ * and untouched rows keep their instance, so two snapshots can be diffed by
+ * reference (CartAdapter). Snapshots are unmodifiable.
+ *
+ * Not thread-safe; CartViewModel uses it on the main thread only.
+ */
+final class CartState {
+
+    // Insertion-ordered, so snapshots keep the order the server returned
+    private final Map<String, CartItem> rows = new LinkedHashMap<>();
+    // What each selected row adds to the subtotal; the product price can change under it
+    private final Map<String, Double> selectedSubtotals = new HashMap<>();
+    private double selectedSubtotal = 0.0;
+    private List<CartItem> snapshot = Collections.emptyList(); // nullable: rebuilt on demand
+
+    /**
+     * Replace every row (cart loaded), keeping the selection of products still in the cart
+     */
+    void replaceAll(List<CartItem> items) {
+        Map<String, Double> wasSelected = new HashMap<>(selectedSubtotals);
+        rows.clear();
+        selectedSubtotals.clear();
+        selectedSubtotal = 0.0;
+        for (CartItem item : items) {
+            CartItem row = copyOf(item);
+            row.setSelected(wasSelected.containsKey(row.getProductId()));
+            rows.put(row.getProductId(), row);
+            account(row.getProductId(), row);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Current row of a product
+     */
+    @Nullable
+    CartItem get(String productId) {
+        return rows.get(productId);
+    }
+
+    /**
+     * @return false if the product is not in the cart or already has that quantity
+     */
+    boolean setQuantity(String productId, int quantity) {
+        CartItem row = rows.get(productId);
+        if (row == null || row.getQuantity() == quantity) {
+            return false;
+        }
+        row = copyOf(row);
+        row.setQuantity(quantity);
+        replace(row);
+        return true;
+    }
+
+    /**
+     * @return false if the product is not in the cart
+     */
+    boolean remove(String productId) {
+        if (rows.remove(productId) == null) {
+            return false;
+        }
+        account(productId, null);
+        snapshot = null;
+        return true;
+    }
+
+    /**
+     * @return false if the product is not in the cart
+     */
+    boolean toggleSelected(String productId) {
+        CartItem row = rows.get(productId);
+        if (row == null) {
+            return false;
+        }
+        row = copyOf(row);
+        row.setSelected(!row.isSelected());
+        replace(row);
+        return true;
+    }
+
+    /**
+     * Select or deselect every row; only rows whose selection changes are copied
+     */
+    void selectAll(boolean selected) {
+        for (Map.Entry<String, CartItem> entry : rows.entrySet()) {
+            CartItem row = entry.getValue();
+            if (row.isSelected() != selected) {
+                row = copyOf(row);
+                row.setSelected(selected);
+                entry.setValue(row);
+                account(row.getProductId(), row);
+            }
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Re-read the price of a product patched in place (ProductLiveUpdates)
+     *
+     * @return false if the product is not in the cart
+     */
+    boolean refreshProduct(String productId) {
+        CartItem row = rows.get(productId);
+        if (row == null) {
+            return false;
+        }
+        // New instance so the row is rebound, even though the Product itself is shared
+        replace(copyOf(row));
+        return true;
+    }
+
+    // ========== TOTALS ==========
+
+    double getSelectedSubtotal() {
+        return selectedSubtotal;
+    }
+
+    int getSelectedCount() {
+        return selectedSubtotals.size();
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    boolean isAllSelected() {
+        return !rows.isEmpty() && selectedSubtotals.size() == rows.size();
+    }
+
+    /**
+     * Unmodifiable list of the rows, shared until the next mutation
+     */
+    List<CartItem> snapshot() {
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(new ArrayList<>(rows.values()));
+        }
+        return snapshot;
+    }
+
+    List<CartItem> getSelectedItems() {
+        List<CartItem> selected = new ArrayList<>(selectedSubtotals.size());
+        if (selectedSubtotals.isEmpty()) {
+            return selected;
+        }
+        for (CartItem row : rows.values()) {
+            if (row.isSelected()) {
+                selected.add(row);
+            }
+        }
+        return selected;
+    }
+
+    private void replace(CartItem row) {
+        rows.put(row.getProductId(), row);
+        account(row.getProductId(), row);
+        snapshot = null;
+    }
+
+    /**
+     * Move the subtotal from the row's previous contribution to its current one
+     *
+     * @param row Current row, null once removed
+     */
+    private void account(String productId, @Nullable CartItem row) {
+        Double previous;
+        if (row != null && row.isSelected()) {
+            double subtotal = row.getSubtotal();
+            previous = selectedSubtotals.put(productId, subtotal);
+            selectedSubtotal += subtotal;
+        } else {
+            previous = selectedSubtotals.remove(productId);
+        }
+        if (previous != null) {
+            selectedSubtotal -= previous;
+        }
+        if (selectedSubtotals.isEmpty()) {
+            // Nothing selected: drop any rounding drift of the running sum
+            selectedSubtotal = 0.0;
+        }
+    }
+
+    private static CartItem copyOf(CartItem item) {
+        CartItem copy = new CartItem(item.getUserId(), item.getProductId(), item.getQuantity());
+        copy.setProduct(item.getProduct());
+        copy.setSelected(item.isSelected());
+        return copy;
+    }
+}
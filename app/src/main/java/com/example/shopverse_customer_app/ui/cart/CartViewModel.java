@@ -4,12 +4,15 @@ import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
 import com.example.shopverse_customer_app.data.model.CartItem;
+import com.example.shopverse_customer_app.data.repository.CartOperationQueue;
 import com.example.shopverse_customer_app.data.repository.CartRepository;
+import com.example.shopverse_customer_app.data.repository.ProductLiveUpdates;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CartViewModel extends ViewModel {
@@ -17,19 +20,34 @@ public class CartViewModel extends ViewModel {
     private static final String TAG = "CartViewModel";
 
     private final CartRepository cartRepository;
+    // Rows and running totals; cartItems/totalAmount/allSelected are published from it
+    private final CartState state = new CartState();
 
-    private final MutableLiveData<List<CartItem>> cartItems = new MutableLiveData<>(new ArrayList<>());
+    private final MutableLiveData<List<CartItem>> cartItems = new MutableLiveData<>(Collections.emptyList());
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>();
     private final MutableLiveData<String> success = new MutableLiveData<>();
     private final MutableLiveData<Double> totalAmount = new MutableLiveData<>(0.0);
     private final MutableLiveData<Boolean> allSelected = new MutableLiveData<>(false);
+    // Cart products are patched in place by ProductLiveUpdates; refresh rows and total
+    private final Observer<ProductLiveUpdates.ProductUpdate> productUpdateObserver = this::onProductUpdated;
+    private final Observer<CartOperationQueue.Rejection> rejectionObserver = this::onChangeRejected;
+    // Refusal already reported before this screen existed (LiveData replays it)
+    private final CartOperationQueue.Rejection rejectionAtStart;
+    private String currentUserId; // nullable until loadCartItems()
 
     public CartViewModel() {
         cartRepository = new CartRepository();
+        ProductLiveUpdates.getInstance().getUpdates().observeForever(productUpdateObserver);
+        rejectionAtStart = cartRepository.getRejectedChanges().getValue();
+        cartRepository.getRejectedChanges().observeForever(rejectionObserver);
     }
 
     // LiveData getters
+
+    /**
+     * Unmodifiable snapshot; a changed row is a new instance, unchanged rows keep theirs
+     */
     public LiveData<List<CartItem>> getCartItems() {
         return cartItems;
     }
@@ -60,6 +78,7 @@ public class CartViewModel extends ViewModel {
      * @param userId User ID (UUID string)
      */
     public void loadCartItems(String userId) {
+        currentUserId = userId;
         loading.setValue(true);
         error.setValue(null);
 
@@ -67,8 +86,8 @@ public class CartViewModel extends ViewModel {
             @Override
             public void onSuccess(List<CartItem> items) {
                 loading.postValue(false);
-                cartItems.postValue(items);
-                calculateTotal();
+                state.replaceAll(items);
+                publish();
                 Log.d(TAG, "Loaded " + items.size() + " cart items");
             }
 
@@ -85,6 +104,7 @@ public class CartViewModel extends ViewModel {
      * Increase quantity of cart item
      */
     public void increaseQuantity(CartItem cartItem) {
+        cartItem = current(cartItem);
         // Check stock availability
         if (cartItem.getProduct() != null && cartItem.getQuantity() >= cartItem.getProduct().getStock()) {
             error.setValue("Không đủ hàng trong kho");
@@ -99,6 +119,7 @@ public class CartViewModel extends ViewModel {
      * Decrease quantity of cart item
      */
     public void decreaseQuantity(CartItem cartItem) {
+        cartItem = current(cartItem);
         int newQuantity = cartItem.getQuantity() - 1;
         if (newQuantity < 1) {
             error.setValue("Số lượng tối thiểu là 1");
@@ -109,96 +130,49 @@ public class CartViewModel extends ViewModel {
 
     /**
      * Update cart item quantity
+     * Applied to the list at once; the server write is queued (CartOperationQueue)
      */
     private void updateQuantity(CartItem cartItem, int newQuantity) {
-        loading.setValue(true);
         error.setValue(null); // Clear previous errors
 
-        cartRepository.updateCartItemQuantity(
-                cartItem.getUserId(),
-                cartItem.getProductId(),
-                newQuantity,
-                new CartRepository.CartItemCallback() {
-            @Override
-            public void onSuccess(CartItem updatedItem) {
-                loading.postValue(false);
-                // Update local list
-                List<CartItem> currentItems = cartItems.getValue();
-                if (currentItems != null) {
-                    for (int i = 0; i < currentItems.size(); i++) {
-                        CartItem item = currentItems.get(i);
-                        if (item.getUserId().equals(cartItem.getUserId()) &&
-                            item.getProductId().equals(cartItem.getProductId())) {
-                            currentItems.get(i).setQuantity(newQuantity);
-                            break;
-                        }
-                    }
-                    cartItems.postValue(currentItems);
-                    calculateTotal();
-                }
-                Log.d(TAG, "Updated quantity to " + newQuantity);
-            }
-
-            @Override
-            public void onError(String errorMsg) {
-                loading.postValue(false);
-                error.postValue(errorMsg);
-                Log.e(TAG, "Error updating quantity: " + errorMsg);
-            }
-        });
+        if (state.setQuantity(cartItem.getProductId(), newQuantity)) {
+            publish();
+        }
+        cartRepository.queueQuantityUpdate(cartItem.getUserId(), cartItem.getProductId(), newQuantity);
+        Log.d(TAG, "Updated quantity to " + newQuantity);
     }
 
     /**
      * Delete cart item
+     * Removed from the list at once; the server write is queued (CartOperationQueue)
      */
     public void deleteCartItem(CartItem cartItem) {
-        loading.setValue(true);
-
-        cartRepository.deleteCartItem(
-                cartItem.getUserId(),
-                cartItem.getProductId(),
-                new CartRepository.SimpleCallback() {
-            @Override
-            public void onSuccess() {
-                loading.postValue(false);
-                // Remove from local list
-                List<CartItem> currentItems = cartItems.getValue();
-                if (currentItems != null) {
-                    currentItems.removeIf(item ->
-                        item.getUserId().equals(cartItem.getUserId()) &&
-                        item.getProductId().equals(cartItem.getProductId())
-                    );
-                    cartItems.postValue(currentItems);
-                    calculateTotal();
-                }
-                Log.d(TAG, "Deleted cart item successfully");
-            }
+        if (state.remove(cartItem.getProductId())) {
+            publish();
+        }
+        cartRepository.queueDelete(cartItem.getUserId(), cartItem.getProductId());
+        Log.d(TAG, "Deleted cart item");
+    }
 
-            @Override
-            public void onError(String errorMsg) {
-                loading.postValue(false);
-                error.postValue(errorMsg);
-                Log.e(TAG, "Error deleting cart item: " + errorMsg);
-            }
-        });
+    /**
+     * Roll back to the server state after a queued change was refused
+     */
+    private void onChangeRejected(CartOperationQueue.Rejection rejection) {
+        if (rejection == null || rejection == rejectionAtStart) {
+            return;
+        }
+        error.setValue(rejection.message);
+        if (rejection.userId.equals(currentUserId)) {
+            loadCartItems(currentUserId);
+        }
     }
 
     /**
      * Toggle selection of a cart item
      */
     public void toggleItemSelection(CartItem cartItem) {
-        List<CartItem> currentItems = cartItems.getValue();
-        if (currentItems != null) {
-            for (CartItem item : currentItems) {
-                if (item.getUserId().equals(cartItem.getUserId()) &&
-                    item.getProductId().equals(cartItem.getProductId())) {
-                    item.setSelected(!item.isSelected());
-                    break;
-                }
-            }
-            cartItems.postValue(currentItems);
-            updateAllSelectedState();
-            calculateTotal();
+        if (state.toggleSelected(cartItem.getProductId())) {
+            publish();
         }
     }
 
@@ -206,70 +180,42 @@ public class CartViewModel extends ViewModel {
      * Select/Deselect all items
      */
     public void toggleSelectAll(boolean selectAll) {
-        List<CartItem> currentItems = cartItems.getValue();
-        if (currentItems != null) {
-            for (CartItem item : currentItems) {
-                item.setSelected(selectAll);
-            }
-            cartItems.postValue(currentItems);
-            allSelected.postValue(selectAll);
-            calculateTotal();
-        }
+        state.selectAll(selectAll);
+        publish();
     }
 
     /**
-     * Update "all selected" state based on individual items
+     * Get list of selected cart items
      */
-    private void updateAllSelectedState() {
-        List<CartItem> currentItems = cartItems.getValue();
-        if (currentItems != null && !currentItems.isEmpty()) {
-            boolean allItemsSelected = true;
-            for (CartItem item : currentItems) {
-                if (!item.isSelected()) {
-                    allItemsSelected = false;
-                    break;
-                }
-            }
-            allSelected.postValue(allItemsSelected);
-        } else {
-            allSelected.postValue(false);
-        }
+    public List<CartItem> getSelectedItems() {
+        return state.getSelectedItems();
     }
 
     /**
-     * Calculate total amount for selected items
+     * Publish the current snapshot and totals (main thread)
+     * Totals are maintained by CartState, nothing is recomputed here
      */
-    private void calculateTotal() {
-        List<CartItem> currentItems = cartItems.getValue();
-        double total = 0.0;
-
-        if (currentItems != null) {
-            for (CartItem item : currentItems) {
-                if (item.isSelected() && item.getProduct() != null) {
-                    total += item.getSubtotal();
-                }
-            }
-        }
-
-        totalAmount.postValue(total);
+    private void publish() {
+        cartItems.setValue(state.snapshot());
+        totalAmount.setValue(state.getSelectedSubtotal());
+        allSelected.setValue(state.isAllSelected());
     }
 
     /**
-     * Get list of selected cart items
+     * Row the cart currently holds for an item the adapter handed back (may be an older copy)
      */
-    public List<CartItem> getSelectedItems() {
-        List<CartItem> selectedItems = new ArrayList<>();
-        List<CartItem> currentItems = cartItems.getValue();
+    private CartItem current(CartItem cartItem) {
+        CartItem row = state.get(cartItem.getProductId());
+        return row != null ? row : cartItem;
+    }
 
-        if (currentItems != null) {
-            for (CartItem item : currentItems) {
-                if (item.isSelected()) {
-                    selectedItems.add(item);
-                }
-            }
+    /**
+     * Re-publish the cart when a product in it changed price or stock
+     */
+    private void onProductUpdated(ProductLiveUpdates.ProductUpdate update) {
+        if (update != null && state.refreshProduct(update.productId)) {
+            publish();
         }
-
-        return selectedItems;
     }
 
     /**
@@ -280,8 +226,9 @@ public class CartViewModel extends ViewModel {
     }
 
     /**
-     * Add or update item in cart
+     * Add item to cart, or add to its quantity if it is already there
      * Convenience method for adding products to cart from product detail screen
+     * One request (add_to_cart RPC); rows this screen already shows are updated in place
      *
      * @param userId User ID (UUID string)
      * @param productId Product ID (UUID string)
@@ -292,14 +239,15 @@ public class CartViewModel extends ViewModel {
         error.setValue(null);
         success.setValue(null);
 
-        cartRepository.addOrUpdateCartItem(userId, productId, quantity,
+        cartRepository.incrementCartItem(userId, productId, quantity,
                 new CartRepository.CartItemCallback() {
             @Override
             public void onSuccess(CartItem cartItem) {
                 loading.postValue(false);
                 success.postValue("Đã thêm vào giỏ hàng");
-                // Reload cart items to get fresh data
-                loadCartItems(userId);
+                if (state.setQuantity(productId, cartItem.getQuantity())) {
+                    publish();
+                }
                 Log.d(TAG, "Added/updated cart item successfully");
             }
 
@@ -311,4 +259,11 @@ public class CartViewModel extends ViewModel {
             }
         });
     }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        ProductLiveUpdates.getInstance().getUpdates().removeObserver(productUpdateObserver);
+        cartRepository.getRejectedChanges().removeObserver(rejectionObserver);
+    }
 }
@@ -12,8 +12,10 @@ import com.example.shopverse_customer_app.data.model.Order;
 import com.example.shopverse_customer_app.data.model.OrderItem;
 import com.example.shopverse_customer_app.data.model.PaymentResponse;
 import com.example.shopverse_customer_app.data.remote.PaymentService;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.data.repository.CartRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,10 +38,12 @@ public class CheckoutViewModel extends ViewModel {
     private final MutableLiveData<String> paymentUrl = new MutableLiveData<>();
 
     private final SupabaseRestApi restApi;
+    private final CartRepository cartRepository;
     private final PaymentService paymentService;
 
     public CheckoutViewModel() {
         restApi = RetrofitClient.getInstance().getRestApi();
+        cartRepository = new CartRepository();
         paymentService = RetrofitClient.getInstance().getPaymentService();
     }
 
@@ -273,28 +277,29 @@ public class CheckoutViewModel extends ViewModel {
 
         Log.d(TAG, "Step 4: Removing " + items.size() + " items from cart");
 
+        // One request for all items (product_id=in.(...)), background priority so it never delays what the user sees
+        String userId = null;
+        List<String> productIds = new ArrayList<>();
         for (CartItem item : items) {
             if (item.getProduct() != null) {
-                String userId = item.getUserId();
-                String productId = item.getProduct().getProductId();
-
-                // Fire and forget - no callback needed
-                restApi.deleteCartItem("eq." + userId, "eq." + productId).enqueue(new Callback<Void>() {
-                    @Override
-                    public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
-                        if (response.isSuccessful()) {
-                            Log.d(TAG, "Successfully removed product " + productId + " from cart");
-                        } else {
-                            Log.w(TAG, "Failed to remove product " + productId + " from cart: " + response.code());
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<Void> call, @NonNull Throwable t) {
-                        Log.w(TAG, "Error removing product " + productId + " from cart", t);
-                    }
-                });
+                userId = item.getUserId();
+                productIds.add(item.getProduct().getProductId());
             }
         }
+        if (userId == null) {
+            return;
+        }
+        cartRepository.deleteCartItems(userId, productIds, RequestPriority.BACKGROUND,
+                new CartRepository.SimpleCallback() {
+            @Override
+            public void onSuccess() {
+                Log.d(TAG, "Removed " + productIds.size() + " products from cart");
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Failed to remove products from cart: " + error);
+            }
+        });
     }
 }
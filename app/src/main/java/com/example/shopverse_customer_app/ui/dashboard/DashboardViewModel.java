@@ -1,18 +1,26 @@
 package com.example.shopverse_customer_app.ui.dashboard;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
 import com.example.shopverse_customer_app.data.model.Brand;
 import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.HomeFeed;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.data.repository.CatalogRepository;
+import com.example.shopverse_customer_app.data.repository.CategoryBrandIndex;
+import com.example.shopverse_customer_app.data.repository.ProductRepository;
+import com.example.shopverse_customer_app.utils.TimeToContent;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -21,6 +29,7 @@ import retrofit2.Response;
 public class DashboardViewModel extends ViewModel {
 
     private static final String TAG = "DashboardViewModel";
+    private static final String SCREEN = "dashboard";
 
     private final MutableLiveData<List<Category>> categories = new MutableLiveData<>();
     private final MutableLiveData<List<Brand>> brands = new MutableLiveData<>();
@@ -30,13 +39,33 @@ public class DashboardViewModel extends ViewModel {
     private final MutableLiveData<String> error = new MutableLiveData<>();
     private final MutableLiveData<String> searchQuery = new MutableLiveData<>("");
     private final SupabaseRestApi restApi;
+    private final ProductRepository productRepository;
+    private final CategoryBrandIndex brandIndex;
+    private final CatalogRepository catalog;
+    // Re-reads the local catalog after every background sync
+    private final Observer<Long> catalogSyncObserver = syncTime -> {
+        if (syncTime != null && syncTime > 0) {
+            loadFromCatalog();
+        }
+    };
 
     // Keep reference to all brands for filtering
     private List<Brand> allBrands = new ArrayList<>();
 
+    // Time-to-content of the categories-then-brands fallback (-1 when not measuring)
+    private long fanOutStartMs = -1;
+
     public DashboardViewModel() {
         restApi = RetrofitClient.getInstance().getRestApi();
-        loadCategories();
+        productRepository = new ProductRepository();
+        brandIndex = CategoryBrandIndex.getInstance();
+        catalog = CatalogRepository.getInstance();
+        // Renders from disk right away once a sync has completed
+        catalog.getLastSyncTime().observeForever(catalogSyncObserver);
+        if (!catalog.isSynced()) {
+            loadCategories();
+            refreshBrandIndex();
+        }
     }
 
     public LiveData<List<Category>> getCategories() {
@@ -68,13 +97,90 @@ public class DashboardViewModel extends ViewModel {
     }
 
     /**
-     * Fetch categories from Supabase
+     * Show categories and the selected (or first) category's brands from the local catalog
+     */
+    private void loadFromCatalog() {
+        catalog.getCategories(new CatalogRepository.ListCallback<Category>() {
+            @Override
+            public void onSuccess(List<Category> items) {
+                loading.setValue(false);
+                categories.setValue(items);
+                // Keep the current selection across syncs, else select the first category
+                Category selected = selectedCategory.getValue();
+                Category toSelect = findCategory(items, selected != null ? selected.getCategoryId() : null);
+                if (toSelect != null) {
+                    selectCategory(toSelect);
+                }
+                Log.d(TAG, "Categories loaded from catalog: " + items.size());
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                loading.setValue(false);
+                error.setValue(errorMsg);
+            }
+        });
+    }
+
+    /**
+     * Fetch categories and the first category's brands in one round trip (home_feed RPC)
+     * Falls back to categories followed by brands when the RPC is not deployed
+     * (and, in debug builds, on sampled loads to compare the two)
      */
     public void loadCategories() {
         loading.setValue(true);
         error.setValue(null);
 
-        restApi.getCategories("category_id,category_name").enqueue(new Callback<List<Category>>() {
+        long startMs = SystemClock.elapsedRealtime();
+        if (TimeToContent.sampleFanOut()) {
+            fanOutStartMs = startMs;
+            loadCategoriesSeparately();
+            return;
+        }
+        // No products needed here, only categories and brands
+        productRepository.getHomeFeed(0, null, new ProductRepository.HomeFeedCallback() {
+            @Override
+            public void onSuccess(HomeFeed feed) {
+                loading.setValue(false);
+                List<Category> categoryList = feed.getCategories();
+                categories.setValue(categoryList);
+                Category first = findCategory(categoryList, feed.getFirstCategoryId());
+                if (first != null) {
+                    // Brands of the auto-selected category came with the feed
+                    selectedCategory.setValue(first);
+                    setBrands(feed.getBrands());
+                }
+                TimeToContent.record(SCREEN, TimeToContent.PATH_HOME_FEED, SystemClock.elapsedRealtime() - startMs);
+            }
+
+            @Override
+            public void onUnavailable() {
+                fanOutStartMs = startMs;
+                loadCategoriesSeparately();
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                loading.setValue(false);
+                error.setValue(errorMsg);
+            }
+        });
+    }
+
+    private static Category findCategory(List<Category> categoryList, String categoryId) {
+        for (Category category : categoryList) {
+            if (category.getCategoryId() != null && category.getCategoryId().equals(categoryId)) {
+                return category;
+            }
+        }
+        return categoryList.isEmpty() ? null : categoryList.get(0);
+    }
+
+    /**
+     * Fetch categories from Supabase, then the brands of the first one
+     */
+    private void loadCategoriesSeparately() {
+        restApi.getCategories("category_id,category_name", ProductRepository.ORDER_CATEGORIES).enqueue(new Callback<List<Category>>() {
             @Override
             public void onResponse(Call<List<Category>> call, Response<List<Category>> response) {
                 loading.setValue(false);
@@ -105,16 +211,84 @@ public class DashboardViewModel extends ViewModel {
     }
 
     /**
-     * Select a category and fetch its brands
+     * Select a category and show its brands
+     * Served from the local catalog when synced, else from the category -> brands
+     * index when loaded, otherwise fetched
      */
     public void selectCategory(Category category) {
         if (category == null)
             return;
 
         selectedCategory.setValue(category);
+        if (catalog.isSynced()) {
+            loadBrandsFromCatalog(category.getCategoryId());
+            return;
+        }
+        List<Brand> indexed = brandIndex.getBrands(category.getCategoryId());
+        if (indexed != null) {
+            setBrands(indexed);
+            onFanOutBrandsShown();
+            refreshBrandIndex();
+            return;
+        }
         loadBrandsForCategory(category.getCategoryId());
     }
 
+    /**
+     * Record fallback time-to-content once the first category's brands are shown
+     */
+    private void onFanOutBrandsShown() {
+        if (fanOutStartMs < 0) {
+            return;
+        }
+        TimeToContent.record(SCREEN, TimeToContent.PATH_FAN_OUT, SystemClock.elapsedRealtime() - fanOutStartMs);
+        fanOutStartMs = -1;
+    }
+
+    private void loadBrandsFromCatalog(String categoryId) {
+        catalog.getBrandsForCategory(categoryId, new CatalogRepository.ListCallback<Brand>() {
+            @Override
+            public void onSuccess(List<Brand> items) {
+                Category selected = selectedCategory.getValue();
+                // Ignore results for a category the user already left
+                if (selected != null && categoryId.equals(selected.getCategoryId())) {
+                    setBrands(items);
+                }
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                error.setValue(errorMsg);
+            }
+        });
+    }
+
+    /**
+     * Load or refresh the brand index in the background
+     * Re-shows the selected category's brands when newer ones arrive
+     */
+    private void refreshBrandIndex() {
+        brandIndex.refreshIfStale(new CategoryBrandIndex.IndexCallback() {
+            @Override
+            public void onIndexUpdated() {
+                Category selected = selectedCategory.getValue();
+                if (selected == null) {
+                    return;
+                }
+                List<Brand> indexed = brandIndex.getBrands(selected.getCategoryId());
+                if (indexed != null && !sameBrands(indexed, allBrands)) {
+                    setBrands(indexed);
+                }
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                // Not shown: sidebar taps fall back to per-category requests
+                Log.w(TAG, "Brand index unavailable: " + errorMsg);
+            }
+        });
+    }
+
     /**
      * Fetch brands for a specific category
      */
@@ -139,11 +313,9 @@ public class DashboardViewModel extends ViewModel {
                                     brandList.add(brandResponse.brand);
                                 }
                             }
-                            allBrands = brandList;
-                            brands.setValue(brandList);
-                            // Apply current search filter
-                            filterBrands(searchQuery.getValue());
+                            setBrands(brandList);
                             Log.d(TAG, "Brands loaded for category " + categoryId + ": " + brandList.size());
+                            onFanOutBrandsShown();
                         } else {
                             String errorMsg = "Failed to load brands: " + response.code();
                             error.setValue(errorMsg);
@@ -163,6 +335,26 @@ public class DashboardViewModel extends ViewModel {
                 });
     }
 
+    private static boolean sameBrands(List<Brand> a, List<Brand> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).getBrandId(), b.get(i).getBrandId())
+                    || !Objects.equals(a.get(i).getBrandName(), b.get(i).getBrandName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBrands(List<Brand> brandList) {
+        allBrands = brandList;
+        brands.setValue(brandList);
+        // Apply current search filter
+        filterBrands(searchQuery.getValue());
+    }
+
     /**
      * Search brands by query
      * Filters brands by name (case-insensitive)
@@ -208,6 +400,16 @@ public class DashboardViewModel extends ViewModel {
      * Retry loading data
      */
     public void retry() {
-        loadCategories();
+        if (catalog.isSynced()) {
+            loadFromCatalog();
+        } else {
+            loadCategories();
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        catalog.getLastSyncTime().removeObserver(catalogSyncObserver);
     }
 }
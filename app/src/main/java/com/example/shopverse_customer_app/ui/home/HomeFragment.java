@@ -13,6 +13,7 @@ import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shopverse_customer_app.R;
 import com.example.shopverse_customer_app.data.model.Category;
@@ -28,9 +29,11 @@ import androidx.navigation.Navigation;
 public class HomeFragment extends Fragment implements ProductAdapter.OnProductClickListener {
 
     private static final String TAG = "HomeFragment";
+    private static final long SEARCH_DEBOUNCE_MS = 300;
     private FragmentHomeBinding binding;
     private HomeViewModel homeViewModel;
     private ProductAdapter productAdapter;
+    private Runnable pendingSearch; // nullable
 
     public View onCreateView(@NonNull LayoutInflater inflater,
             ViewGroup container, Bundle savedInstanceState) {
@@ -57,6 +60,32 @@ public class HomeFragment extends Fragment implements ProductAdapter.OnProductCl
         binding.productsRecyclerView.setLayoutManager(gridLayoutManager);
         binding.productsRecyclerView.setAdapter(productAdapter);
         binding.productsRecyclerView.setHasFixedSize(true);
+
+        // Drive page prefetch/reload from scrolling
+        binding.productsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                reportVisibleRange();
+            }
+        });
+    }
+
+    /**
+     * Report the adapter positions inside the viewport to the ViewModel
+     */
+    private void reportVisibleRange() {
+        if (binding == null) {
+            return;
+        }
+        GridLayoutManager layoutManager = (GridLayoutManager) binding.productsRecyclerView.getLayoutManager();
+        if (layoutManager == null) {
+            return;
+        }
+        int firstVisible = layoutManager.findFirstVisibleItemPosition();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (firstVisible != RecyclerView.NO_POSITION && lastVisible != RecyclerView.NO_POSITION) {
+            homeViewModel.onVisibleRangeChanged(firstVisible, lastVisible);
+        }
     }
 
     private void observeViewModel() {
@@ -67,6 +96,13 @@ public class HomeFragment extends Fragment implements ProductAdapter.OnProductCl
             }
         });
 
+        // Rebind cards whose price/stock changed live (instances are already patched)
+        homeViewModel.getProductUpdates().observe(getViewLifecycleOwner(), update -> {
+            if (update != null) {
+                productAdapter.notifyProductChanged(update.productId);
+            }
+        });
+
         // Observe filtered products (this is what we display)
         homeViewModel.getFilteredProducts().observe(getViewLifecycleOwner(), products -> {
             if (products != null) {
@@ -120,8 +156,11 @@ public class HomeFragment extends Fragment implements ProductAdapter.OnProductCl
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                // Trigger search on each text change
-                homeViewModel.searchProducts(s.toString());
+                // Search once typing pauses - each search is a new query, not a local filter
+                String query = s.toString();
+                binding.searchBar.removeCallbacks(pendingSearch);
+                pendingSearch = () -> homeViewModel.searchProducts(query);
+                binding.searchBar.postDelayed(pendingSearch, SEARCH_DEBOUNCE_MS);
             }
 
             @Override
@@ -253,6 +292,7 @@ public class HomeFragment extends Fragment implements ProductAdapter.OnProductCl
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        binding.searchBar.removeCallbacks(pendingSearch);
         binding = null;
     }
 }
\ No newline at end of file
@@ -1,15 +1,23 @@
 package com.example.shopverse_customer_app.ui.home;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
 import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.HomeFeed;
 import com.example.shopverse_customer_app.data.model.Product;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.data.repository.CatalogRepository;
+import com.example.shopverse_customer_app.data.repository.ProductLiveUpdates;
+import com.example.shopverse_customer_app.data.repository.ProductPager;
+import com.example.shopverse_customer_app.data.repository.ProductRepository;
+import com.example.shopverse_customer_app.utils.TimeToContent;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,6 +31,9 @@ import retrofit2.Response;
 public class HomeViewModel extends ViewModel {
 
     private static final String TAG = "HomeViewModel";
+    private static final String SCREEN = "home";
+    // Products in the home_feed response (first paint); the pager loads the rest on scroll
+    private static final int FIRST_PAGE_SIZE = ProductPager.DEFAULT_PAGE_SIZE;
 
     private final MutableLiveData<List<Category>> categories = new MutableLiveData<>();
     private final MutableLiveData<List<Product>> products = new MutableLiveData<>();
@@ -33,14 +44,31 @@ public class HomeViewModel extends ViewModel {
     private final MutableLiveData<String> priceRange = new MutableLiveData<>("all");
     private final MutableLiveData<String> sortOrder = new MutableLiveData<>("asc"); // "asc" or "desc"
     private final SupabaseRestApi restApi;
+    private final ProductRepository productRepository;
+    private final CatalogRepository catalog;
+    // Re-reads the local catalog after every background sync
+    private final Observer<Long> catalogSyncObserver = syncTime -> {
+        if (syncTime != null && syncTime > 0) {
+            loadFromCatalog();
+        }
+    };
+
+    // Paged source for the current sort and filters (replaced whenever they change)
+    private ProductPager pager;
 
-    // Keep reference to all products for filtering
-    private List<Product> allProducts = new ArrayList<>();
+    // Time-to-content of the separate-request fallback (-1 when not measuring)
+    private long fanOutStartMs = -1;
+    private int fanOutPending = 0;
 
     public HomeViewModel() {
         restApi = RetrofitClient.getInstance().getRestApi();
-        loadCategories();
-        loadProducts();
+        productRepository = new ProductRepository();
+        catalog = CatalogRepository.getInstance();
+        // Renders from disk right away once a sync has completed
+        catalog.getLastSyncTime().observeForever(catalogSyncObserver);
+        if (!catalog.isSynced()) {
+            loadHomeFeed();
+        }
     }
 
     public LiveData<List<Category>> getCategories() {
@@ -51,6 +79,13 @@ public class HomeViewModel extends ViewModel {
         return products;
     }
 
+    /**
+     * Live price/stock changes of listed products (already applied to the list's instances)
+     */
+    public LiveData<ProductLiveUpdates.ProductUpdate> getProductUpdates() {
+        return ProductLiveUpdates.getInstance().getUpdates();
+    }
+
     public LiveData<List<Product>> getFilteredProducts() {
         return filteredProducts;
     }
@@ -77,25 +112,123 @@ public class HomeViewModel extends ViewModel {
 
     /**
      * Toggle sort order between ascending and descending
-     * Calls API immediately to reload products with new sort
+     * Reloads the products in the new sort immediately
      */
     public void toggleSortOrder() {
         String currentSort = sortOrder.getValue();
         sortOrder.setValue(currentSort != null && currentSort.equals("asc") ? "desc" : "asc");
-        Log.d(TAG, "Sort order toggled to: " + sortOrder.getValue() + " - Reloading from API");
-        loadProducts(); // Reload products from API with new sort order
+        Log.d(TAG, "Sort order toggled to: " + sortOrder.getValue() + " - Reloading");
+        applyFilters();
     }
 
     /**
-     * Set sort order and reload from API
+     * Set sort order and reload
      * @param order "asc", "desc", or null for default
      */
     public void setSortOrder(String order) {
         sortOrder.setValue(order);
-        Log.d(TAG, "Sort order set to: " + order + " - Reloading from API");
+        Log.d(TAG, "Sort order set to: " + order + " - Reloading");
+        applyFilters();
+    }
+
+    /**
+     * Report visible adapter positions so the pager can load ahead and trim memory
+     */
+    public void onVisibleRangeChanged(int firstVisible, int lastVisible) {
+        if (pager != null) {
+            pager.onVisibleRangeChanged(firstVisible, lastVisible);
+        }
+    }
+
+    /**
+     * Show categories and products from the local catalog
+     */
+    private void loadFromCatalog() {
+        catalog.getCategories(new CatalogRepository.ListCallback<Category>() {
+            @Override
+            public void onSuccess(List<Category> items) {
+                categories.setValue(items);
+                Log.d(TAG, "Categories loaded from catalog: " + items.size());
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                error.setValue(errorMsg);
+            }
+        });
+        applyFilters();
+    }
+
+    /**
+     * Load categories and the first page of products in one round trip (home_feed RPC)
+     * A pager continues from that page as the user scrolls. Falls back to separate
+     * requests when the RPC is not deployed (and, in debug builds, on sampled loads
+     * to compare the two)
+     */
+    public void loadHomeFeed() {
+        loading.setValue(true);
+        error.setValue(null);
+        releasePager();
+
+        long startMs = SystemClock.elapsedRealtime();
+        if (TimeToContent.sampleFanOut()) {
+            loadFanOut(startMs);
+            return;
+        }
+        String orderParam = currentOrderParam();
+        productRepository.getHomeFeed(FIRST_PAGE_SIZE, orderParam, new ProductRepository.HomeFeedCallback() {
+            @Override
+            public void onSuccess(HomeFeed feed) {
+                loading.setValue(false);
+                categories.setValue(feed.getCategories());
+                TimeToContent.record(SCREEN, TimeToContent.PATH_HOME_FEED, SystemClock.elapsedRealtime() - startMs);
+                if (pager != null) {
+                    return; // Sort or filters changed meanwhile and already started their own pager
+                }
+                if (hasFilters()) {
+                    applyFilters();
+                    return;
+                }
+                // The RPC orders by price, then product_id ascending: the offset order of the same query
+                ProductPager feedPager = new ProductPager(productRepository, networkQuery(currentFilters()),
+                        ProductRepository.PagingStrategy.OFFSET, FIRST_PAGE_SIZE, pagerListener("home_feed"));
+                startPager(feedPager, feed.getProducts());
+            }
+
+            @Override
+            public void onUnavailable() {
+                loadFanOut(startMs);
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                loading.setValue(false);
+                error.setValue(errorMsg);
+            }
+        });
+    }
+
+    /**
+     * Load categories and the first product page as separate requests (the pre-RPC fan-out)
+     */
+    private void loadFanOut(long startMs) {
+        fanOutStartMs = startMs;
+        fanOutPending = 2;
+        loadCategories();
         loadProducts();
     }
 
+    /**
+     * Count a finished fallback request and record time-to-content once both are in
+     */
+    private void onFanOutPartLoaded() {
+        if (fanOutStartMs < 0 || --fanOutPending > 0) {
+            return;
+        }
+        TimeToContent.record(SCREEN, TimeToContent.PATH_FAN_OUT, SystemClock.elapsedRealtime() - fanOutStartMs);
+        fanOutStartMs = -1;
+    }
+
     /**
      * Fetch categories from Supabase
      */
@@ -103,13 +236,14 @@ public class HomeViewModel extends ViewModel {
         loading.setValue(true);
         error.setValue(null);
 
-        restApi.getCategories("category_id,category_name").enqueue(new Callback<List<Category>>() {
+        restApi.getCategories("category_id,category_name", ProductRepository.ORDER_CATEGORIES).enqueue(new Callback<List<Category>>() {
             @Override
             public void onResponse(Call<List<Category>> call, Response<List<Category>> response) {
                 loading.setValue(false);
                 if (response.isSuccessful() && response.body() != null) {
                     categories.setValue(response.body());
                     Log.d(TAG, "Categories loaded: " + response.body().size());
+                    onFanOutPartLoaded();
                 } else {
                     String errorMsg = "Failed to load categories: " + response.code();
                     error.setValue(errorMsg);
@@ -135,55 +269,110 @@ public class HomeViewModel extends ViewModel {
     }
 
     /**
-     * Load all products with API sorting
+     * Load products from the API with the current sort and filters, a page at a time
      */
     public void loadProducts() {
-        loading.setValue(true);
         error.setValue(null);
+        startPager(networkPager(currentFilters()), null);
+    }
 
-        // Build order parameter based on current sort order
-        final String orderParam;
-        String currentSort = sortOrder.getValue();
-        if (currentSort != null) {
-            if (currentSort.equals("asc")) {
-                orderParam = "unit_price.asc";
-            } else if (currentSort.equals("desc")) {
-                orderParam = "unit_price.desc";
-            } else {
-                orderParam = null;
-            }
+    /**
+     * Pager over the API for the given filters, seeking on price sorts like the product list
+     */
+    private ProductPager networkPager(CatalogRepository.LocalProductQuery filters) {
+        ProductRepository.ProductQuery query = networkQuery(filters);
+        ProductRepository.PagingStrategy strategy = ProductRepository.supportsKeyset(query)
+                ? ProductRepository.PagingStrategy.KEYSET
+                : ProductRepository.PagingStrategy.OFFSET;
+        return new ProductPager(productRepository, query, strategy, ProductPager.DEFAULT_PAGE_SIZE,
+                pagerListener("network"));
+    }
+
+    /**
+     * The same filters as a PostgREST query (name ilike, unit_price bounds)
+     */
+    private static ProductRepository.ProductQuery networkQuery(CatalogRepository.LocalProductQuery filters) {
+        String nameFilter = null;
+        if (filters.search != null && !filters.search.trim().isEmpty()) {
+            nameFilter = "ilike.*" + filters.search.trim() + "*";
+        }
+        List<String> priceFilters = new ArrayList<>(2);
+        if (filters.minPrice > 0) {
+            priceFilters.add("gte." + (long) filters.minPrice);
+        }
+        if (filters.maxPrice < Double.MAX_VALUE) {
+            priceFilters.add("lt." + (long) filters.maxPrice);
+        }
+        return new ProductRepository.ProductQuery(ProductRepository.SELECT_CARD, null, null,
+                ProductRepository.STATUS_ACTIVE, nameFilter, priceFilters.isEmpty() ? null : priceFilters,
+                filters.order);
+    }
+
+    /**
+     * Replace the current pager (its late results are ignored) and load its first page
+     *
+     * @param firstPage Already fetched first page to start from, null to fetch it
+     */
+    private void startPager(ProductPager newPager, List<Product> firstPage) {
+        releasePager();
+        pager = newPager;
+        if (firstPage != null) {
+            pager.start(firstPage);
         } else {
-            orderParam = null;
+            pager.start();
         }
+    }
+
+    private void releasePager() {
+        if (pager != null) {
+            pager.release();
+            pager = null;
+        }
+    }
+
+    private ProductPager.Listener pagerListener(String source) {
+        return new ProductPager.Listener() {
+            private boolean firstPublished = false;
+
+            @Override
+            public void onProductsChanged(List<Product> pagedProducts) {
+                products.setValue(pagedProducts);
+                filteredProducts.setValue(pagedProducts);
+                if (!firstPublished) {
+                    firstPublished = true;
+                    onFanOutPartLoaded();
+                    Log.d(TAG, "Products loaded from " + source + ": " + pagedProducts.size());
+                }
+            }
+
+            @Override
+            public void onLoadingChanged(boolean isLoading) {
+                // The fragment hides the grid while loading, so only while there is nothing to show
+                List<Product> shown = filteredProducts.getValue();
+                if (!isLoading || shown == null || shown.isEmpty()) {
+                    loading.setValue(isLoading);
+                }
+            }
 
-        // Load all products with brand and category info
-        // Parameters: select, categoryId, brandId, status, productName, order
-        restApi.getProducts("*,brands(*),categories(*)", null, null, "eq.active", null, orderParam)
-                .enqueue(new Callback<List<Product>>() {
-                    @Override
-                    public void onResponse(Call<List<Product>> call, Response<List<Product>> response) {
-                        loading.setValue(false);
-                        if (response.isSuccessful() && response.body() != null) {
-                            allProducts = response.body();
-                            products.setValue(allProducts);
-                            // Apply current search and price filter (no sorting needed - done by API)
-                            applyFilters();
-                            Log.d(TAG, "Products loaded: " + allProducts.size() + " (sorted by API: " + orderParam + ")");
-                        } else {
-                            String errorMsg = "Failed to load products: " + response.code();
-                            error.setValue(errorMsg);
-                            Log.e(TAG, errorMsg);
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<List<Product>> call, Throwable t) {
-                        loading.setValue(false);
-                        String errorMsg = "Network error: " + t.getMessage();
-                        error.setValue(errorMsg);
-                        Log.e(TAG, errorMsg, t);
-                    }
-                });
+            @Override
+            public void onError(String errorMsg) {
+                error.setValue(errorMsg);
+                Log.e(TAG, "Failed to load products: " + errorMsg);
+            }
+        };
+    }
+
+    /**
+     * Build order parameter based on current sort order
+     */
+    private String currentOrderParam() {
+        String currentSort = sortOrder.getValue();
+        if ("asc".equals(currentSort)) {
+            return ProductRepository.ORDER_PRICE_ASC;
+        } else if ("desc".equals(currentSort)) {
+            return ProductRepository.ORDER_PRICE_DESC;
+        }
+        return null;
     }
 
     /**
@@ -206,63 +395,57 @@ public class HomeViewModel extends ViewModel {
     }
 
     /**
-     * Filter products based on search query and price range
+     * Page through the products matching the search query and price range
+     * Runs on the local catalog once it is mirrored, otherwise as an API query
      */
     private void applyFilters() {
-        String query = searchQuery.getValue();
-        String range = priceRange.getValue();
-
-        if ((query == null || query.trim().isEmpty()) &&
-                (range == null || range.equals("all"))) {
-            // No filters, show all products
-            filteredProducts.setValue(allProducts);
-            return;
+        CatalogRepository.LocalProductQuery filters = currentFilters();
+        if (catalog.isSynced()) {
+            startPager(new ProductPager(catalog, filters, ProductPager.DEFAULT_PAGE_SIZE, pagerListener("catalog")),
+                    null);
+        } else {
+            startPager(networkPager(filters), null);
         }
+        Log.d(TAG, "Filters applied (query: " + filters.search + ", price: " + priceRange.getValue() + ")");
+    }
 
-        List<Product> filtered = new ArrayList<>();
-
-        for (Product product : allProducts) {
-            // Apply search filter
-            boolean matchesSearch = true;
-            if (query != null && !query.trim().isEmpty()) {
-                String lowerQuery = query.toLowerCase().trim();
-                matchesSearch = product.getProductName() != null &&
-                        product.getProductName().toLowerCase().contains(lowerQuery);
-            }
-
-            // Apply price range filter
-            boolean matchesPrice = true;
-            if (range != null && !range.equals("all") && product.getUnitPrice() != 0) {
-                double price = product.getUnitPrice();
-                switch (range) {
-                    case "under5m":
-                        matchesPrice = price < 5000000;
-                        break;
-                    case "5to10m":
-                        matchesPrice = price >= 5000000 && price < 10000000;
-                        break;
-                    case "10to20m":
-                        matchesPrice = price >= 10000000 && price < 20000000;
-                        break;
-                    case "20to30m":
-                        matchesPrice = price >= 20000000 && price < 30000000;
-                        break;
-                    case "above30m":
-                        matchesPrice = price >= 30000000;
-                        break;
-                }
-            }
+    private boolean hasFilters() {
+        String query = searchQuery.getValue();
+        String range = priceRange.getValue();
+        return (query != null && !query.trim().isEmpty()) || (range != null && !range.equals("all"));
+    }
 
-            // Include product if it matches both filters
-            if (matchesSearch && matchesPrice) {
-                filtered.add(product);
+    /**
+     * Current search, price range and sort as a catalog query (price range is [min, max))
+     */
+    private CatalogRepository.LocalProductQuery currentFilters() {
+        String range = priceRange.getValue();
+        double minPrice = 0;
+        double maxPrice = Double.MAX_VALUE;
+        if (range != null) {
+            switch (range) {
+                case "under5m":
+                    maxPrice = 5000000;
+                    break;
+                case "5to10m":
+                    minPrice = 5000000;
+                    maxPrice = 10000000;
+                    break;
+                case "10to20m":
+                    minPrice = 10000000;
+                    maxPrice = 20000000;
+                    break;
+                case "20to30m":
+                    minPrice = 20000000;
+                    maxPrice = 30000000;
+                    break;
+                case "above30m":
+                    minPrice = 30000000;
+                    break;
             }
         }
-
-        // No need for client-side sorting - API handles sorting
-        filteredProducts.setValue(filtered);
-        Log.d(TAG, "Filtered products: " + filtered.size() + " out of " + allProducts.size() +
-                " (query: " + query + ", price: " + range + ")");
+        return new CatalogRepository.LocalProductQuery(
+                null, null, searchQuery.getValue(), minPrice, maxPrice, currentOrderParam());
     }
 
     /**
@@ -271,14 +454,24 @@ public class HomeViewModel extends ViewModel {
     public void clearSearch() {
         searchQuery.setValue("");
         priceRange.setValue("all");
-        filteredProducts.setValue(allProducts);
+        applyFilters();
     }
 
     /**
      * Retry loading all data
      */
     public void retry() {
-        loadCategories();
-        loadProducts();
+        if (catalog.isSynced()) {
+            loadFromCatalog();
+        } else {
+            loadHomeFeed();
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        catalog.getLastSyncTime().removeObserver(catalogSyncObserver);
+        releasePager();
     }
 }
\ No newline at end of file
@@ -8,12 +8,14 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.shopverse_customer_app.data.model.Order;
+import com.example.shopverse_customer_app.data.remote.JsonArrayStreamer;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -24,6 +26,8 @@ import retrofit2.Response;
 public class OrderHistoryViewModel extends ViewModel {
 
     private static final String TAG = "OrderHistoryViewModel";
+    // Orders per streamed batch - about one screenful of rows
+    private static final int STREAM_BATCH_SIZE = 8;
 
     private final MutableLiveData<List<Order>> orders = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
@@ -31,6 +35,7 @@ public class OrderHistoryViewModel extends ViewModel {
     private final MutableLiveData<String> currentStatus = new MutableLiveData<>(null); // null = all
 
     private final SupabaseRestApi restApi;
+    private int loadGeneration = 0; // Results of an older load (other tab) are dropped
 
     public OrderHistoryViewModel() {
         restApi = RetrofitClient.getInstance().getRestApi();
@@ -54,6 +59,7 @@ public class OrderHistoryViewModel extends ViewModel {
 
     /**
      * Load orders by status
+     * Orders are streamed: the first rows show while the rest is still downloading
      * @param userId User ID
      * @param status Order status ("pending", "paid", "shipped", "completed", "cancelled") or null for all
      */
@@ -75,23 +81,32 @@ public class OrderHistoryViewModel extends ViewModel {
 
         Log.d(TAG, "Loading orders for user " + userId + " with status: " + status);
 
-        restApi.getOrders("*", "eq." + userId, statusFilter, "order_date.desc")
-                .enqueue(new Callback<List<Order>>() {
+        int generation = ++loadGeneration;
+        restApi.getOrdersStream("*", "eq." + userId, statusFilter, "order_date.desc")
+                .enqueue(new Callback<ResponseBody>() {
                     @Override
-                    public void onResponse(@NonNull Call<List<Order>> call, @NonNull Response<List<Order>> response) {
-                        loading.setValue(false);
+                    public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                        if (generation != loadGeneration) {
+                            if (response.body() != null) {
+                                response.body().close();
+                            }
+                            return;
+                        }
 
                         if (response.isSuccessful() && response.body() != null) {
-                            orders.setValue(response.body());
-                            Log.d(TAG, "Loaded " + response.body().size() + " orders");
+                            streamOrders(generation, response.body());
                         } else {
+                            loading.setValue(false);
                             error.setValue("Không thể tải danh sách đơn hàng. Mã lỗi: " + response.code());
                             Log.e(TAG, "Failed to load orders: " + response.code());
                         }
                     }
 
                     @Override
-                    public void onFailure(@NonNull Call<List<Order>> call, @NonNull Throwable t) {
+                    public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                        if (generation != loadGeneration) {
+                            return;
+                        }
                         loading.setValue(false);
                         error.setValue("Lỗi kết nối: " + t.getMessage());
                         Log.e(TAG, "Network error loading orders", t);
@@ -99,6 +114,46 @@ public class OrderHistoryViewModel extends ViewModel {
                 });
     }
 
+    /**
+     * Publish orders batch by batch as the body is parsed
+     */
+    private void streamOrders(int generation, ResponseBody body) {
+        List<Order> received = new ArrayList<>();
+        JsonArrayStreamer.stream(body, Order.class, STREAM_BATCH_SIZE, new JsonArrayStreamer.ElementConsumer<Order>() {
+            @Override
+            public void onBatch(List<Order> batch) {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                received.addAll(batch);
+                loading.setValue(false);
+                orders.setValue(new ArrayList<>(received));
+            }
+
+            @Override
+            public void onComplete(int count) {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                loading.setValue(false);
+                if (count == 0) {
+                    orders.setValue(new ArrayList<>());
+                }
+                Log.d(TAG, "Loaded " + count + " orders");
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                loading.setValue(false);
+                error.setValue("Không thể tải danh sách đơn hàng: " + errorMsg);
+                Log.e(TAG, "Failed to parse orders: " + errorMsg);
+            }
+        });
+    }
+
     /**
      * Load all orders (no status filter)
      */
@@ -93,10 +93,9 @@ public class ProductDetailFragment extends Fragment {
         setupSpecificationsRecyclerView();
         setupActionButtons(view);
 
-        // Set product data
+        // Show card data right away; the ViewModel swaps in the detail projection when it arrives
         if (product != null) {
             viewModel.setProduct(product);
-            displayProductData();
         }
 
         // Observe ViewModel
@@ -250,6 +249,16 @@ public class ProductDetailFragment extends Fragment {
     }
 
     private void observeViewModel() {
+        viewModel.getProduct().observe(getViewLifecycleOwner(), loadedProduct -> {
+            if (loadedProduct != null) {
+                product = loadedProduct;
+                if (product.getProductMedia() != null) {
+                    imageAdapter.setImageUrls(product.getProductMedia());
+                }
+                displayProductData();
+            }
+        });
+
         viewModel.getIsFavorite().observe(getViewLifecycleOwner(), isFavorite -> {
             if (isFavorite) {
                 favoriteButton.setText("♥ Đã thích");
@@ -1,21 +1,68 @@
 package com.example.shopverse_customer_app.ui.productdetail;
 
+import android.util.Log;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
 import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.repository.ProductLiveUpdates;
+import com.example.shopverse_customer_app.data.repository.ProductRepository;
 
 /**
  * ViewModel for Product Detail screen
  */
 public class ProductDetailViewModel extends ViewModel {
 
+    private static final String TAG = "ProductDetailViewModel";
+
     private final MutableLiveData<Product> product = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isFavorite = new MutableLiveData<>(false);
+    private final ProductRepository productRepository = new ProductRepository();
+    private boolean detailLoaded = false;
+    // Re-publishes the product (already patched in place) when its price or stock changes live
+    private final Observer<ProductLiveUpdates.ProductUpdate> productUpdateObserver = update -> {
+        Product current = product.getValue();
+        if (update != null && current != null && update.productId.equals(current.getProductId())) {
+            product.setValue(current);
+        }
+    };
 
+    public ProductDetailViewModel() {
+        ProductLiveUpdates.getInstance().getUpdates().observeForever(productUpdateObserver);
+    }
+
+    /**
+     * Show the product passed from the list (card projection)
+     * and fetch the detail projection once
+     */
     public void setProduct(Product product) {
-        this.product.setValue(product);
+        if (this.product.getValue() == null) {
+            ProductLiveUpdates.getInstance().track(product);
+            this.product.setValue(product);
+        }
+        if (!detailLoaded && product != null && product.getProductId() != null) {
+            loadProductDetail(product.getProductId());
+        }
+    }
+
+    private void loadProductDetail(String productId) {
+        detailLoaded = true;
+        productRepository.getProductDetail(productId, new ProductRepository.ProductCallback() {
+            @Override
+            public void onSuccess(Product detail) {
+                product.setValue(detail);
+            }
+
+            @Override
+            public void onError(String error) {
+                // Keep showing the card data; allow another attempt on next open
+                detailLoaded = false;
+                Log.e(TAG, "Failed to load product detail: " + error);
+            }
+        });
     }
 
     public LiveData<Product> getProduct() {
@@ -30,4 +77,10 @@ public class ProductDetailViewModel extends ViewModel {
         Boolean current = isFavorite.getValue();
         isFavorite.setValue(current == null || !current);
     }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        ProductLiveUpdates.getInstance().getUpdates().removeObserver(productUpdateObserver);
+    }
 }
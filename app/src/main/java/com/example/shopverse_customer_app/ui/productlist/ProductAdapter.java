@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.example.shopverse_customer_app.R;
 import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.repository.ProductPager;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ import java.util.Locale;
 
 /**
  * Adapter for displaying products in a grid RecyclerView.
+ * Null entries are placeholders for pages that are not in memory (see ProductPager).
  */
 public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductViewHolder> {
 
@@ -40,15 +42,44 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
 
     /**
      * Updates the product list
+     * A ProductPager window that follows the current one is kept as is and only its changed range is rebound
      */
     public void setProducts(List<Product> newProducts) {
-        this.products.clear();
-        if (newProducts != null) {
-            this.products.addAll(newProducts);
+        List<Product> previous = products;
+        if (newProducts instanceof ProductPager.Window && ((ProductPager.Window) newProducts).follows(previous)) {
+            products = newProducts;
+            notifyWindowChanged(previous.size(), (ProductPager.Window) newProducts);
+            return;
         }
+        products = newProducts != null ? new ArrayList<>(newProducts) : new ArrayList<>();
         notifyDataSetChanged();
     }
 
+    private void notifyWindowChanged(int previousSize, ProductPager.Window window) {
+        int size = window.size();
+        int changedTo = Math.min(window.getChangedTo(), Math.min(previousSize, size));
+        if (changedTo > window.getChangedFrom()) {
+            notifyItemRangeChanged(window.getChangedFrom(), changedTo - window.getChangedFrom());
+        }
+        if (size > previousSize) {
+            notifyItemRangeInserted(previousSize, size - previousSize);
+        } else if (size < previousSize) {
+            notifyItemRangeRemoved(size, previousSize - size);
+        }
+    }
+
+    /**
+     * Rebind the cards of a product whose fields were patched in place (live price/stock)
+     */
+    public void notifyProductChanged(String productId) {
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product != null && productId.equals(product.getProductId())) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
     @NonNull
     @Override
     public ProductViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -78,7 +109,6 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
         private final TextView currentPrice;
         private final TextView originalPrice;
         private final TextView studentPrice;
-        private final TextView productDescription;
 
         public ProductViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -91,10 +121,14 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
             currentPrice = itemView.findViewById(R.id.currentPrice);
             originalPrice = itemView.findViewById(R.id.originalPrice);
             studentPrice = itemView.findViewById(R.id.studentPrice);
-            productDescription = itemView.findViewById(R.id.productDescription);
         }
 
         public void bind(Product product, OnProductClickListener listener, NumberFormat currencyFormat) {
+            if (product == null) {
+                bindPlaceholder();
+                return;
+            }
+
             // Set product name
             productName.setText(product.getProductName());
 
@@ -122,14 +156,6 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
                 productImage.setImageResource(R.drawable.ic_home_black_24dp);
             }
 
-            // Set description if available
-            if (product.getDescription() != null && !product.getDescription().isEmpty()) {
-                productDescription.setText(product.getDescription());
-                productDescription.setVisibility(View.VISIBLE);
-            } else {
-                productDescription.setVisibility(View.GONE);
-            }
-
             // Original price with strikethrough
             // For now, hide it unless we have discount logic
             originalPrice.setVisibility(View.GONE);
@@ -155,6 +181,23 @@ public class ProductAdapter extends RecyclerView.Adapter<ProductAdapter.ProductV
             });
         }
 
+        /**
+         * Empty card shown while a dropped page is being reloaded
+         */
+        private void bindPlaceholder() {
+            Glide.with(itemView.getContext()).clear(productImage);
+            productImage.setImageResource(R.drawable.ic_home_black_24dp);
+            productName.setText("");
+            brandName.setVisibility(View.GONE);
+            currentPrice.setText("");
+            originalPrice.setVisibility(View.GONE);
+            discountBadge.setVisibility(View.GONE);
+            installmentBadge.setVisibility(View.GONE);
+            studentPrice.setVisibility(View.GONE);
+            itemView.setOnClickListener(null);
+            favoriteIcon.setOnClickListener(null);
+        }
+
         private String formatPrice(double price) {
             // Format: 21.490.000₫
             long priceInt = (long) price;
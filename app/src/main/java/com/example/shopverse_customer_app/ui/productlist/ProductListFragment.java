@@ -166,6 +166,32 @@ public class ProductListFragment extends Fragment
         GridLayoutManager gridLayoutManager = new GridLayoutManager(getContext(), 2);
         productsRecyclerView.setLayoutManager(gridLayoutManager);
         productsRecyclerView.setAdapter(productAdapter);
+
+        // Drive page prefetch/reload from scrolling
+        productsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                reportVisibleRange();
+            }
+        });
+    }
+
+    /**
+     * Report the adapter positions inside the viewport to the ViewModel
+     */
+    private void reportVisibleRange() {
+        if (productsRecyclerView == null) {
+            return;
+        }
+        GridLayoutManager layoutManager = (GridLayoutManager) productsRecyclerView.getLayoutManager();
+        if (layoutManager == null) {
+            return;
+        }
+        int firstVisible = layoutManager.findFirstVisibleItemPosition();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (firstVisible != RecyclerView.NO_POSITION && lastVisible != RecyclerView.NO_POSITION) {
+            viewModel.onVisibleRangeChanged(firstVisible, lastVisible);
+        }
     }
 
     private void setupFilterButtons() {
@@ -250,12 +276,21 @@ public class ProductListFragment extends Fragment
                 } else {
                     emptyStateTextView.setVisibility(View.GONE);
                     productsRecyclerView.setVisibility(View.VISIBLE);
+                    // Keep prefetching if the loaded pages do not fill the screen yet
+                    productsRecyclerView.post(this::reportVisibleRange);
                 }
 
                 Log.d(TAG, "Products updated: " + products.size());
             }
         });
 
+        // Rebind cards whose price/stock changed live (instances are already patched)
+        viewModel.getProductUpdates().observe(getViewLifecycleOwner(), update -> {
+            if (update != null) {
+                productAdapter.notifyProductChanged(update.productId);
+            }
+        });
+
         // Observe loading state
         viewModel.getLoading().observe(getViewLifecycleOwner(), isLoading -> {
             if (isLoading != null) {
@@ -4,6 +4,7 @@ import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
 import com.example.shopverse_customer_app.data.model.Brand;
@@ -11,6 +12,10 @@ import com.example.shopverse_customer_app.data.model.Category;
 import com.example.shopverse_customer_app.data.model.Product;
 import com.example.shopverse_customer_app.data.remote.RetrofitClient;
 import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.data.repository.CatalogRepository;
+import com.example.shopverse_customer_app.data.repository.ProductPager;
+import com.example.shopverse_customer_app.data.repository.ProductLiveUpdates;
+import com.example.shopverse_customer_app.data.repository.ProductRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +35,18 @@ public class ProductListViewModel extends ViewModel {
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>();
     private final SupabaseRestApi restApi;
+    private final ProductRepository productRepository;
+    private final CatalogRepository catalog;
+    // Re-runs the current query on the local catalog after every background sync
+    private final Observer<Long> catalogSyncObserver = syncTime -> {
+        if (syncTime != null && syncTime > 0 && category.getValue() != null) {
+            loadBrandsForCategory(category.getValue().getCategoryId());
+            loadProducts();
+        }
+    };
+
+    // Paged source for the current filters (replaced whenever filters change)
+    private ProductPager pager;
 
     // Filter states
     private String sortOrder = null; // null, "unit_price.asc", "unit_price.desc"
@@ -37,12 +54,22 @@ public class ProductListViewModel extends ViewModel {
 
     public ProductListViewModel() {
         restApi = RetrofitClient.getInstance().getRestApi();
+        productRepository = new ProductRepository();
+        catalog = CatalogRepository.getInstance();
+        catalog.getLastSyncTime().observeForever(catalogSyncObserver);
     }
 
     public LiveData<List<Product>> getProducts() {
         return products;
     }
 
+    /**
+     * Live price/stock changes of listed products (already applied to the list's instances)
+     */
+    public LiveData<ProductLiveUpdates.ProductUpdate> getProductUpdates() {
+        return ProductLiveUpdates.getInstance().getUpdates();
+    }
+
     public LiveData<List<Brand>> getBrands() {
         return brands;
     }
@@ -76,6 +103,22 @@ public class ProductListViewModel extends ViewModel {
      * Load brands for the current category
      */
     private void loadBrandsForCategory(String categoryId) {
+        if (catalog.isSynced()) {
+            catalog.getBrandsForCategory(categoryId, new CatalogRepository.ListCallback<Brand>() {
+                @Override
+                public void onSuccess(List<Brand> items) {
+                    brands.setValue(items);
+                    Log.d(TAG, "Brands loaded from catalog: " + items.size());
+                }
+
+                @Override
+                public void onError(String errorMsg) {
+                    Log.e(TAG, "Failed to load brands from catalog: " + errorMsg);
+                }
+            });
+            return;
+        }
+
         String filter = "eq." + categoryId;
 
         restApi.getBrandsByCategory("brands(*)", filter)
@@ -113,9 +156,13 @@ public class ProductListViewModel extends ViewModel {
             return;
         }
 
-        loading.setValue(true);
         error.setValue(null);
 
+        if (catalog.isSynced()) {
+            loadProductsFromCatalog(currentCategory.getCategoryId());
+            return;
+        }
+
         String categoryFilter = "eq." + currentCategory.getCategoryId();
 
         // Build OR condition for multiple brands
@@ -144,32 +191,75 @@ public class ProductListViewModel extends ViewModel {
             nameFilter = "ilike.*" + searchQuery + "*";
         }
 
-        String statusFilter = "eq.active";
-        String select = "*,brands(*),categories(*)";
+        ProductRepository.ProductQuery query = new ProductRepository.ProductQuery(
+                ProductRepository.SELECT_CARD, categoryFilter, brandFilter,
+                ProductRepository.STATUS_ACTIVE, nameFilter, sortOrder);
 
-        restApi.getProducts(select, categoryFilter, brandFilter, statusFilter, nameFilter, sortOrder)
-                .enqueue(new Callback<List<Product>>() {
-                    @Override
-                    public void onResponse(Call<List<Product>> call, Response<List<Product>> response) {
-                        loading.setValue(false);
-                        if (response.isSuccessful() && response.body() != null) {
-                            products.setValue(response.body());
-                            Log.d(TAG, "Products loaded: " + response.body().size());
-                        } else {
-                            String errorMsg = "Failed to load products: " + response.code();
-                            error.setValue(errorMsg);
-                            Log.e(TAG, errorMsg);
-                        }
-                    }
+        // Price sorts seek on (unit_price, product_id) so deep pages stay cheap and stable
+        ProductRepository.PagingStrategy strategy = ProductRepository.supportsKeyset(query)
+                ? ProductRepository.PagingStrategy.KEYSET
+                : ProductRepository.PagingStrategy.OFFSET;
+        startPager(new ProductPager(productRepository, query, strategy, ProductPager.DEFAULT_PAGE_SIZE,
+                pagerListener("network")));
+    }
 
-                    @Override
-                    public void onFailure(Call<List<Product>> call, Throwable t) {
-                        loading.setValue(false);
-                        String errorMsg = "Network error: " + t.getMessage();
-                        error.setValue(errorMsg);
-                        Log.e(TAG, errorMsg, t);
-                    }
-                });
+    /**
+     * Run the current filters on the local catalog, paged like the network source
+     * so only the pages near the viewport are held in memory
+     */
+    private void loadProductsFromCatalog(String categoryId) {
+        List<String> brandIds = new ArrayList<>();
+        List<Brand> currentBrands = selectedBrands.getValue();
+        if (currentBrands != null) {
+            for (Brand brand : currentBrands) {
+                brandIds.add(brand.getBrandId());
+            }
+        }
+
+        CatalogRepository.LocalProductQuery query = new CatalogRepository.LocalProductQuery(
+                categoryId, brandIds, searchQuery, 0, Double.MAX_VALUE, sortOrder);
+        startPager(new ProductPager(catalog, query, ProductPager.DEFAULT_PAGE_SIZE, pagerListener("catalog")));
+    }
+
+    /**
+     * Replace the current pager (its late results are ignored) and load the first page
+     */
+    private void startPager(ProductPager newPager) {
+        if (pager != null) {
+            pager.release();
+        }
+        pager = newPager;
+        pager.start();
+    }
+
+    private ProductPager.Listener pagerListener(String source) {
+        return new ProductPager.Listener() {
+            @Override
+            public void onProductsChanged(List<Product> pagedProducts) {
+                products.setValue(pagedProducts);
+                Log.d(TAG, "Products loaded from " + source + ": " + pagedProducts.size());
+            }
+
+            @Override
+            public void onLoadingChanged(boolean isLoading) {
+                loading.setValue(isLoading);
+            }
+
+            @Override
+            public void onError(String errorMsg) {
+                error.setValue(errorMsg);
+                Log.e(TAG, "Failed to load products: " + errorMsg);
+            }
+        };
+    }
+
+    /**
+     * Report visible adapter positions so the pager can prefetch and trim memory
+     */
+    public void onVisibleRangeChanged(int firstVisible, int lastVisible) {
+        if (pager != null) {
+            pager.onVisibleRangeChanged(firstVisible, lastVisible);
+        }
     }
 
     /**
@@ -271,6 +361,19 @@ public class ProductListViewModel extends ViewModel {
      * Retry loading products
      */
     public void retry() {
-        loadProducts();
+        if (pager != null) {
+            pager.retry();
+        } else {
+            loadProducts();
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        catalog.getLastSyncTime().removeObserver(catalogSyncObserver);
+        if (pager != null) {
+            pager.release();
+        }
     }
 }
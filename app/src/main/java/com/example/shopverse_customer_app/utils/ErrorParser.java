@@ -17,7 +17,7 @@ import retrofit2.Response;
 public class ErrorParser {
 
     private static final String TAG = "ErrorParser";
-    private static final Gson gson = new Gson();
+    private static final Gson gson = GsonProvider.get();
 
     /**
      * Parse error response and return user-friendly message
@@ -8,6 +8,9 @@ import com.google.firebase.messaging.FirebaseMessaging;
 import okhttp3.*;
 
 import com.example.shopverse_customer_app.config.SupabaseConfig;
+import com.example.shopverse_customer_app.data.remote.RequestPriority;
+import com.example.shopverse_customer_app.data.remote.RequestScheduler;
+import com.example.shopverse_customer_app.data.remote.SharedHttpClient;
 
 import java.io.IOException;
 
@@ -44,7 +47,7 @@ public class FirebaseTokenManager {
             return;
         }
 
-        OkHttpClient client = new OkHttpClient();
+        OkHttpClient client = SharedHttpClient.get();
 
         String json = "{\"device_token\":\"" + token + "\"}";
         RequestBody body = RequestBody.create(
@@ -62,9 +65,11 @@ public class FirebaseTokenManager {
                 .addHeader("Authorization", "Bearer " + accessToken)  // Use user's JWT token
                 .addHeader("Content-Type", "application/json")
                 .addHeader("Prefer", "return=representation")
+                .tag(RequestPriority.class, RequestPriority.BACKGROUND)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        // Background priority: held back while the user is waiting on other calls
+        RequestScheduler.getInstance().enqueue(client.newCall(request), new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e("Supabase", "Failed to send token: " + e.getMessage());
@@ -0,0 +1,104 @@
+package com.example.shopverse_customer_app.utils;
+
+import android.util.Log;
+
+import com.example.shopverse_customer_app.data.Store;
+import com.example.shopverse_customer_app.data.model.ApiError;
+import com.example.shopverse_customer_app.data.model.AuthResponse;
+import com.example.shopverse_customer_app.data.model.Brand;
+import com.example.shopverse_customer_app.data.model.CartItem;
+import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.LoginRequest;
+import com.example.shopverse_customer_app.data.model.ModelTypeAdapterFactory;
+import com.example.shopverse_customer_app.data.model.Order;
+import com.example.shopverse_customer_app.data.model.OrderItem;
+import com.example.shopverse_customer_app.data.model.PaymentResponse;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.data.model.Profile;
+import com.example.shopverse_customer_app.data.model.RegisterRequest;
+import com.example.shopverse_customer_app.data.model.User;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * App-wide Gson instance shared by every JSON parsing path
+ * (Retrofit converter, streaming parser, ErrorParser, StoreRepository, DirectionsHelper)
+ *
+ * Gson caches one TypeAdapter per type, so a single instance builds each adapter
+ * once. Model adapters are preregistered via ModelTypeAdapterFactory, and
+ * warmUp() builds the remaining ones on a background thread at startup so the
+ * first real parse does not pay for it.
+ */
+public final class GsonProvider {
+
+    private static final String TAG = "GsonProvider";
+
+    // Types parsed on the first screens - their adapters are built by warmUp()
+    private static final List<TypeToken<?>> WARM_UP_TYPES = Arrays.asList(
+            TypeToken.get(Product.class),
+            TypeToken.get(Brand.class),
+            TypeToken.get(Category.class),
+            TypeToken.get(CartItem.class),
+            TypeToken.get(Order.class),
+            TypeToken.get(OrderItem.class),
+            TypeToken.get(Profile.class),
+            TypeToken.get(AuthResponse.class),
+            TypeToken.get(User.class),
+            TypeToken.get(ApiError.class),
+            TypeToken.get(Store.class),
+            TypeToken.get(LoginRequest.class),
+            TypeToken.get(RegisterRequest.class),
+            TypeToken.get(PaymentResponse.class),
+            new TypeToken<List<Product>>() {},
+            new TypeToken<List<Category>>() {},
+            new TypeToken<List<CartItem>>() {},
+            new TypeToken<List<Order>>() {},
+            new TypeToken<List<OrderItem>>() {},
+            new TypeToken<List<Profile>>() {}
+    );
+
+    private static volatile boolean warmUpStarted = false;
+
+    private GsonProvider() {
+        // Private constructor to prevent instantiation
+    }
+
+    private static final class Holder {
+        static final Gson GSON = new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+                .create();
+    }
+
+    /**
+     * Get the shared Gson instance
+     */
+    public static Gson get() {
+        return Holder.GSON;
+    }
+
+    /**
+     * Build the adapters of commonly parsed types on a background thread
+     * Safe to call more than once; only the first call does the work
+     */
+    public static void warmUp() {
+        if (warmUpStarted) {
+            return;
+        }
+        warmUpStarted = true;
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            Gson gson = get();
+            for (TypeToken<?> type : WARM_UP_TYPES) {
+                gson.getAdapter(type);
+            }
+            Log.d(TAG, "Warmed up " + WARM_UP_TYPES.size() + " adapters in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms");
+        }, "GsonWarmUp");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.shopverse_customer_app.utils;
+
+import android.util.Log;
+
+import com.example.shopverse_customer_app.BuildConfig;
+import com.example.shopverse_customer_app.data.remote.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-to-content of first-paint loads, per screen and loading path
+ *
+ * Records how long a screen took from starting its load to showing content,
+ * split by path: the home_feed RPC or the fan-out of separate requests it
+ * replaces. The fan-out only runs on its own when the RPC is not deployed,
+ * so debug builds send one in FAN_OUT_SAMPLE_RATE loads down the fan-out
+ * path on purpose, which gives both distributions on the same device and
+ * network. Release builds always use the RPC.
+ */
+public final class TimeToContent {
+
+    private static final String TAG = "TimeToContent";
+
+    public static final String PATH_HOME_FEED = "home_feed";
+    public static final String PATH_FAN_OUT = "fan_out";
+
+    private static final int FAN_OUT_SAMPLE_RATE = 4;
+
+    // "screen path" -> histogram
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final AtomicLong loadCount = new AtomicLong();
+
+    private TimeToContent() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Whether this load should take the fan-out path for comparison (debug builds only)
+     */
+    public static boolean sampleFanOut() {
+        return BuildConfig.DEBUG && loadCount.incrementAndGet() % FAN_OUT_SAMPLE_RATE == 0;
+    }
+
+    /**
+     * Record one load and log it next to the other path of the same screen
+     *
+     * @param screen    Screen name, e.g. "home"
+     * @param path      PATH_HOME_FEED or PATH_FAN_OUT
+     * @param elapsedMs Time from starting the load to content
+     */
+    public static void record(String screen, String path, long elapsedMs) {
+        histograms.computeIfAbsent(screen + " " + path, key -> new LatencyHistogram())
+                .record(TimeUnit.MILLISECONDS.toNanos(elapsedMs));
+        Log.d(TAG, screen + " via " + path + ": " + elapsedMs + "ms | "
+                + PATH_HOME_FEED + " " + describe(screen, PATH_HOME_FEED) + " | "
+                + PATH_FAN_OUT + " " + describe(screen, PATH_FAN_OUT));
+    }
+
+    private static String describe(String screen, String path) {
+        LatencyHistogram histogram = histograms.get(screen + " " + path);
+        return histogram != null ? "(" + histogram + ")" : "(no samples)";
+    }
+
+    /**
+     * Histograms by "screen path"
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+}
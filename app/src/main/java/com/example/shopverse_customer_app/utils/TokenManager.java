@@ -47,6 +47,13 @@ public class TokenManager {
         }
     }
 
+    /**
+     * Constructor - stores the session in the given preferences (tests pass an in-memory store)
+     */
+    public TokenManager(SharedPreferences sharedPreferences) {
+        this.sharedPreferences = sharedPreferences;
+    }
+
     /**
      * Save access token
      */
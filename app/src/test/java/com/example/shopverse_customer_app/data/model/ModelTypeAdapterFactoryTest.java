@@ -0,0 +1,185 @@
+package com.example.shopverse_customer_app.data.model;
+
+import com.example.shopverse_customer_app.data.Store;
+import com.example.shopverse_customer_app.testing.ProductFixtures;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hand-written adapters against Gson's reflective adapter
+ *
+ * Sample JSON is generated from each model's fields and @SerializedName, so a
+ * field added to a model but not to its adapter fails the round trip.
+ */
+public class ModelTypeAdapterFactoryTest {
+
+    private static final List<Class<?>> MODELS = Arrays.asList(
+            Product.class, Brand.class, Category.class, CartItem.class, Order.class,
+            OrderItem.class, Profile.class, AuthResponse.class, User.class, ApiError.class,
+            HomeFeed.class, Store.class);
+
+    private static final int BENCHMARK_PRODUCTS = 10_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final Type PRODUCT_LIST = new TypeToken<List<Product>>() {}.getType();
+
+    private final Gson reflective = new Gson();
+    private final Gson precompiled = GsonProvider.get();
+
+    @Test
+    public void everyModelReadsLikeReflectiveGson() {
+        for (Class<?> model : MODELS) {
+            JsonObject sample = sample(model);
+            Object expected = reflective.fromJson(sample, model);
+            Object actual = precompiled.fromJson(sample, model);
+
+            // Reflective Gson knows every field, so this also checks the sample is complete
+            assertEquals(model.getSimpleName() + " sample", sample, reflective.toJsonTree(expected));
+            assertEquals(model.getSimpleName() + " read", reflective.toJsonTree(expected), reflective.toJsonTree(actual));
+        }
+    }
+
+    @Test
+    public void everyModelWritesLikeReflectiveGson() {
+        for (Class<?> model : MODELS) {
+            Object value = reflective.fromJson(sample(model), model);
+
+            assertEquals(model.getSimpleName() + " write",
+                    JsonParser.parseString(reflective.toJson(value)),
+                    JsonParser.parseString(precompiled.toJson(value)));
+        }
+    }
+
+    @Test
+    public void nullsKeepDefaultsAndUnknownFieldsAreSkipped() {
+        for (Class<?> model : MODELS) {
+            JsonObject withoutObjects = sample(model);
+            JsonObject withNulls = withoutObjects.deepCopy();
+            for (Map.Entry<String, JsonElement> field : sample(model).entrySet()) {
+                if (!field.getValue().isJsonPrimitive()) {
+                    withoutObjects.remove(field.getKey());
+                    withNulls.add(field.getKey(), JsonNull.INSTANCE);
+                }
+            }
+            withNulls.add("added_by_backend", JsonParser.parseString("{\"nested\":[1,{\"a\":null}]}"));
+
+            // A JSON null leaves the field as the constructor set it, like an absent field
+            Object expected = reflective.fromJson(withoutObjects, model);
+            Object actual = precompiled.fromJson(withNulls, model);
+            assertEquals(model.getSimpleName(), reflective.toJsonTree(expected), reflective.toJsonTree(actual));
+        }
+    }
+
+    @Test
+    public void productPageMatchesReflectiveGson() {
+        String json = ProductFixtures.productsJson(200);
+        List<Product> expected = reflective.fromJson(json, PRODUCT_LIST);
+        List<Product> actual = precompiled.fromJson(json, PRODUCT_LIST);
+
+        assertEquals(reflective.toJsonTree(expected), reflective.toJsonTree(actual));
+    }
+
+    @Test
+    public void precompiledParseAllocatesNoMoreThanReflective() {
+        String json = ProductFixtures.productsJson(BENCHMARK_PRODUCTS);
+
+        long reflectiveBytes = bytesPerParse(reflective, json);
+        long precompiledBytes = bytesPerParse(precompiled, json);
+
+        assertTrue("precompiled allocated " + precompiledBytes + " B/parse, reflective " + reflectiveBytes,
+                precompiledBytes <= reflectiveBytes);
+    }
+
+    /**
+     * Bytes allocated by this thread per parse of the product page, after warm-up
+     */
+    private static long bytesPerParse(Gson gson, String json) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            parse(gson, json);
+        }
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            parse(gson, json);
+        }
+        return (allocatedBytes() - allocatedBefore) / MEASURED_ROUNDS;
+    }
+
+    private static void parse(Gson gson, String json) {
+        List<Product> products = gson.fromJson(json, PRODUCT_LIST);
+        assertEquals(BENCHMARK_PRODUCTS, products.size());
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // ========== SAMPLE JSON ==========
+
+    /**
+     * One object with every serialized field of the model set to a non-default value
+     */
+    private static JsonObject sample(Class<?> model) {
+        JsonObject json = new JsonObject();
+        for (Field field : model.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                continue;
+            }
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            String name = serializedName != null ? serializedName.value() : field.getName();
+            json.add(name, sampleValue(name, field.getGenericType()));
+        }
+        return json;
+    }
+
+    private static JsonElement sampleValue(String name, Type type) {
+        if (type == String.class) {
+            return new JsonPrimitive(name + "-value");
+        }
+        if (type == int.class || type == Integer.class) {
+            return new JsonPrimitive(7);
+        }
+        if (type == long.class || type == Long.class) {
+            return new JsonPrimitive(3600L);
+        }
+        if (type == double.class || type == Double.class) {
+            return new JsonPrimitive(12.5);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return new JsonPrimitive(true);
+        }
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == List.class) {
+            Type element = ((ParameterizedType) type).getActualTypeArguments()[0];
+            JsonArray array = new JsonArray();
+            array.add(sampleValue(name + "-0", element));
+            array.add(sampleValue(name + "-1", element));
+            return array;
+        }
+        if (type instanceof Class) {
+            return sample((Class<?>) type);
+        }
+        throw new AssertionError("No sample value for " + type + " (" + name + ")");
+    }
+}
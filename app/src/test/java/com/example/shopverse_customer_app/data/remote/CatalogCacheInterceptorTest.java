@@ -0,0 +1,174 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import com.example.shopverse_customer_app.data.model.Category;
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @Cacheable hit/miss counters against a local server and a disk cache
+ */
+public class CatalogCacheInterceptorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private Cache cache;
+    private CatalogCacheInterceptor interceptor;
+    private OkHttpClient client;
+    private SupabaseRestApi restApi;
+    // Treat any stored entry as stale (max-age=0), so it is revalidated
+    private volatile boolean stale;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        cache = new Cache(folder.newFolder("http"), 1024 * 1024);
+        interceptor = new CatalogCacheInterceptor();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(interceptor.outcomeCounter())
+                .addInterceptor(chain -> chain.proceed(stale
+                        ? chain.request().newBuilder().header("Cache-Control", "max-age=0").build()
+                        : chain.request()))
+                .addNetworkInterceptor(interceptor)
+                .cache(cache)
+                .build();
+        restApi = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(SupabaseRestApi.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cache.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void freshEntryIsAHit() throws IOException {
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        categories();
+        categories();
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, interceptor.getMissCount());
+        assertEquals(1, interceptor.getHitCount());
+    }
+
+    @Test
+    public void notModifiedRevalidationIsAHitNotAMiss() throws IOException {
+        server.enqueue(new MockResponse().setBody("[]").setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        products();
+        stale = true;
+        products();
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, interceptor.getMissCount());
+        assertEquals(1, interceptor.getHitCount());
+        assertEquals(1, interceptor.getRevalidateCount());
+        assertEquals(1, interceptor.getNotModifiedCount());
+    }
+
+    @Test
+    public void changedRevalidationIsAMiss() throws IOException {
+        server.enqueue(new MockResponse().setBody("[]").setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setBody("[{}]").setHeader("ETag", "\"v2\""));
+
+        products();
+        stale = true;
+        products();
+
+        assertEquals(2, interceptor.getMissCount());
+        assertEquals(0, interceptor.getHitCount());
+        assertEquals(1, interceptor.getRevalidateCount());
+    }
+
+    @Test
+    public void unmarkedReadsOfCachedTablesAreNotCached() throws IOException {
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        // Detail and embedded brand reads hit products / categories like the @Cacheable lists
+        restApi.getProductById("*", "eq.p-1").execute();
+        restApi.getProductById("*", "eq.p-1").execute();
+        restApi.getCategoryBrands("category_id", RequestPriority.PREFETCH).execute();
+        restApi.getCategoryBrands("category_id", RequestPriority.PREFETCH).execute();
+
+        assertEquals(4, server.getRequestCount());
+        assertEquals(0, interceptor.getHitCount());
+        assertEquals(0, interceptor.getMissCount());
+    }
+
+    @Test
+    public void otherEndpointsAreNotCounted() throws IOException {
+        // Cacheable by its own headers, but not a @Cacheable method
+        server.enqueue(new MockResponse().setBody("[]").setHeader("Cache-Control", "max-age=60"));
+
+        get("/rest/v1/orders");
+        get("/rest/v1/orders");
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(0, interceptor.getHitCount());
+        assertEquals(0, interceptor.getMissCount());
+    }
+
+    @Test
+    public void syncReadWithUnchangedCursorReachesTheServer() throws IOException {
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[{\"product_id\":\"p-1\",\"updated_at\":\"2026-10-16T10:00:01Z\"}]"));
+
+        // Same cursor twice: the second sync must see the row changed in between
+        assertEquals(0, productChanges().size());
+        assertEquals(1, productChanges().size());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private List<Category> categories() throws IOException {
+        return restApi.getCategories("*", "category_name.asc").execute().body();
+    }
+
+    private List<Product> products() throws IOException {
+        return restApi.getProducts("*", "eq.c-1", null, "eq.active", null, null).execute().body();
+    }
+
+    private List<Product> productChanges() throws IOException {
+        return restApi.getProductChanges("product_id,updated_at", null, "gt.2026-10-16T10:00:00Z", null,
+                "updated_at.asc,product_id.asc", 500, RequestPriority.BACKGROUND).execute().body();
+    }
+
+    private void get(String path) throws IOException {
+        Request request = new Request.Builder().url(server.url(path)).build();
+        try (Response response = client.newCall(request).execute()) {
+            response.body().string();
+        }
+    }
+}
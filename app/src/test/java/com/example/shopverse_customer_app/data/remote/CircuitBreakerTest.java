@@ -0,0 +1,113 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CircuitBreaker state machine on a fake clock
+ */
+public class CircuitBreakerTest {
+
+    private long nowMillis;
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        nowMillis = 1_000_000;
+        breaker = new CircuitBreaker("GET /rest/v1/products", () -> nowMillis);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            breaker.onFailure();
+        }
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpensAfterOpenDurationAndAllowsOneProbe() {
+        open();
+        nowMillis += CircuitBreaker.OPEN_DURATION_MS - 1;
+        assertFalse(breaker.allowRequest());
+
+        nowMillis += 1;
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse("second probe while the first is in flight", breaker.allowRequest());
+    }
+
+    @Test
+    public void successfulProbeCloses() {
+        openAndClaimProbe();
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedProbeReopens() {
+        openAndClaimProbe();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        nowMillis += CircuitBreaker.OPEN_DURATION_MS;
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void abandonedProbeLetsNextCallProbe() {
+        openAndClaimProbe();
+        breaker.onAbandoned();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void countsTransitions() {
+        openAndClaimProbe();
+        breaker.onSuccess();
+
+        assertEquals(Long.valueOf(1), breaker.getTransitionCounts().get(CircuitBreaker.State.OPEN));
+        assertEquals(Long.valueOf(1), breaker.getTransitionCounts().get(CircuitBreaker.State.HALF_OPEN));
+        assertEquals(Long.valueOf(1), breaker.getTransitionCounts().get(CircuitBreaker.State.CLOSED));
+    }
+
+    private void open() {
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void openAndClaimProbe() {
+        open();
+        nowMillis += CircuitBreaker.OPEN_DURATION_MS;
+        assertTrue(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Single-flight sharing of @Coalesce calls against a local server
+ */
+public class CoalescingCallAdapterFactoryTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long SLOW_RESPONSE_MS = 300;
+
+    interface Api {
+        @Coalesce
+        @GET("rest/v1/categories")
+        Call<Map<String, String>> get(@Query("select") String select);
+    }
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private CoalescingCallAdapterFactory coalescer;
+    private Api api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+        coalescer = new CoalescingCallAdapterFactory();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addCallAdapterFactory(coalescer)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(Api.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentIdenticalGetsShareOneRequest() throws Exception {
+        server.enqueue(slow().setBody("{\"v\":\"1\"}"));
+
+        Result first = enqueue(api.get("*"));
+        Result second = enqueue(api.get("*"));
+
+        assertEquals("1", first.await().body().get("v"));
+        assertEquals("1", second.await().body().get("v"));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, coalescer.getNetworkCount());
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void differentQueriesAreNotShared() throws Exception {
+        server.enqueue(slow().setBody("{}"));
+        server.enqueue(slow().setBody("{}"));
+
+        Result first = enqueue(api.get("*"));
+        Result second = enqueue(api.get("category_id"));
+
+        first.await();
+        second.await();
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void everyWaiterReadsItsOwnErrorBody() throws Exception {
+        server.enqueue(slow().setResponseCode(503).setBody("{\"message\":\"busy\"}"));
+
+        Result first = enqueue(api.get("*"));
+        Result second = enqueue(api.get("*"));
+
+        // Reading one waiter's error body must not consume the other's
+        assertEquals("{\"message\":\"busy\"}", first.await().errorBody().string());
+        assertEquals("{\"message\":\"busy\"}", second.await().errorBody().string());
+        assertEquals(503, second.await().code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void oneWaiterCancelingKeepsTheRequestForTheOther() throws Exception {
+        server.enqueue(slow().setBody("{\"v\":\"1\"}"));
+
+        Call<Map<String, String>> canceled = api.get("*");
+        Result first = enqueue(canceled);
+        Result second = enqueue(api.get("*"));
+        canceled.cancel();
+
+        assertEquals("1", second.await().body().get("v"));
+        assertTrue(canceled.isCanceled());
+        assertFalse(first.done.await(SLOW_RESPONSE_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void lastWaiterCancelingCancelsTheRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(SLOW_RESPONSE_MS * 5, TimeUnit.MILLISECONDS));
+
+        Call<Map<String, String>> first = api.get("*");
+        Call<Map<String, String>> second = api.get("*");
+        enqueue(first);
+        enqueue(second);
+        assertNotNull(server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        first.cancel();
+        assertEquals(1, client.dispatcher().runningCallsCount());
+
+        second.cancel();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (client.dispatcher().runningCallsCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, client.dispatcher().runningCallsCount());
+    }
+
+    private static Result enqueue(Call<Map<String, String>> call) {
+        Result result = new Result();
+        call.enqueue(result);
+        return result;
+    }
+
+    private static MockResponse slow() {
+        return new MockResponse().setHeadersDelay(SLOW_RESPONSE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Result implements Callback<Map<String, String>> {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Response<Map<String, String>> response;
+
+        @Override
+        public void onResponse(@NonNull Call<Map<String, String>> call,
+                               @NonNull Response<Map<String, String>> response) {
+            this.response = response;
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<Map<String, String>> call, @NonNull Throwable t) {
+            done.countDown();
+        }
+
+        Response<Map<String, String>> await() throws InterruptedException {
+            assertTrue("no callback", done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertNotNull("failed", response);
+            return response;
+        }
+    }
+}
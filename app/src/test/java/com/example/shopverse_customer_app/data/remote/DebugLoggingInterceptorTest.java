@@ -0,0 +1,156 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import com.example.shopverse_customer_app.data.model.Product;
+import com.example.shopverse_customer_app.testing.ProductFixtures;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Debug logging against a local server with a large getProducts response
+ *
+ * Compares no logging, HttpLoggingInterceptor at BODY level (what the app used
+ * to install) and DebugLoggingInterceptor with the app's sample rate and body
+ * budget: bytes allocated per call, body parsed by Gson.
+ */
+public class DebugLoggingInterceptorTest {
+
+    private static final int PRODUCT_COUNT = 2_000;
+    private static final int WARM_UP_CALLS = 20;
+    private static final int MEASURED_CALLS = 60;
+    private static final Type PRODUCT_LIST = new TypeToken<List<Product>>() {}.getType();
+
+    private MockWebServer server;
+    private String payload;
+
+    @Before
+    public void setUp() throws IOException {
+        payload = ProductFixtures.productsJson(PRODUCT_COUNT);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setHeader("Authorization", "Bearer secret-token")
+                        .setBody(payload);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void bodyIsStreamedUnchanged() throws IOException {
+        OkHttpClient client = clientWith(new DebugLoggingInterceptor(1, 64));
+        try (Response response = client.newCall(productsRequest()).execute()) {
+            assertEquals(payload, response.body().string());
+        }
+    }
+
+    @Test
+    public void sampledPreviewAllocatesLessThanBodyLogging() throws IOException {
+        HttpLoggingInterceptor bodyLogging = new HttpLoggingInterceptor(message -> { });
+        bodyLogging.setLevel(HttpLoggingInterceptor.Level.BODY);
+
+        // JIT-compile the parsing path first so the first variant is not penalized
+        bytesPerCall(clientWith(null));
+
+        long body = bytesPerCall(clientWith(bodyLogging));
+        long debug = bytesPerCall(clientWith(new DebugLoggingInterceptor(10, 4 * 1024)));
+
+        // BODY copies the whole payload into a buffer and a String; the sampled preview does not
+        assertTrue("debug logging allocated " + debug + " B/call, BODY " + body,
+                debug < body - payload.length());
+    }
+
+    @Test
+    public void previewBudgetCountsBytesNotChars() throws IOException {
+        DebugLoggingInterceptor logging = new DebugLoggingInterceptor(1, 8);
+
+        // 12 UTF-8 bytes but only 6 chars, with no Content-Length to fall back on
+        assertEquals("\u00e9\u00e9\u00e9\u00e9... (truncated to 8 bytes)",
+                logging.responseBodyOf(responseOfUnknownLength("\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9")));
+        assertEquals("\u00e9\u00e9\u00e9\u00e9",
+                logging.responseBodyOf(responseOfUnknownLength("\u00e9\u00e9\u00e9\u00e9")));
+        assertEquals("12345678... (truncated to 8 bytes)",
+                logging.responseBodyOf(responseOfUnknownLength("123456789")));
+    }
+
+    private long bytesPerCall(OkHttpClient client) throws IOException {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            fetchProducts(client);
+        }
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            fetchProducts(client);
+        }
+        return (allocatedBytes() - allocatedBefore) / MEASURED_CALLS;
+    }
+
+    private Response responseOfUnknownLength(String body) {
+        return new Response.Builder()
+                .request(productsRequest())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(new Buffer().writeUtf8(body), null, -1))
+                .build();
+    }
+
+    private void fetchProducts(OkHttpClient client) throws IOException {
+        // execute() runs the interceptors on this thread, so its allocation counter sees them
+        try (Response response = client.newCall(productsRequest()).execute()) {
+            List<Product> products = GsonProvider.get().fromJson(response.body().charStream(), PRODUCT_LIST);
+            assertEquals(PRODUCT_COUNT, products.size());
+        }
+    }
+
+    private Request productsRequest() {
+        return new Request.Builder()
+                .url(server.url("/rest/v1/products?select=*"))
+                .header("apikey", "anon-key")
+                .build();
+    }
+
+    private static OkHttpClient clientWith(Interceptor logging) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        if (logging != null) {
+            builder.addInterceptor(logging);
+        }
+        return builder.build();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
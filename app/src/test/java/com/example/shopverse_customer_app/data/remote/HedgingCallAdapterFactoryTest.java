@@ -0,0 +1,158 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Request hedging against a local server that injects latency spikes
+ *
+ * Every SPIKE_EVERY-th request the server receives stalls for SPIKE_MS, the
+ * rest answer immediately. The same sequential workload runs with and
+ * without @Hedge; the test checks that hedging cuts caller-side p99 while
+ * staying within the hedge budget.
+ */
+public class HedgingCallAdapterFactoryTest {
+
+    private static final String ROUTE = "GET /rest/v1/products";
+    private static final long SPIKE_MS = 400;
+    private static final int SPIKE_EVERY = 25;
+    private static final int WARM_UP_CALLS = 40;
+    private static final int MEASURED_CALLS = 300;
+
+    interface CatalogApi {
+        @GET("rest/v1/products")
+        Call<ResponseBody> getProducts();
+
+        @Hedge
+        @GET("rest/v1/products")
+        Call<ResponseBody> getProductsHedged();
+    }
+
+    private MockWebServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HedgingCallAdapterFactory hedging;
+    private CatalogApi api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                boolean spike = requestCount.incrementAndGet() % SPIKE_EVERY == 0;
+                MockResponse response = new MockResponse().setBody("[]");
+                return spike ? response.setBodyDelay(SPIKE_MS, TimeUnit.MILLISECONDS) : response;
+            }
+        });
+        server.start();
+
+        hedging = new HedgingCallAdapterFactory(95);
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addCallAdapterFactory(hedging)
+                .build()
+                .create(CatalogApi.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void hedgingCutsTailLatency() throws Exception {
+        LatencyHistogram plain = run(false);
+        LatencyHistogram hedged = run(true);
+
+        assertTrue("spikes did not reach p99 without hedging: " + plain,
+                plain.getPercentileMillis(99) >= SPIKE_MS);
+        assertTrue("hedged p99 " + hedged.getPercentileMillis(99) + "ms not below half of "
+                        + plain.getPercentileMillis(99) + "ms",
+                hedged.getPercentileMillis(99) < plain.getPercentileMillis(99) / 2);
+        assertTrue(hedging.getHedgeWinCount() > 0);
+        // Budget: MAX_HEDGE_RATIO (5%) of hedgeable calls plus a burst of 2
+        assertTrue("hedges " + hedging.getHedgeCount(),
+                hedging.getHedgeCount() <= (WARM_UP_CALLS + MEASURED_CALLS) * 0.05 + 2);
+    }
+
+    @Test
+    public void hedgeDelayDoesNotDriftDown() throws Exception {
+        run(true);
+        long p95AfterFirstRound = hedging.getPrimaryLatency(ROUTE).getPercentileMillis(95);
+        run(true);
+        LatencyHistogram primary = hedging.getPrimaryLatency(ROUTE);
+
+        assertTrue("primary p95 fell from " + p95AfterFirstRound + "ms to " + primary.getPercentileMillis(95) + "ms",
+                primary.getPercentileMillis(95) >= p95AfterFirstRound);
+        // Hedged primaries stay in the tail at no less than the time they were outstanding
+        assertTrue(primary.getPercentileMillis(99) > hedging.getLatency(ROUTE).getPercentileMillis(50));
+        assertEquals(hedging.getLatency(ROUTE).getCount(), primary.getCount());
+    }
+
+    /**
+     * Sequential calls, caller-side latency of the measured ones
+     */
+    private LatencyHistogram run(boolean hedge) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < WARM_UP_CALLS + MEASURED_CALLS; i++) {
+            long start = System.nanoTime();
+            await(hedge ? api.getProductsHedged() : api.getProducts());
+            if (i >= WARM_UP_CALLS) {
+                latency.record(System.nanoTime() - start);
+            }
+        }
+        return latency;
+    }
+
+    private static void await(Call<ResponseBody> call) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                if (response.body() != null) {
+                    response.body().close();
+                }
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                failure.set(t);
+                done.countDown();
+            }
+        });
+        if (!done.await(5, TimeUnit.SECONDS)) {
+            fail("call did not finish");
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("call failed", failure.get());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Tag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Synchronous and asynchronous Retrofit calls admitted by the RequestScheduler
+ */
+public class PriorityCallAdapterFactoryTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long SLOW_RESPONSE_MS = 500;
+
+    interface Api {
+        @GET("rest/v1/products")
+        Call<ResponseBody> get(@Tag RequestPriority priority);
+
+        @Unscheduled
+        @GET("auth/v1/token")
+        Call<ResponseBody> getUnscheduled();
+    }
+
+    private MockWebServer server;
+    private ExecutorService executor;
+    private Api api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        executor = Executors.newCachedThreadPool();
+        // More dispatcher room than the scheduler allows, so only the scheduler holds calls back
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(SharedHttpClient.MAX_REQUESTS_PER_HOST * 2);
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient.Builder().dispatcher(dispatcher).build())
+                .addCallAdapterFactory(new PriorityCallAdapterFactory(new RequestScheduler(60_000)))
+                .build()
+                .create(Api.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void backgroundExecuteWaitsForInteractiveCall() throws Exception {
+        server.enqueue(slow());
+        server.enqueue(new MockResponse().setBody("[]"));
+        CountDownLatch interactiveDone = enqueue(RequestPriority.INTERACTIVE);
+        assertNotNull(server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        Future<Response<ResponseBody>> background = executor.submit(() -> execute(api.get(RequestPriority.BACKGROUND)));
+
+        // Held back while the interactive call runs
+        assertNull(server.takeRequest(SLOW_RESPONSE_MS / 2, TimeUnit.MILLISECONDS));
+        assertTrue(interactiveDone.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(background.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).isSuccessful());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void executeHoldsItsSlotUntilDone() throws Exception {
+        server.enqueue(slow());
+        server.enqueue(new MockResponse().setBody("[]"));
+        Future<Response<ResponseBody>> first = executor.submit(() -> execute(api.get(RequestPriority.BACKGROUND)));
+        assertNotNull(server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // BACKGROUND runs one call at a time
+        Future<Response<ResponseBody>> second = executor.submit(() -> execute(api.get(RequestPriority.BACKGROUND)));
+        assertNull(server.takeRequest(SLOW_RESPONSE_MS / 2, TimeUnit.MILLISECONDS));
+
+        assertTrue(first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).isSuccessful());
+        assertTrue(second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).isSuccessful());
+    }
+
+    @Test
+    public void cancelWakesQueuedExecute() throws Exception {
+        server.enqueue(slow());
+        CountDownLatch interactiveDone = enqueue(RequestPriority.INTERACTIVE);
+        assertNotNull(server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        Call<ResponseBody> call = api.get(RequestPriority.BACKGROUND);
+        Future<Response<ResponseBody>> background = executor.submit(() -> execute(call));
+        assertNull(server.takeRequest(SLOW_RESPONSE_MS / 5, TimeUnit.MILLISECONDS));
+        call.cancel();
+
+        try {
+            background.get(SLOW_RESPONSE_MS / 2, TimeUnit.MILLISECONDS);
+            fail("canceled call returned a response");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+        assertTrue(call.isCanceled());
+        assertTrue(interactiveDone.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void unscheduledCallSkipsAFullHost() throws Exception {
+        List<CountDownLatch> running = new ArrayList<>();
+        for (int i = 0; i < SharedHttpClient.MAX_REQUESTS_PER_HOST; i++) {
+            server.enqueue(slow());
+            running.add(enqueue(RequestPriority.INTERACTIVE));
+        }
+        for (int i = 0; i < SharedHttpClient.MAX_REQUESTS_PER_HOST; i++) {
+            assertNotNull(server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        // Every slot of the host is taken, like 401s waiting for a token refresh
+        Future<Response<ResponseBody>> refresh = executor.submit(() -> execute(api.getUnscheduled()));
+        assertEquals("/auth/v1/token", server.takeRequest(SLOW_RESPONSE_MS / 2, TimeUnit.MILLISECONDS).getPath());
+        assertTrue(refresh.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).isSuccessful());
+        for (CountDownLatch done : running) {
+            assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    private CountDownLatch enqueue(RequestPriority priority) {
+        CountDownLatch done = new CountDownLatch(1);
+        api.get(priority).enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                if (response.body() != null) {
+                    response.body().close();
+                }
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                done.countDown();
+            }
+        });
+        return done;
+    }
+
+    private static Response<ResponseBody> execute(Call<ResponseBody> call) throws IOException {
+        Response<ResponseBody> response = call.execute();
+        if (response.body() != null) {
+            response.body().close();
+        }
+        return response;
+    }
+
+    private static MockResponse slow() {
+        return new MockResponse().setBody("[]").setHeadersDelay(SLOW_RESPONSE_MS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * RealtimeClient against a local Phoenix channel stand-in on MockWebServer
+ */
+public class RealtimeClientTest {
+
+    private static final long HEARTBEAT_MS = 200;
+    private static final long RECONNECT_MIN_MS = 100;
+    private static final long TIMEOUT_MS = 5_000;
+    private static final String TOPIC = "realtime:public:products";
+
+    private MockWebServer server;
+    private final StandIn standIn = new StandIn();
+    private final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+    private final Semaphore subscribed = new Semaphore(0);
+    private RealtimeClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().withWebSocketUpgrade(standIn);
+            }
+        });
+        server.start();
+
+        String url = server.url("/realtime/v1/websocket?apikey=anon&vsn=1.0.0").toString()
+                .replaceFirst("^http", "ws");
+        client = new RealtimeClient(url, "public", "products", new RealtimeClient.Listener() {
+            @Override
+            public void onChange(String type, JsonObject record) {
+                changes.add(type + " " + record.get("product_id").getAsString());
+            }
+
+            @Override
+            public void onSubscribed() {
+                subscribed.release();
+            }
+        }, HEARTBEAT_MS, RECONNECT_MIN_MS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.stop();
+        server.shutdown();
+    }
+
+    @Test
+    public void joinsProductsChannelAndDeliversChanges() throws Exception {
+        client.start();
+
+        JsonObject join = standIn.awaitEvent("phx_join");
+        assertEquals(TOPIC, join.get("topic").getAsString());
+        JsonObject filter = join.getAsJsonObject("payload").getAsJsonObject("config")
+                .getAsJsonArray("postgres_changes").get(0).getAsJsonObject();
+        assertEquals("public", filter.get("schema").getAsString());
+        assertEquals("products", filter.get("table").getAsString());
+        awaitSubscribed();
+        assertTrue(client.isConnected());
+        // The open socket must not hold a slot of the shared REST dispatcher
+        assertEquals(0, SharedHttpClient.get().dispatcher().runningCallsCount());
+
+        standIn.push(change("UPDATE", "record", "p-1"));
+        standIn.push(change("DELETE", "old_record", "p-2"));
+        assertEquals("UPDATE p-1", changes.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals("DELETE p-2", changes.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void unansweredHeartbeatReconnectsAndRejoins() throws Exception {
+        standIn.answerHeartbeats = false;
+        client.start();
+        awaitSubscribed();
+
+        assertNotNull(standIn.awaitEvent("heartbeat"));
+        // The next tick finds the heartbeat unanswered and drops the socket
+        awaitSubscribed();
+        assertTrue(standIn.connectedAtNanos.size() >= 2);
+    }
+
+    @Test
+    public void reconnectsWithExponentialBackoff() throws Exception {
+        standIn.closeOnOpen = true;
+        client.start();
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (standIn.connectedAtNanos.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        List<Long> connects = standIn.connectedAtNanos;
+        assertTrue("only " + connects.size() + " connections", connects.size() >= 4);
+        for (int i = 1; i < 4; i++) {
+            long gapMs = TimeUnit.NANOSECONDS.toMillis(connects.get(i) - connects.get(i - 1));
+            long expectedMs = RECONNECT_MIN_MS << (i - 1);
+            assertTrue("gap " + i + " was " + gapMs + "ms, expected >= " + expectedMs + "ms",
+                    gapMs >= expectedMs);
+        }
+    }
+
+    @Test
+    public void refreshedTokenReachesLiveChannelAndNextJoin() throws Exception {
+        client.start();
+        JsonObject join = standIn.awaitEvent("phx_join");
+        awaitSubscribed();
+
+        client.setAccessToken("user-jwt-2");
+        JsonObject update = standIn.awaitEvent("access_token");
+        assertEquals(TOPIC, update.get("topic").getAsString());
+        assertEquals(join.get("ref").getAsString(), update.get("join_ref").getAsString());
+        assertEquals("user-jwt-2", update.getAsJsonObject("payload").get("access_token").getAsString());
+
+        // After a reconnect the join itself carries the refreshed token
+        standIn.closeCurrent();
+        JsonObject rejoin = standIn.awaitEvent("phx_join");
+        assertEquals("user-jwt-2", rejoin.getAsJsonObject("payload").get("access_token").getAsString());
+    }
+
+    private void awaitSubscribed() throws InterruptedException {
+        if (!subscribed.tryAcquire(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            fail("channel not subscribed");
+        }
+    }
+
+    private static String change(String type, String recordKey, String productId) {
+        return "{\"topic\":\"" + TOPIC + "\",\"event\":\"postgres_changes\",\"ref\":null,"
+                + "\"payload\":{\"data\":{\"type\":\"" + type + "\",\"" + recordKey + "\":"
+                + "{\"product_id\":\"" + productId + "\",\"stock\":3,\"unit_price\":199000.0}}}}";
+    }
+
+    /**
+     * Server side of the socket: acks joins and (optionally) heartbeats,
+     * records every client message
+     */
+    private static final class StandIn extends WebSocketListener {
+
+        final List<Long> connectedAtNanos = new CopyOnWriteArrayList<>();
+        final BlockingQueue<JsonObject> received = new LinkedBlockingQueue<>();
+        volatile boolean answerHeartbeats = true;
+        volatile boolean closeOnOpen = false;
+        private volatile WebSocket current;
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            connectedAtNanos.add(System.nanoTime());
+            current = webSocket;
+            if (closeOnOpen) {
+                webSocket.close(1001, "going away");
+            }
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            JsonObject message = JsonParser.parseString(text).getAsJsonObject();
+            received.add(message);
+            String event = message.get("event").getAsString();
+            if ("phx_join".equals(event) || ("heartbeat".equals(event) && answerHeartbeats)) {
+                webSocket.send("{\"topic\":\"" + message.get("topic").getAsString()
+                        + "\",\"event\":\"phx_reply\",\"ref\":\"" + message.get("ref").getAsString()
+                        + "\",\"payload\":{\"status\":\"ok\",\"response\":{}}}");
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(1000, null);
+        }
+
+        void push(String message) {
+            current.send(message);
+        }
+
+        void closeCurrent() {
+            current.close(1001, "going away");
+        }
+
+        JsonObject awaitEvent(String event) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (true) {
+                JsonObject message = received.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    throw new AssertionError("no " + event + " message");
+                }
+                if (event.equals(message.get("event").getAsString())) {
+                    return message;
+                }
+            }
+        }
+    }
+}
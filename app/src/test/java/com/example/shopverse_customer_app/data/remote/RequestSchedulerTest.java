@@ -0,0 +1,71 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * RequestScheduler admission: class order, reserved slots and aging
+ */
+public class RequestSchedulerTest {
+
+    private static final String HOST = "project.supabase.co";
+    private static final long MAX_QUEUE_WAIT_MS = 200;
+
+    private final RequestScheduler scheduler = new RequestScheduler(MAX_QUEUE_WAIT_MS);
+    private final List<RequestScheduler.Ticket> started = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void prefetchLeavesSlotsForInteractive() {
+        for (int i = 0; i < SharedHttpClient.MAX_REQUESTS_PER_HOST; i++) {
+            submit(RequestPriority.PREFETCH);
+        }
+        assertEquals(SharedHttpClient.MAX_REQUESTS_PER_HOST - 2, started.size());
+
+        RequestScheduler.Ticket interactive = submit(RequestPriority.INTERACTIVE);
+        assertTrue(started.contains(interactive));
+    }
+
+    @Test
+    public void backgroundWaitsForInteractiveToFinish() {
+        RequestScheduler.Ticket interactive = submit(RequestPriority.INTERACTIVE);
+        RequestScheduler.Ticket background = submit(RequestPriority.BACKGROUND);
+        assertFalse(started.contains(background));
+
+        interactive.finish();
+        assertTrue(started.contains(background));
+    }
+
+    @Test
+    public void queuedBackgroundStartsOnceAgedWithoutOtherActivity() throws InterruptedException {
+        // A long-running interactive call holds background work back, and nothing else is submitted or finished
+        submit(RequestPriority.INTERACTIVE);
+        CountDownLatch backgroundStarted = new CountDownLatch(1);
+        long submittedAt = System.nanoTime();
+        scheduler.submit(RequestPriority.BACKGROUND, HOST, ticket -> backgroundStarted.countDown());
+
+        assertTrue("aged call never started", backgroundStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - submittedAt >= TimeUnit.MILLISECONDS.toNanos(MAX_QUEUE_WAIT_MS));
+    }
+
+    @Test
+    public void canceledTicketNeverStarts() {
+        submit(RequestPriority.INTERACTIVE);
+        RequestScheduler.Ticket background = submit(RequestPriority.BACKGROUND);
+
+        assertTrue(background.cancel());
+        assertFalse(started.contains(background));
+        assertFalse(background.cancel());
+    }
+
+    private RequestScheduler.Ticket submit(RequestPriority priority) {
+        return scheduler.submit(priority, HOST, started::add);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ResilienceInterceptor against a local server: retries and breaker bookkeeping
+ */
+public class ResilienceInterceptorTest {
+
+    private static final String PRODUCTS = "/rest/v1/products";
+
+    private MockWebServer server;
+    private ScheduledExecutorService canceller;
+    private long nowMillis;
+    private ResilienceInterceptor interceptor;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        canceller = Executors.newSingleThreadScheduledExecutor();
+        nowMillis = 1_000_000;
+        interceptor = new ResilienceInterceptor(() -> nowMillis);
+        client = new OkHttpClient.Builder()
+                .addInterceptor(interceptor)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        canceller.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void retriesTransientGet() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        try (Response response = client.newCall(get()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, interceptor.getRetryCount());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker("GET").getState());
+    }
+
+    @Test
+    public void halfOpenProbeSuccessCloses() throws IOException {
+        openBreaker();
+        nowMillis += CircuitBreaker.OPEN_DURATION_MS;
+
+        server.enqueue(new MockResponse().setBody("{}"));
+        try (Response response = client.newCall(post()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker("POST").getState());
+    }
+
+    @Test
+    public void halfOpenProbeFailureReopens() throws IOException {
+        openBreaker();
+        nowMillis += CircuitBreaker.OPEN_DURATION_MS;
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        try (Response response = client.newCall(post()).execute()) {
+            assertEquals(500, response.code());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker("POST").getState());
+        assertShortCircuited();
+    }
+
+    @Test
+    public void canceledProbeReleasesHalfOpenSlot() throws IOException {
+        openBreaker();
+        nowMillis += CircuitBreaker.OPEN_DURATION_MS;
+
+        // The probe never gets an answer and is canceled, like a hedge loser
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        Call probe = client.newCall(post());
+        canceller.schedule(probe::cancel, 200, TimeUnit.MILLISECONDS);
+        try {
+            probe.execute().close();
+            fail("canceled probe returned a response");
+        } catch (IOException expected) {
+            assertTrue(probe.isCanceled());
+        }
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker("POST").getState());
+
+        // The next call may probe and closes the breaker
+        server.enqueue(new MockResponse().setBody("{}"));
+        try (Response response = client.newCall(post()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker("POST").getState());
+    }
+
+    @Test
+    public void cancelDuringBackoffStopsRetrying() {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "3"));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        Call call = client.newCall(get());
+        canceller.schedule(call::cancel, 200, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try {
+            call.execute().close();
+            fail("canceled call returned a response");
+        } catch (IOException expected) {
+            assertEquals("Canceled", expected.getMessage());
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("canceled call waited " + tookMs + "ms of a 3 s backoff", tookMs < 1_000);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, interceptor.getRetryCount());
+    }
+
+    /**
+     * POSTs are not retried, so each 503 is exactly one breaker failure
+     */
+    private void openBreaker() throws IOException {
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            client.newCall(post()).execute().close();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker("POST").getState());
+    }
+
+    private void assertShortCircuited() {
+        int requestsBefore = server.getRequestCount();
+        try {
+            client.newCall(post()).execute().close();
+            fail("open breaker let a call through");
+        } catch (IOException expected) {
+            assertEquals(requestsBefore, server.getRequestCount());
+        }
+    }
+
+    private CircuitBreaker breaker(String method) {
+        return interceptor.getBreakers().get(method + " " + PRODUCTS);
+    }
+
+    private Request get() {
+        return new Request.Builder().url(server.url(PRODUCTS)).build();
+    }
+
+    private Request post() {
+        return new Request.Builder()
+                .url(server.url(PRODUCTS))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+    }
+}
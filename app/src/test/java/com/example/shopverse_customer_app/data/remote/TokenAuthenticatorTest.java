@@ -0,0 +1,205 @@
+package com.example.shopverse_customer_app.data.remote;
+
+import androidx.annotation.NonNull;
+
+import com.example.shopverse_customer_app.testing.InMemorySharedPreferences;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+import com.example.shopverse_customer_app.utils.TokenManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Session refresh against a local auth server: single-flight 401 handling
+ * and the proactive renewal
+ */
+public class TokenAuthenticatorTest {
+
+    private static final int CONCURRENT_CALLS = 5;
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final String REFRESH_PATH = "/auth/v1/token";
+
+    private MockWebServer server;
+    private final AtomicInteger refreshRequests = new AtomicInteger();
+    private final List<String> refreshBodies = new CopyOnWriteArrayList<>();
+    private final List<String> announcedTokens = new CopyOnWriteArrayList<>();
+    private final CountDownLatch allUnauthorized = new CountDownLatch(CONCURRENT_CALLS);
+    private volatile MockResponse refreshResponse;
+
+    private AuthInterceptor authInterceptor;
+    private TokenAuthenticator authenticator;
+    private TokenManager tokenManager;
+    private OkHttpClient client;
+    private SupabaseAuthApi authApi;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) throws InterruptedException {
+                if (request.getPath().startsWith(REFRESH_PATH)) {
+                    refreshRequests.incrementAndGet();
+                    refreshBodies.add(request.getBody().readUtf8());
+                    // Answer once every call got its 401, so they all race for the refresh
+                    allUnauthorized.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    return refreshResponse;
+                }
+                if ("Bearer new-token".equals(request.getHeader("Authorization"))) {
+                    return new MockResponse().setBody("[]");
+                }
+                allUnauthorized.countDown();
+                return new MockResponse().setResponseCode(401).setBody("{\"message\":\"JWT expired\"}");
+            }
+        });
+        server.start();
+
+        tokenManager = new TokenManager(new InMemorySharedPreferences());
+        authInterceptor = new AuthInterceptor();
+        authenticator = new TokenAuthenticator(authInterceptor);
+        authenticator.setTokenListener(announcedTokens::add);
+        client = new OkHttpClient.Builder()
+                .addInterceptor(authInterceptor)
+                .authenticator(authenticator)
+                .build();
+        authApi = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(SupabaseAuthApi.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        authenticator.cancelScheduledRefresh();
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrent401sRefreshOnceAndAllReplay() throws Exception {
+        refreshResponse = session("new-token", "refresh-2");
+        signIn("old-token", "refresh-1", 3600);
+
+        CountDownLatch done = new CountDownLatch(CONCURRENT_CALLS);
+        List<Integer> codes = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            Request request = new Request.Builder().url(server.url("/rest/v1/profiles?id=" + i)).build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    codes.add(response.code());
+                    response.close();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(CONCURRENT_CALLS, codes.size());
+        for (int code : codes) {
+            assertEquals(200, code);
+        }
+        assertEquals(1, refreshRequests.get());
+        assertTrue(refreshBodies.get(0).contains("refresh-1"));
+        assertEquals(1, authenticator.getRefreshCount());
+        assertEquals(CONCURRENT_CALLS, authenticator.getReplayCount());
+        assertEquals("new-token", tokenManager.getAccessToken());
+        assertEquals("refresh-2", tokenManager.getRefreshToken());
+        assertEquals("new-token", authInterceptor.getAccessToken());
+        assertEquals(Collections.singletonList("new-token"), announcedTokens);
+    }
+
+    @Test
+    public void rejectedProactiveRefreshEndsSession() throws Exception {
+        refreshResponse = new MockResponse().setResponseCode(400)
+                .setBody("{\"error\":\"invalid_grant\",\"error_description\":\"Invalid Refresh Token\"}");
+        skipUnauthorizedWait();
+
+        // Already inside the renewal margin, so the renewal runs right away
+        signIn("old-token", "revoked", 0);
+
+        awaitRefreshRequests(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (tokenManager.getAccessToken() != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(tokenManager.getAccessToken());
+        assertNull(tokenManager.getRefreshToken());
+        assertNull(authInterceptor.getAccessToken());
+        assertEquals(Collections.singletonList((String) null), announcedTokens);
+    }
+
+    @Test
+    public void failedProactiveRefreshKeepsSession() throws Exception {
+        refreshResponse = new MockResponse().setResponseCode(503);
+        skipUnauthorizedWait();
+
+        signIn("old-token", "refresh-1", 0);
+
+        awaitRefreshRequests(1);
+        Thread.sleep(200);
+        // A server error can be retried later, so the user stays signed in
+        assertEquals("old-token", tokenManager.getAccessToken());
+        assertEquals("refresh-1", tokenManager.getRefreshToken());
+        assertEquals("old-token", authInterceptor.getAccessToken());
+        assertTrue(announcedTokens.isEmpty());
+    }
+
+    private void signIn(String accessToken, String refreshToken, long expiresInSeconds) {
+        tokenManager.saveAuthSession(accessToken, refreshToken, "user-1", "user@example.com", expiresInSeconds);
+        authInterceptor.setAccessToken(accessToken);
+        authenticator.attach(tokenManager, authApi);
+    }
+
+    private void skipUnauthorizedWait() {
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            allUnauthorized.countDown();
+        }
+    }
+
+    private void awaitRefreshRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (refreshRequests.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, refreshRequests.get());
+    }
+
+    private static MockResponse session(String accessToken, String refreshToken) {
+        return new MockResponse().setBody("{\"access_token\":\"" + accessToken + "\",\"refresh_token\":\""
+                + refreshToken + "\",\"expires_in\":3600,\"token_type\":\"bearer\","
+                + "\"user\":{\"id\":\"user-1\",\"email\":\"user@example.com\"}}");
+    }
+}
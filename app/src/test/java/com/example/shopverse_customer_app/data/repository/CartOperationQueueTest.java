@@ -0,0 +1,236 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import com.example.shopverse_customer_app.data.local.CartOperationDao;
+import com.example.shopverse_customer_app.data.local.CartOperationEntity;
+import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CartOperationQueue.flush() against a local server and an in-memory log
+ */
+public class CartOperationQueueTest {
+
+    private static final String USER = "user-1";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private MockWebServer server;
+    private ExecutorService flusher;
+    private FakeDao dao;
+    private CartOperationQueue queue;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        flusher = Executors.newSingleThreadExecutor();
+        dao = new FakeDao();
+        SupabaseRestApi restApi = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(SupabaseRestApi.class);
+        queue = new CartOperationQueue(null, dao, restApi, null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        flusher.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void sendsOnlyNewestChangePerProduct() throws Exception {
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 2));
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 3));
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 4));
+        server.enqueue(updated("p-1", 4));
+
+        assertTrue(queue.flush());
+
+        assertEquals(1, server.getRequestCount());
+        assertTrue(takeBody().contains("\"quantity\":4"));
+        assertEquals(2, queue.getCollapsedCount());
+        assertEquals(0, dao.count());
+    }
+
+    @Test
+    public void flushesOldestProductFirst() throws Exception {
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-2", 1));
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 2));
+        dao.insert(CartOperationEntity.delete(USER, "p-2"));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(updated("p-1", 2));
+
+        assertTrue(queue.flush());
+
+        RecordedRequest first = server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals("DELETE", first.getMethod());
+        assertTrue(first.getPath().contains("product_id=eq.p-2"));
+        assertTrue(takeBody().contains("\"quantity\":2"));
+        assertEquals(0, dao.count());
+    }
+
+    @Test
+    public void unreachableServerKeepsTheChange() throws Exception {
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 2));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        assertFalse(queue.flush());
+        assertEquals(1, dao.count());
+    }
+
+    @Test
+    public void newerChangeCancelsSupersededWrite() throws Exception {
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 2));
+        // The first write never gets an answer; only the cancel ends it
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(updated("p-1", 5));
+
+        Future<Boolean> flush = flusher.submit(queue::flush);
+        assertTrue(takeBody().contains("\"quantity\":2"));
+
+        CartOperationEntity newer = CartOperationEntity.setQuantity(USER, "p-1", 5);
+        dao.insert(newer);
+        queue.cancelSuperseded(newer);
+
+        assertTrue(flush.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(takeBody().contains("\"quantity\":5"));
+        assertEquals(2, queue.getRequestCount());
+        assertEquals(1, queue.getCancelledCount());
+        assertEquals(1, queue.getCollapsedCount());
+        assertEquals(0, dao.count());
+    }
+
+    @Test
+    public void changeOfAnotherProductDoesNotCancel() throws Exception {
+        dao.insert(CartOperationEntity.setQuantity(USER, "p-1", 2));
+        server.enqueue(updated("p-1", 2).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(updated("p-2", 1));
+
+        Future<Boolean> flush = flusher.submit(queue::flush);
+        assertTrue(takeBody().contains("\"quantity\":2"));
+
+        CartOperationEntity other = CartOperationEntity.setQuantity(USER, "p-2", 1);
+        dao.insert(other);
+        queue.cancelSuperseded(other);
+
+        assertTrue(flush.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, queue.getCancelledCount());
+        assertEquals(0, dao.count());
+    }
+
+    @Test
+    public void cancelWithNothingInFlightIsHarmless() throws Exception {
+        CartOperationEntity operation = CartOperationEntity.setQuantity(USER, "p-1", 2);
+        dao.insert(operation);
+        queue.cancelSuperseded(operation);
+        server.enqueue(updated("p-1", 2));
+
+        assertTrue(queue.flush());
+        assertEquals(0, queue.getCancelledCount());
+        assertEquals(0, dao.count());
+    }
+
+    private String takeBody() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("no request", request);
+        assertEquals("PATCH", request.getMethod());
+        return request.getBody().readUtf8();
+    }
+
+    private static MockResponse updated(String productId, int quantity) {
+        return new MockResponse().setBody("[{\"user_id\":\"" + USER + "\",\"product_id\":\"" + productId
+                + "\",\"quantity\":" + quantity + "}]");
+    }
+
+    /**
+     * The cart_operations queries over a sorted map
+     */
+    private static final class FakeDao extends CartOperationDao {
+
+        private final TreeMap<Long, CartOperationEntity> rows = new TreeMap<>();
+        private long nextId = 1;
+
+        @Override
+        public synchronized long insert(CartOperationEntity operation) {
+            operation.id = nextId++;
+            rows.put(operation.id, operation);
+            return operation.id;
+        }
+
+        @Override
+        public synchronized CartOperationEntity getOldest() {
+            return rows.isEmpty() ? null : rows.firstEntry().getValue();
+        }
+
+        @Override
+        public synchronized CartOperationEntity getLatest(String userId, String productId) {
+            CartOperationEntity latest = null;
+            for (CartOperationEntity operation : rows.values()) {
+                if (operation.userId.equals(userId) && operation.productId.equals(productId)) {
+                    latest = operation;
+                }
+            }
+            return latest;
+        }
+
+        @Override
+        public synchronized List<CartOperationEntity> getPending(String userId) {
+            List<CartOperationEntity> pending = new ArrayList<>();
+            for (CartOperationEntity operation : rows.values()) {
+                if (operation.userId.equals(userId)) {
+                    pending.add(operation);
+                }
+            }
+            return pending;
+        }
+
+        @Override
+        public synchronized int deleteUpTo(String userId, String productId, long upToId) {
+            int deleted = 0;
+            Iterator<CartOperationEntity> iterator = rows.headMap(upToId, true).values().iterator();
+            while (iterator.hasNext()) {
+                CartOperationEntity operation = iterator.next();
+                if (operation.userId.equals(userId) && operation.productId.equals(productId)) {
+                    iterator.remove();
+                    deleted++;
+                }
+            }
+            return deleted;
+        }
+
+        @Override
+        public synchronized int count() {
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import com.example.shopverse_customer_app.data.model.CartItem;
+import com.example.shopverse_customer_app.data.remote.SupabaseRestApi;
+import com.example.shopverse_customer_app.utils.GsonProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CartRepository.incrementCartItem() against a local server, including the
+ * fallback where the add_to_cart RPC is not deployed
+ */
+public class CartRepositoryTest {
+
+    private static final String USER = "user-1";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private MockWebServer server;
+    private CartRepository repository;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        SupabaseRestApi restApi = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(SupabaseRestApi.class);
+        repository = new CartRepository(restApi);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void rpcAddsOnTheServer() throws Exception {
+        server.enqueue(new MockResponse().setBody(row("p-1", 4)));
+
+        Result result = increment("p-1", 1);
+
+        assertEquals(4, result.item.getQuantity());
+        assertEquals(1, server.getRequestCount());
+        assertEquals("/rest/v1/rpc/add_to_cart", take().getPath());
+    }
+
+    @Test
+    public void withoutRpcAddsToCurrentQuantity() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody("[" + row("p-1", 3) + "]"));
+        server.enqueue(new MockResponse().setBody("[" + row("p-1", 4) + "]"));
+
+        Result result = increment("p-1", 1);
+
+        assertNull(result.error);
+        assertEquals(4, result.item.getQuantity());
+        take(); // RPC
+        assertEquals("GET", take().getMethod());
+        RecordedRequest write = take();
+        assertEquals("PATCH", write.getMethod());
+        // Written only while the row still holds the quantity read
+        assertEquals("eq.3", write.getRequestUrl().queryParameter("quantity"));
+        assertTrue(write.getBody().readUtf8().contains("\"quantity\":4"));
+    }
+
+    @Test
+    public void withoutRpcInsertsMissingItem() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setResponseCode(201).setBody("[" + row("p-1", 2) + "]"));
+
+        Result result = increment("p-1", 2);
+
+        assertEquals(2, result.item.getQuantity());
+        take();
+        take();
+        RecordedRequest insert = take();
+        assertEquals("POST", insert.getMethod());
+        // A plain insert, not an upsert that would overwrite a row added meanwhile
+        assertNull(insert.getRequestUrl().queryParameter("on_conflict"));
+        assertTrue(insert.getBody().readUtf8().contains("\"quantity\":2"));
+    }
+
+    @Test
+    public void withoutRpcConcurrentChangeIsAnError() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody("[" + row("p-1", 3) + "]"));
+        // Quantity is no longer 3: the conditional PATCH matches no row
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        Result result = increment("p-1", 1);
+
+        assertNull(result.item);
+        assertNotNull(result.error);
+        assertEquals(3, server.getRequestCount());
+    }
+
+    private Result increment(String productId, int quantity) throws InterruptedException {
+        Result result = new Result();
+        repository.incrementCartItem(USER, productId, quantity, result);
+        assertTrue("no callback", result.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private RecordedRequest take() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("no request", request);
+        return request;
+    }
+
+    private static String row(String productId, int quantity) {
+        return "{\"user_id\":\"" + USER + "\",\"product_id\":\"" + productId + "\",\"quantity\":" + quantity + "}";
+    }
+
+    private static final class Result implements CartRepository.CartItemCallback {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile CartItem item;
+        volatile String error;
+
+        @Override
+        public void onSuccess(CartItem cartItem) {
+            item = cartItem;
+            done.countDown();
+        }
+
+        @Override
+        public void onError(String error) {
+            this.error = error;
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * PostgREST seek filters built by CatalogSyncEngine for delta pages
+ */
+public class CatalogSyncEngineTest {
+
+    private static final String T = "2026-10-16T10:00:00.123456+00:00";
+
+    @Test
+    public void singleKeySeekTakesLaterRowsOrSameTimeWithHigherKey() {
+        assertEquals("(updated_at.gt.\"" + T + "\",and(updated_at.eq.\"" + T + "\",product_id.gt.\"p-7\"))",
+                CatalogSyncEngine.seekAfter("updated_at", new String[]{"product_id"}, T, new String[]{"p-7"}));
+    }
+
+    @Test
+    public void compositeKeySeekMatchesEarlierKeysBeforeComparingTheNext() {
+        assertEquals("(updated_at.gt.\"" + T + "\""
+                        + ",and(updated_at.eq.\"" + T + "\",category_id.gt.\"c-1\")"
+                        + ",and(updated_at.eq.\"" + T + "\",category_id.eq.\"c-1\",brand_id.gt.\"b-2\"))",
+                CatalogSyncEngine.seekAfter("updated_at", new String[]{"category_id", "brand_id"},
+                        T, new String[]{"c-1", "b-2"}));
+    }
+
+    @Test
+    public void seekValuesAreQuotedAndEscaped() {
+        assertEquals("(deleted_at.gt.\"t\",and(deleted_at.eq.\"t\",id.gt.\"a,b\\\"c\\\\d\"))",
+                CatalogSyncEngine.seekAfter("deleted_at", new String[]{"id"}, "t", new String[]{"a,b\"c\\d"}));
+    }
+}
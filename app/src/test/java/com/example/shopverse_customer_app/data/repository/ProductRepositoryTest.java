@@ -0,0 +1,54 @@
+package com.example.shopverse_customer_app.data.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * PostgREST order and filter strings built by ProductRepository
+ */
+public class ProductRepositoryTest {
+
+    @Test
+    public void defaultSortPagesByProductId() {
+        assertEquals("product_id.asc", ProductRepository.offsetOrder(null));
+        assertEquals("product_id.asc", ProductRepository.offsetOrder(""));
+    }
+
+    @Test
+    public void sortWithTiesGetsProductIdTiebreaker() {
+        assertEquals("product_name.asc,product_id.asc", ProductRepository.offsetOrder("product_name.asc"));
+        assertEquals("unit_price.desc,product_id.asc", ProductRepository.offsetOrder(ProductRepository.ORDER_PRICE_DESC));
+    }
+
+    @Test
+    public void orderAlreadyEndingInProductIdIsKept() {
+        assertEquals("unit_price.desc,product_id.desc",
+                ProductRepository.offsetOrder("unit_price.desc,product_id.desc"));
+    }
+
+    @Test
+    public void ascendingSeekTakesHigherPriceOrSamePriceWithHigherId() {
+        assertEquals("(unit_price.gt.10.5,and(unit_price.eq.10.5,product_id.gt.p-7))",
+                ProductRepository.seekAfter(ProductRepository.ORDER_PRICE_ASC,
+                        new ProductRepository.ProductCursor(10.5, "p-7")));
+    }
+
+    @Test
+    public void descendingSeekTakesLowerPriceOrSamePriceWithLowerId() {
+        assertEquals("(unit_price.lt.10.5,and(unit_price.eq.10.5,product_id.lt.p-7))",
+                ProductRepository.seekAfter(ProductRepository.ORDER_PRICE_DESC,
+                        new ProductRepository.ProductCursor(10.5, "p-7")));
+    }
+
+    @Test
+    public void seekPriceIsWrittenInPlainNotation() {
+        // Equal prices must compare equal on the server, so no exponent or trailing double noise
+        assertEquals("(unit_price.gt.25000000,and(unit_price.eq.25000000,product_id.gt.p-1))",
+                ProductRepository.seekAfter(ProductRepository.ORDER_PRICE_ASC,
+                        new ProductRepository.ProductCursor(2.5E7, "p-1")));
+        assertEquals("(unit_price.gt.0.1,and(unit_price.eq.0.1,product_id.gt.p-1))",
+                ProductRepository.seekAfter(ProductRepository.ORDER_PRICE_ASC,
+                        new ProductRepository.ProductCursor(0.1, "p-1")));
+    }
+}
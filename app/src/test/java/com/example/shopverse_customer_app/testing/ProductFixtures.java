@@ -0,0 +1,60 @@
+package com.example.shopverse_customer_app.testing;
+
+import java.util.Locale;
+
+/**
+ * Product payloads shaped like PostgREST responses of /rest/v1/products
+ */
+public final class ProductFixtures {
+
+    private ProductFixtures() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * JSON array of count products with the card and detail columns filled in
+     */
+    public static String productsJson(int count) {
+        StringBuilder json = new StringBuilder(count * 600).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(productJson(i));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * One product row, including the embedded brand and category
+     */
+    public static String productJson(int index) {
+        String id = uuid(index);
+        return String.format(Locale.US,
+                "{\"product_id\":\"%s\",\"category_id\":\"%s\",\"brand_id\":\"%s\","
+                        + "\"product_media\":[\"https://cdn.example.com/p/%d/1.jpg\",\"https://cdn.example.com/p/%d/2.jpg\"],"
+                        + "\"product_name\":\"Điện thoại mẫu %d\",\"stock\":%d,\"unit_price\":%d.0,"
+                        + "\"description\":\"%s\",\"status\":\"%s\","
+                        + "\"updated_at\":\"2026-10-%02dT08:00:00.000000+00:00\",\"deleted_at\":null,"
+                        + "\"brands\":{\"brand_id\":\"%s\",\"brand_name\":\"Brand %d\"},"
+                        + "\"categories\":{\"category_id\":\"%s\",\"category_name\":\"Category %d\"}}",
+                id, uuid(1_000_000 + index % 12), uuid(2_000_000 + index % 40),
+                index, index, index, index % 50, 100_000 + index * 1_000L,
+                description(index), index % 17 == 0 ? "inactive" : "active", 1 + index % 28,
+                uuid(2_000_000 + index % 40), index % 40,
+                uuid(1_000_000 + index % 12), index % 12);
+    }
+
+    private static String description(int index) {
+        return "Màn hình 6.7 inch, chip thế hệ mới, pin 5000 mAh, sạc nhanh 45W, "
+                + "camera 50MP với chống rung quang học, khung nhôm, kháng nước IP68. "
+                + "Phiên bản " + index + ", bảo hành 12 tháng chính hãng.";
+    }
+
+    /**
+     * Deterministic UUID-shaped id
+     */
+    public static String uuid(long value) {
+        return String.format(Locale.US, "00000000-0000-4000-8000-%012d", value);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.shopverse_customer_app.ui.cart;
+
+import com.example.shopverse_customer_app.data.model.CartItem;
+import com.example.shopverse_customer_app.data.model.Product;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * CartState: running totals, selection across reloads and copy-on-write rows
+ */
+public class CartStateTest {
+
+    private static final double DELTA = 1e-6;
+
+    private final CartState state = new CartState();
+
+    @Before
+    public void setUp() {
+        state.replaceAll(Arrays.asList(
+                item("p-1", 100_000, 1),
+                item("p-2", 250_000, 2),
+                item("p-3", 40_000, 3)));
+    }
+
+    @Test
+    public void subtotalFollowsEveryMutation() {
+        assertEquals(0.0, state.getSelectedSubtotal(), DELTA);
+
+        state.toggleSelected("p-1");
+        state.toggleSelected("p-2");
+        assertEquals(600_000, state.getSelectedSubtotal(), DELTA);
+        assertEquals(2, state.getSelectedCount());
+        assertFalse(state.isAllSelected());
+
+        state.setQuantity("p-2", 1);
+        assertEquals(350_000, state.getSelectedSubtotal(), DELTA);
+        // Unselected rows do not count
+        state.setQuantity("p-3", 10);
+        assertEquals(350_000, state.getSelectedSubtotal(), DELTA);
+
+        state.selectAll(true);
+        assertEquals(750_000, state.getSelectedSubtotal(), DELTA);
+        assertTrue(state.isAllSelected());
+
+        state.remove("p-3");
+        assertEquals(350_000, state.getSelectedSubtotal(), DELTA);
+        assertTrue(state.isAllSelected());
+
+        state.selectAll(false);
+        assertEquals(0.0, state.getSelectedSubtotal(), DELTA);
+        assertEquals(0, state.getSelectedCount());
+    }
+
+    @Test
+    public void subtotalMatchesRescanAfterManyChanges() {
+        for (int i = 0; i < 1_000; i++) {
+            String productId = "p-" + (1 + i % 3);
+            if (i % 7 == 0) {
+                state.toggleSelected(productId);
+            } else {
+                state.setQuantity(productId, 1 + i % 5);
+            }
+            assertEquals("after change " + i, rescan(), state.getSelectedSubtotal(), DELTA);
+        }
+    }
+
+    @Test
+    public void changedPriceMovesSubtotalOnRefresh() {
+        state.toggleSelected("p-1");
+        Product product = state.get("p-1").getProduct();
+
+        product.setUnitPrice(80_000); // Patched in place by ProductLiveUpdates
+        assertTrue(state.refreshProduct("p-1"));
+
+        assertEquals(80_000, state.getSelectedSubtotal(), DELTA);
+    }
+
+    @Test
+    public void reloadKeepsSelectionOfProductsStillInCart() {
+        state.toggleSelected("p-1");
+        state.toggleSelected("p-3");
+
+        state.replaceAll(Arrays.asList(
+                item("p-1", 100_000, 4),
+                item("p-2", 250_000, 2),
+                item("p-4", 10_000, 1)));
+
+        assertTrue(state.get("p-1").isSelected());
+        assertFalse(state.get("p-2").isSelected());
+        assertFalse(state.get("p-4").isSelected());
+        assertEquals(1, state.getSelectedCount());
+        // Totals come from the reloaded rows, not the old ones
+        assertEquals(400_000, state.getSelectedSubtotal(), DELTA);
+    }
+
+    @Test
+    public void reloadDoesNotTakeSelectionFromServerRows() {
+        CartItem loaded = item("p-2", 250_000, 2);
+        loaded.setSelected(true);
+
+        state.replaceAll(Arrays.asList(item("p-1", 100_000, 1), loaded));
+
+        assertFalse(state.get("p-2").isSelected());
+        // The caller's row is copied, not adopted
+        assertNotSame(loaded, state.get("p-2"));
+        assertTrue(loaded.isSelected());
+    }
+
+    @Test
+    public void mutationReplacesOnlyTheChangedRow() {
+        List<CartItem> before = state.snapshot();
+
+        state.setQuantity("p-2", 5);
+        List<CartItem> after = state.snapshot();
+
+        assertSame(before.get(0), after.get(0));
+        assertNotSame(before.get(1), after.get(1));
+        assertSame(before.get(2), after.get(2));
+        // The old snapshot still shows the old quantity
+        assertEquals(2, before.get(1).getQuantity());
+        assertEquals(5, after.get(1).getQuantity());
+    }
+
+    @Test
+    public void selectAllCopiesOnlyRowsThatChange() {
+        state.toggleSelected("p-2");
+        List<CartItem> before = state.snapshot();
+
+        state.selectAll(true);
+        List<CartItem> after = state.snapshot();
+
+        assertNotSame(before.get(0), after.get(0));
+        assertSame(before.get(1), after.get(1));
+        assertNotSame(before.get(2), after.get(2));
+    }
+
+    @Test
+    public void snapshotIsSharedUntilNextMutationAndUnmodifiable() {
+        List<CartItem> snapshot = state.snapshot();
+        assertSame(snapshot, state.snapshot());
+
+        // No-op changes keep the snapshot
+        assertFalse(state.setQuantity("p-1", 1));
+        assertFalse(state.remove("missing"));
+        assertSame(snapshot, state.snapshot());
+
+        state.remove("p-1");
+        assertNotSame(snapshot, state.snapshot());
+        assertEquals(3, snapshot.size());
+        try {
+            snapshot.remove(0);
+            fail("snapshot is modifiable");
+        } catch (UnsupportedOperationException expected) {
+            // Expected
+        }
+    }
+
+    private double rescan() {
+        double subtotal = 0;
+        for (CartItem row : state.snapshot()) {
+            if (row.isSelected()) {
+                subtotal += row.getSubtotal();
+            }
+        }
+        return subtotal;
+    }
+
+    private static CartItem item(String productId, double unitPrice, int quantity) {
+        CartItem item = new CartItem("user-1", productId, quantity);
+        item.setProduct(new Product(productId, "Product " + productId, unitPrice));
+        return item;
+    }
+}
@@ -0,0 +1,107 @@
+-- home_feed: first-paint data for the Home and Dashboard screens in one round trip
+--
+-- Replaces the client fan-out (categories, then brands of the first category,
+-- then products) with a single document:
+--   {
+--     "categories":        [{category_id, category_name}, ...],
+--     "first_category_id": "...",
+--     "brands":            [{brand_id, brand_name, brand_logo_url}, ...],
+--     "products":          [{product_id, product_name, unit_price, product_media,
+--                            stock, status, brand_id, category_id,
+--                            brands: {brand_name}}, ...]
+--   }
+-- Products use the same card projection as ProductRepository.SELECT_CARD.
+-- Categories are ordered by (category_name, category_id), the same order as
+-- ProductRepository.ORDER_CATEGORIES, so "first category" is stable across
+-- calls and matches the fallback requests. Brands are ordered by
+-- (brand_name, brand_id).
+--
+-- STABLE, so PostgREST serves it over GET (cacheable, safe to retry):
+--   GET /rest/v1/rpc/home_feed?product_limit=20&product_order=unit_price.asc
+-- product_limit: NULL returns every active product, 0 returns none
+-- product_order: 'unit_price.asc', 'unit_price.desc' or NULL (product_id order);
+--                ties are broken by product_id
+--
+-- SECURITY INVOKER keeps the callers' RLS policies in force.
+
+create or replace function public.home_feed(
+    product_limit integer default null,
+    product_order text default null
+)
+returns json
+language sql
+stable
+security invoker
+set search_path = public
+as $$
+    with cats as materialized (
+        select c.category_id,
+               c.category_name,
+               row_number() over (order by c.category_name, c.category_id) as pos
+        from categories c
+    ),
+    first_category as (
+        select category_id
+        from cats
+        order by pos
+        limit 1
+    ),
+    page as (
+        select p.product_id,
+               p.product_name,
+               p.unit_price,
+               p.product_media,
+               p.stock,
+               p.status,
+               p.brand_id,
+               p.category_id,
+               b.brand_name,
+               row_number() over (
+                   order by case when product_order = 'unit_price.asc' then p.unit_price end asc,
+                            case when product_order = 'unit_price.desc' then p.unit_price end desc,
+                            p.product_id
+               ) as pos
+        from products p
+        left join brands b on b.brand_id = p.brand_id
+        where p.status = 'active'
+        order by pos
+        limit product_limit
+    )
+    select json_build_object(
+        'categories', coalesce((
+            select json_agg(json_build_object(
+                       'category_id', category_id,
+                       'category_name', category_name
+                   ) order by pos)
+            from cats
+        ), '[]'::json),
+        'first_category_id', (select category_id from first_category),
+        'brands', coalesce((
+            select json_agg(json_build_object(
+                       'brand_id', b.brand_id,
+                       'brand_name', b.brand_name,
+                       'brand_logo_url', b.brand_logo_url
+                   ) order by b.brand_name, b.brand_id)
+            from categories_brands cb
+            join brands b on b.brand_id = cb.brand_id
+            where cb.category_id = (select category_id from first_category)
+        ), '[]'::json),
+        'products', coalesce((
+            select json_agg(json_build_object(
+                       'product_id', product_id,
+                       'product_name', product_name,
+                       'unit_price', unit_price,
+                       'product_media', product_media,
+                       'stock', stock,
+                       'status', status,
+                       'brand_id', brand_id,
+                       'category_id', category_id,
+                       'brands', case when brand_name is null then null
+                                      else json_build_object('brand_name', brand_name) end
+                   ) order by pos)
+            from page
+        ), '[]'::json)
+    );
+$$;
+
+grant execute on function public.home_feed(integer, text) to anon, authenticated;
@@ -0,0 +1,127 @@
+-- Delta sync support for the offline catalog (CatalogSyncEngine in the app)
+--
+-- Clients keep a high-water mark per table and only ask for rows with
+-- updated_at greater than it, paging on (updated_at, primary key).
+--
+-- Rows a client must drop are reported in two ways:
+--   * deleted_at set (soft delete) or status no longer 'active' on a changed row
+--   * a catalog_tombstones entry, written by trigger on hard DELETE and when a
+--     product leaves 'active' (customers' RLS hides inactive products, so the
+--     changed row itself is not visible to them)
+-- Tombstones older than 30 days may be purged; clients that have not synced
+-- for longer than that do a full resync.
+
+-- ========== updated_at / deleted_at ==========
+
+alter table public.categories add column if not exists updated_at timestamptz not null default now();
+alter table public.categories add column if not exists deleted_at timestamptz;
+alter table public.brands add column if not exists updated_at timestamptz not null default now();
+alter table public.brands add column if not exists deleted_at timestamptz;
+alter table public.products add column if not exists updated_at timestamptz not null default now();
+alter table public.products add column if not exists deleted_at timestamptz;
+alter table public.categories_brands add column if not exists updated_at timestamptz not null default now();
+
+-- Seek indexes for updated_at=gt.<cursor>&order=updated_at.asc,<key>.asc
+create index if not exists categories_updated_at_idx on public.categories (updated_at, category_id);
+create index if not exists brands_updated_at_idx on public.brands (updated_at, brand_id);
+create index if not exists products_updated_at_idx on public.products (updated_at, product_id);
+create index if not exists categories_brands_updated_at_idx
+    on public.categories_brands (updated_at, category_id, brand_id);
+
+create or replace function public.touch_updated_at()
+returns trigger
+language plpgsql
+as $$
+begin
+    new.updated_at := now();
+    return new;
+end;
+$$;
+
+drop trigger if exists categories_touch_updated_at on public.categories;
+create trigger categories_touch_updated_at
+    before update on public.categories
+    for each row execute function public.touch_updated_at();
+
+drop trigger if exists brands_touch_updated_at on public.brands;
+create trigger brands_touch_updated_at
+    before update on public.brands
+    for each row execute function public.touch_updated_at();
+
+drop trigger if exists products_touch_updated_at on public.products;
+create trigger products_touch_updated_at
+    before update on public.products
+    for each row execute function public.touch_updated_at();
+
+drop trigger if exists categories_brands_touch_updated_at on public.categories_brands;
+create trigger categories_brands_touch_updated_at
+    before update on public.categories_brands
+    for each row execute function public.touch_updated_at();
+
+-- ========== tombstones ==========
+
+create table if not exists public.catalog_tombstones (
+    id bigint generated always as identity primary key,
+    table_name text not null,
+    row_id text not null, -- primary key; "category_id/brand_id" for categories_brands
+    deleted_at timestamptz not null default now()
+);
+
+create index if not exists catalog_tombstones_deleted_at_idx on public.catalog_tombstones (deleted_at, id);
+
+alter table public.catalog_tombstones enable row level security;
+
+drop policy if exists "Anyone can read catalog tombstones" on public.catalog_tombstones;
+create policy "Anyone can read catalog tombstones"
+on public.catalog_tombstones
+for select
+to anon, authenticated
+using (true);
+
+-- Trigger arguments: the primary key column(s) of the table
+create or replace function public.record_catalog_tombstone()
+returns trigger
+language plpgsql
+security definer
+set search_path = public
+as $$
+declare
+    old_row jsonb := to_jsonb(old);
+    row_key text := old_row ->> tg_argv[0];
+begin
+    if tg_nargs > 1 then
+        row_key := row_key || '/' || (old_row ->> tg_argv[1]);
+    end if;
+
+    if tg_op = 'DELETE' then
+        insert into catalog_tombstones (table_name, row_id) values (tg_table_name, row_key);
+        return old;
+    end if;
+
+    -- UPDATE: the row left the customer-visible catalog
+    if (old_row ->> 'status') = 'active' and (to_jsonb(new) ->> 'status') is distinct from 'active' then
+        insert into catalog_tombstones (table_name, row_id) values (tg_table_name, row_key);
+    end if;
+    return new;
+end;
+$$;
+
+drop trigger if exists categories_tombstone on public.categories;
+create trigger categories_tombstone
+    after delete on public.categories
+    for each row execute function public.record_catalog_tombstone('category_id');
+
+drop trigger if exists brands_tombstone on public.brands;
+create trigger brands_tombstone
+    after delete on public.brands
+    for each row execute function public.record_catalog_tombstone('brand_id');
+
+drop trigger if exists products_tombstone on public.products;
+create trigger products_tombstone
+    after delete or update of status on public.products
+    for each row execute function public.record_catalog_tombstone('product_id');
+
+drop trigger if exists categories_brands_tombstone on public.categories_brands;
+create trigger categories_brands_tombstone
+    after delete on public.categories_brands
+    for each row execute function public.record_catalog_tombstone('category_id', 'brand_id');
@@ -0,0 +1,20 @@
+-- Realtime stock and price for the app (ProductLiveUpdates / RealtimeClient)
+--
+-- Supabase Realtime only streams postgres_changes of tables in the
+-- supabase_realtime publication. Clients subscribe to products and patch
+-- stock, unit_price and status of the products they are showing. RLS still
+-- applies: customers only receive changes of rows they can select.
+
+do $$
+begin
+    if not exists (
+        select 1
+        from pg_publication_tables
+        where pubname = 'supabase_realtime'
+          and schemaname = 'public'
+          and tablename = 'products'
+    ) then
+        alter publication supabase_realtime add table public.products;
+    end if;
+end;
+$$;
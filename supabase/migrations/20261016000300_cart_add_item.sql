@@ -0,0 +1,33 @@
+-- add_to_cart: "add N more" in one request (CartRepository.incrementCartItem)
+--
+-- Inserts the row, or adds to the quantity of the existing one, atomically:
+--   POST /rest/v1/rpc/add_to_cart  {"p_product_id": "...", "p_quantity": 1}
+-- Returns the resulting cart_items row.
+--
+-- Setting an absolute quantity needs no function: PostgREST upserts with
+--   POST /rest/v1/cart_items?on_conflict=user_id,product_id
+--   Prefer: resolution=merge-duplicates
+-- using the (user_id, product_id) primary key.
+--
+-- SECURITY INVOKER keeps the cart_items RLS policies in force; the row
+-- always belongs to the caller (auth.uid()).
+
+create or replace function public.add_to_cart(
+    p_product_id public.cart_items.product_id%type,
+    p_quantity integer default 1
+)
+returns public.cart_items
+language sql
+volatile
+security invoker
+set search_path = public
+as $$
+    insert into cart_items as ci (user_id, product_id, quantity)
+    values (auth.uid(), p_product_id, p_quantity)
+    on conflict (user_id, product_id)
+    do update set quantity = ci.quantity + excluded.quantity,
+                  updated_at = now()
+    returning ci.*;
+$$;
+
+grant execute on function public.add_to_cart(public.cart_items.product_id%type, integer) to authenticated;
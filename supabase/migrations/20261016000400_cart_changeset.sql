@@ -0,0 +1,45 @@
+-- apply_cart_changes: several cart edits in one request and one transaction
+-- (CartRepository.applyCartChanges)
+--
+--   POST /rest/v1/rpc/apply_cart_changes
+--   {"p_changes": [{"product_id": "...", "quantity": 3},   -- set quantity (insert if missing)
+--                  {"product_id": "...", "quantity": 0}]}  -- remove from cart
+-- Returns the cart_items rows that were inserted or updated.
+-- Each product_id may appear only once per call (the client keeps the last).
+--
+-- Either every change is applied or none is. Rows always belong to the
+-- caller (auth.uid()); SECURITY INVOKER keeps the cart_items RLS policies.
+--
+-- Single-kind batches need no function:
+--   DELETE /rest/v1/cart_items?user_id=eq.{id}&product_id=in.(a,b,c)
+--   POST   /rest/v1/cart_items?on_conflict=user_id,product_id   (JSON array body)
+--   Prefer: resolution=merge-duplicates
+
+create or replace function public.apply_cart_changes(p_changes jsonb)
+returns setof public.cart_items
+language plpgsql
+volatile
+security invoker
+set search_path = public
+as $$
+begin
+    -- Typed like cart_items, whatever the key column types are
+    delete from cart_items ci
+    using jsonb_populate_recordset(null::cart_items, p_changes) as c
+    where ci.user_id = auth.uid()
+      and ci.product_id = c.product_id
+      and coalesce(c.quantity, 0) <= 0;
+
+    return query
+    insert into cart_items as ci (user_id, product_id, quantity)
+    select auth.uid(), c.product_id, c.quantity
+    from jsonb_populate_recordset(null::cart_items, p_changes) as c
+    where c.quantity > 0
+    on conflict (user_id, product_id)
+    do update set quantity = excluded.quantity,
+                  updated_at = now()
+    returning ci.*;
+end;
+$$;
+
+grant execute on function public.apply_cart_changes(jsonb) to authenticated;